@@ -1,11 +1,14 @@
 package com.ecommerce.apigateway;
 
+import com.ecommerce.sharedlib.tracing.TracingConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import(TracingConfiguration.class)
 public class ApiGatewayApplication {
 
     public static void main(String[] args) {
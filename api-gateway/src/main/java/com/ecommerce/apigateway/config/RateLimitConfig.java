@@ -0,0 +1,71 @@
+package com.ecommerce.apigateway.config;
+
+import com.ecommerce.apigateway.filter.ConcurrencyLimitGatewayFilterFactory;
+import com.ecommerce.apigateway.ratelimit.AdmissionController;
+import com.ecommerce.apigateway.ratelimit.ClientKeyResolver;
+import com.ecommerce.apigateway.ratelimit.LocalTokenBucketStore;
+import com.ecommerce.apigateway.ratelimit.TokenBucketRateLimiter;
+import com.ecommerce.apigateway.ratelimit.TokenBucketStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Control de admisión del gateway: rate limiting por ruta y cliente ({@code RequestRateLimiter}
+ * con {@link TokenBucketRateLimiter}) y límite de concurrencia por ruta ({@code ConcurrencyLimit}).
+ * Los límites de cada ruta se declaran en sus filtros en application.yml.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${gateway.admission.enabled:true}")
+    private boolean enabled;
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.admission.rate-limit.store", havingValue = "local", matchIfMissing = true)
+    public TokenBucketStore tokenBucketStore(
+            @Value("${gateway.admission.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${gateway.admission.rate-limit.idle-expiry:10m}") Duration idleExpiry) {
+        return new LocalTokenBucketStore(maxClients, idleExpiry);
+    }
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(
+            ConfigurationService configurationService,
+            TokenBucketStore tokenBucketStore,
+            @Value("${gateway.admission.rate-limit.default.replenish-rate:100}") int replenishRate,
+            @Value("${gateway.admission.rate-limit.default.burst-capacity:200}") int burstCapacity) {
+        TokenBucketRateLimiter.Config defaultConfig = new TokenBucketRateLimiter.Config();
+        defaultConfig.setReplenishRate(replenishRate);
+        defaultConfig.setBurstCapacity(burstCapacity);
+        return new TokenBucketRateLimiter(configurationService, tokenBucketStore, defaultConfig, enabled);
+    }
+
+    @Bean
+    public ClientKeyResolver clientKeyResolver() {
+        return new ClientKeyResolver();
+    }
+
+    @Bean
+    public AdmissionController admissionController(
+            @Value("${gateway.admission.max-in-flight:1000}") int maxInFlight,
+            @Value("${gateway.admission.low-priority-share:0.7}") double lowPriorityShare,
+            MeterRegistry meterRegistry) {
+        AdmissionController admissionController = new AdmissionController(maxInFlight, lowPriorityShare);
+        Gauge.builder("gateway.admission.in-flight", admissionController, AdmissionController::inFlight)
+                .register(meterRegistry);
+        return admissionController;
+    }
+
+    @Bean
+    public ConcurrencyLimitGatewayFilterFactory concurrencyLimitGatewayFilterFactory(
+            AdmissionController admissionController, MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitGatewayFilterFactory(admissionController, meterRegistry, enabled);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.apigateway.config;
+
+import com.ecommerce.apigateway.filter.ResponseCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCacheFilter responseCacheFilter(
+            @Value("${gateway.response-cache.path-prefix:/api/inventory}") String pathPrefix,
+            @Value("${gateway.response-cache.cacheable-paths:/api/inventory,/api/inventory/{sku}}") List<String> cacheablePaths,
+            @Value("${gateway.response-cache.excluded-paths:/api/inventory/events/**,/api/inventory/reservations/**}") List<String> excludedPaths,
+            @Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+            @Value("${gateway.response-cache.max-entry-size:4MB}") DataSize maxEntrySize,
+            @Value("${gateway.response-cache.fresh-for:5s}") Duration freshFor,
+            @Value("${gateway.response-cache.retain-for:10m}") Duration retainFor,
+            MeterRegistry meterRegistry) {
+        return new ResponseCacheFilter(pathPrefix, cacheablePaths, excludedPaths,
+                maxSize.toBytes(), (int) maxEntrySize.toBytes(), freshFor, retainFor, meterRegistry);
+    }
+}
@@ -1,23 +1,44 @@
 package com.ecommerce.apigateway.config;
 
+import com.ecommerce.apigateway.filter.JwtAuthenticationFilter;
+import com.ecommerce.sharedlib.constants.SecurityContrants;
+import com.ecommerce.sharedlib.security.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
 @Configuration
 @EnableWebFluxSecurity
+@Import(JwtUtil.class)
 public class SecurityConfig {
 
+    @Value("${security.gateway.shared-secret:}")
+    private String gatewaySharedSecret;
+
+    @Value("${security.gateway.require-authentication:false}")
+    private boolean requireAuthentication;
+
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil) {
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
-                .authorizeExchange(exchanges -> exchanges
+                // El JWT se verifica aquí una sola vez; los servicios internos confían en las cabeceras propagadas
+                .addFilterAt(new JwtAuthenticationFilter(jwtUtil, gatewaySharedSecret),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .authorizeExchange(exchanges -> {
+                    if (requireAuthentication) {
+                        exchanges.pathMatchers(SecurityContrants.PUBLIC_URLS).permitAll()
+                                .anyExchange().authenticated();
+                    } else {
                         // TEMPORAL: Permitir todo para testing
-                        .anyExchange().permitAll()
-                )
+                        exchanges.anyExchange().permitAll();
+                    }
+                })
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.apigateway.ratelimit.AdmissionController;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setResponseStatus;
+
+/**
+ * Limita las peticiones en curso de una ruta ({@code max-concurrent}) y las somete al presupuesto
+ * global de {@link AdmissionController}. Con {@code prioritize-writes} las escrituras de la ruta
+ * entran como alta prioridad; el resto de peticiones, como baja. Lo que no se admite recibe 429
+ * con {@code Retry-After}.
+ */
+public class ConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final AdmissionController admission;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public ConcurrencyLimitGatewayFilterFactory(AdmissionController admission, MeterRegistry meterRegistry,
+                                                boolean enabled) {
+        super(Config.class);
+        this.admission = admission;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        AtomicInteger routeInFlight = new AtomicInteger();
+        return (exchange, chain) -> {
+            if (!enabled) {
+                return chain.filter(exchange);
+            }
+
+            if (!tryAcquire(routeInFlight, config.getMaxConcurrent())) {
+                return reject(exchange, config, "route");
+            }
+            AdmissionController.Priority priority = config.isPrioritizeWrites()
+                    && WRITE_METHODS.contains(exchange.getRequest().getMethod())
+                    ? AdmissionController.Priority.HIGH
+                    : AdmissionController.Priority.LOW;
+            if (!admission.tryAcquire(priority)) {
+                routeInFlight.decrementAndGet();
+                return reject(exchange, config, "overload");
+            }
+
+            return chain.filter(exchange).doFinally(signal -> {
+                admission.release();
+                routeInFlight.decrementAndGet();
+            });
+        };
+    }
+
+    private static boolean tryAcquire(AtomicInteger inFlight, int limit) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Config config, String reason) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.admission.rejected",
+                        "route", route != null ? route.getId() : "unknown",
+                        "reason", reason)
+                .increment();
+        setResponseStatus(exchange, HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()));
+        return exchange.getResponse().setComplete();
+    }
+
+    @Data
+    public static class Config {
+        private int maxConcurrent = Integer.MAX_VALUE;
+        private boolean prioritizeWrites;
+        private int retryAfterSeconds = 1;
+    }
+}
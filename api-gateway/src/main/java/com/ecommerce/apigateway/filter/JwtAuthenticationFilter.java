@@ -0,0 +1,76 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.sharedlib.constants.SecurityContrants;
+import com.ecommerce.sharedlib.security.JwtClaims;
+import com.ecommerce.sharedlib.security.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Verifica el JWT una sola vez en el gateway y propaga la identidad a los servicios
+ * internos mediante cabeceras de confianza. Las cabeceras de identidad que lleguen
+ * desde fuera se descartan siempre para que no puedan suplantarse.
+ */
+@Slf4j
+public class JwtAuthenticationFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+    private final String gatewaySharedSecret;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, String gatewaySharedSecret) {
+        this.jwtUtil = jwtUtil;
+        this.gatewaySharedSecret = gatewaySharedSecret;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(SecurityContrants.AUTHORIZATION_HEADER);
+        if (authorization == null || !authorization.startsWith(SecurityContrants.TOKEN_PREFIX)) {
+            return chain.filter(withIdentity(exchange, null));
+        }
+
+        Optional<JwtClaims> claims = jwtUtil.validateAndExtract(jwtUtil.extractToken(authorization));
+        if (claims.isEmpty()) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+
+        JwtClaims verified = claims.get();
+        UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                verified.getSubject(), null,
+                verified.getRoles().stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                        .toList());
+
+        return chain.filter(withIdentity(exchange, verified))
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, JwtClaims claims) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(SecurityContrants.USER_HEADER);
+                    headers.remove(SecurityContrants.ROLES_HEADER);
+                    headers.remove(SecurityContrants.GATEWAY_SECRET_HEADER);
+                    if (claims != null) {
+                        headers.set(SecurityContrants.USER_HEADER, claims.getSubject());
+                        headers.set(SecurityContrants.ROLES_HEADER, String.join(",", claims.getRoles()));
+                        if (gatewaySharedSecret != null && !gatewaySharedSecret.isBlank()) {
+                            headers.set(SecurityContrants.GATEWAY_SECRET_HEADER, gatewaySharedSecret);
+                        }
+                    }
+                })
+                .build();
+        return exchange.mutate().request(request).build();
+    }
+}
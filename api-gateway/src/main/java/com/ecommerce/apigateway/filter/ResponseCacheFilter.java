@@ -0,0 +1,315 @@
+package com.ecommerce.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Caché en memoria de las respuestas GET de las rutas de {@code cacheablePaths}: producto
+ * ({@code /api/inventory/{sku}}) y catálogo ({@code /api/inventory}, con o sin paginación). Solo se
+ * guardan esas rutas; las de {@code excludedPaths} (p. ej. el feed de eventos) pasan siempre al
+ * origen aunque también encajen. La clave incluye la query, así que cada página es una entrada. Una entrada se sirve sin ir al origen durante
+ * {@code freshFor}; después se revalida con {@code If-None-Match} y, si el origen responde 304,
+ * se renueva sin volver a transferir el cuerpo. El gateway también contesta 304 a los clientes
+ * cuyo {@code If-None-Match} coincide con el ETag guardado. El gateway actúa como caché propia del
+ * sistema: la frescura la fija {@code freshFor} y del origen solo se respetan {@code no-store} y
+ * {@code private} ({@code no-cache} va dirigido a los clientes, que revalidan con el ETag).
+ * <p>
+ * Los métodos no seguros bajo {@code pathPrefix} invalidan el SKU afectado y los listados. Las
+ * reservas que order-service hace directamente contra inventory-service no pasan por aquí: su
+ * efecto se ve como mucho {@code freshFor} después, al revalidar.
+ */
+@Slf4j
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final String HIT = "HIT";
+    private static final String MISS = "MISS";
+    private static final String REVALIDATED = "REVALIDATED";
+    // Estimación de lo que ocupan clave y cabeceras, para que el peso no sea solo el cuerpo
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final String pathPrefix;
+    private final List<PathPattern> cacheablePaths;
+    private final List<PathPattern> excludedPaths;
+    private final Duration freshFor;
+    private final int maxEntryBytes;
+    private final Cache<CacheKey, CachedResponse> cache;
+
+    /**
+     * @param cacheablePaths patrones de los GET que se guardan; la variable {@code sku}, si la hay,
+     *                       identifica el producto para invalidarlo
+     * @param excludedPaths  patrones que nunca se guardan, aunque encajen en {@code cacheablePaths}
+     */
+    public ResponseCacheFilter(String pathPrefix, List<String> cacheablePaths, List<String> excludedPaths,
+                               long maxBytes, int maxEntryBytes,
+                               Duration freshFor, Duration retainFor, MeterRegistry meterRegistry) {
+        this.pathPrefix = pathPrefix;
+        this.cacheablePaths = parse(cacheablePaths);
+        this.excludedPaths = parse(excludedPaths);
+        this.freshFor = freshFor;
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CacheKey key, CachedResponse value) -> value.body().length + ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(retainFor)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-response-cache");
+    }
+
+    @Override
+    public int getOrder() {
+        // Antes de NettyWriteResponseFilter para poder decorar la respuesta que este escribe
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.GET.equals(method)) {
+            CacheKey key = cacheKey(request);
+            return key != null ? serve(exchange, chain, key) : chain.filter(exchange);
+        }
+
+        String path = request.getPath().pathWithinApplication().value();
+        if (!path.equals(pathPrefix) && !path.startsWith(pathPrefix + "/")
+                || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return chain.filter(exchange);
+        }
+        List<String> segments = Arrays.stream(path.substring(pathPrefix.length()).split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .toList();
+
+        // Se invalida antes y después para que un GET concurrente no vuelva a guardar la versión anterior
+        Runnable invalidation = invalidationFor(segments);
+        invalidation.run();
+        return chain.filter(exchange).doFinally(signal -> invalidation.run());
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, GatewayFilterChain chain, CacheKey key) {
+        ServerHttpRequest request = exchange.getRequest();
+        List<String> clientETags = request.getHeaders().getIfNoneMatch();
+        boolean revalidationRequested = requestCacheControl(request).contains("no-cache");
+
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && !revalidationRequested && cached.isFresh(freshFor)) {
+            return write(exchange.getResponse(), cached, clientETags, HIT);
+        }
+
+        // Sin entrada o caducada: al origen sin las condiciones del cliente (hace falta el cuerpo
+        // para guardarlo); si hay copia se revalida con su ETag
+        ServerHttpRequest upstream = request.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                    if (cached != null && cached.etag() != null) {
+                        headers.setIfNoneMatch(cached.etag());
+                    }
+                })
+                .build();
+        CachingResponse response = new CachingResponse(exchange.getResponse(), key, cached, clientETags);
+        return chain.filter(exchange.mutate().request(upstream).response(response).build());
+    }
+
+    private CacheKey cacheKey(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        if (excludedPaths.stream().anyMatch(pattern -> pattern.matches(path))) {
+            return null;
+        }
+        PathPattern.PathMatchInfo match = cacheablePaths.stream()
+                .map(pattern -> pattern.matchAndExtract(path))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+        if (match == null) {
+            return null;
+        }
+
+        HttpHeaders headers = request.getHeaders();
+        String accept = headers.getFirst(HttpHeaders.ACCEPT);
+        // El catálogo en NDJSON es un stream: no se acumula en memoria
+        if (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+            return null;
+        }
+        if (requestCacheControl(request).contains("no-store")) {
+            return null;
+        }
+
+        String uri = request.getURI().getRawPath()
+                + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+        String sku = match.getUriVariables().get("sku");
+        return new CacheKey(sku, uri, accept, headers.getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    private Runnable invalidationFor(List<String> segments) {
+        if (segments.isEmpty()) {
+            // Alta de producto: cambia el catálogo; un GET previo del SKU nuevo fue 404 y no se guardó
+            return () -> cache.asMap().keySet().removeIf(CacheKey::isCatalog);
+        }
+        if (segments.size() == 1 && segments.get(0).equals("reservations")) {
+            // Reserva en lote: los SKUs van en el cuerpo, se invalida todo
+            return cache::invalidateAll;
+        }
+        String sku = segments.get(0);
+        return () -> cache.asMap().keySet().removeIf(key -> key.isCatalog() || sku.equals(key.sku()));
+    }
+
+    private static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    private static String requestCacheControl(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null ? cacheControl : "";
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, CachedResponse cached,
+                                    List<String> clientETags, String cacheStatus) {
+        HttpHeaders headers = response.getHeaders();
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        if (cached.etag() != null) {
+            headers.setETag(cached.etag());
+        }
+        if (cached.cacheControl() != null) {
+            headers.set(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        }
+        if (matches(clientETags, cached.etag())) {
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+        }
+        if (cached.contentEncoding() != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, cached.contentEncoding());
+        }
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    // Comparación débil (RFC 9110 13.1.2): se ignora el prefijo W/
+    private static boolean matches(List<String> clientETags, String etag) {
+        if (etag == null || clientETags.isEmpty()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        return clientETags.stream().anyMatch(candidate -> candidate.equals("*") || stripWeak(candidate).equals(opaque));
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Intercepta la respuesta del origen: guarda los 200 cacheables y, si el origen confirma
+     * con 304 la copia caducada, la renueva y la sirve en su lugar.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final CacheKey key;
+        private final CachedResponse stale;
+        private final List<String> clientETags;
+
+        CachingResponse(ServerHttpResponse delegate, CacheKey key, CachedResponse stale, List<String> clientETags) {
+            super(delegate);
+            this.key = key;
+            this.stale = stale;
+            this.clientETags = clientETags;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (HttpStatus.NOT_MODIFIED.equals(status) && stale != null) {
+                CachedResponse refreshed = stale.refreshed();
+                cache.put(key, refreshed);
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> write(getDelegate(), refreshed, clientETags, REVALIDATED)));
+            }
+            if (!HttpStatus.OK.equals(status) || !storable(getHeaders())) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body)
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes -> {
+                        HttpHeaders headers = getHeaders();
+                        CachedResponse fetched = new CachedResponse(bytes, headers.getFirst(HttpHeaders.CONTENT_TYPE),
+                                headers.getFirst(HttpHeaders.CONTENT_ENCODING), headers.getCacheControl(),
+                                headers.getETag(), System.nanoTime());
+                        if (bytes.length <= maxEntryBytes) {
+                            cache.put(key, fetched);
+                        } else {
+                            log.debug("Respuesta de {} bytes demasiado grande para la caché: {}", bytes.length, key.uri());
+                        }
+                        return write(getDelegate(), fetched, clientETags, MISS);
+                    });
+        }
+
+        private boolean storable(HttpHeaders headers) {
+            String cacheControl = headers.getCacheControl();
+            return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+        }
+    }
+
+    private record CacheKey(String sku, String uri, String accept, String acceptEncoding) {
+
+        boolean isCatalog() {
+            return sku == null;
+        }
+    }
+
+    private record CachedResponse(byte[] body, String contentType, String contentEncoding, String cacheControl,
+                                  String etag, long storedAtNanos) {
+
+        boolean isFresh(Duration freshFor) {
+            return System.nanoTime() - storedAtNanos < freshFor.toNanos();
+        }
+
+        CachedResponse refreshed() {
+            return new CachedResponse(body, contentType, contentEncoding, cacheControl, etag, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Presupuesto global de peticiones en curso en el gateway con dos prioridades. Las de baja
+ * prioridad (lecturas) solo pueden ocupar {@code lowPriorityShare} del total, de modo que con
+ * sobrecarga siempre queda hueco para las de alta prioridad (escrituras de órdenes).
+ */
+public class AdmissionController {
+
+    public enum Priority {
+        HIGH, LOW
+    }
+
+    private final int maxInFlight;
+    private final int lowPriorityLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdmissionController(int maxInFlight, double lowPriorityShare) {
+        this.maxInFlight = maxInFlight;
+        this.lowPriorityLimit = Math.max(1, (int) (maxInFlight * lowPriorityShare));
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        int limit = priority == Priority.HIGH ? maxInFlight : lowPriorityLimit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+/**
+ * Clave de cliente para el rate limiting: el subject del JWT si la petición está autenticada
+ * y, si no, la IP de origen. No se usa X-Forwarded-For porque el cliente puede falsearla.
+ */
+public class ClientKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .filter(principal -> !(principal instanceof AnonymousAuthenticationToken))
+                .map(Principal::getName)
+                .map(subject -> "user:" + subject)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + remoteAddress(exchange)));
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
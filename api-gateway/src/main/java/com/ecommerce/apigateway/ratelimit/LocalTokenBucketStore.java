@@ -0,0 +1,56 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket en memoria implementado como GCRA: cada clave guarda solo el instante teórico
+ * de llegada (TAT) en un {@link AtomicLong} y se actualiza con compare-and-set, sin locks ni
+ * tareas de recarga. Es equivalente a un bucket de {@code burstCapacity} tokens que se rellena
+ * a {@code replenishRate} por segundo.
+ * <p>
+ * Las claves inactivas se descartan tras {@code idleExpiry}; debe superar el tiempo de recarga
+ * completa ({@code burstCapacity / replenishRate}) para no regalar tokens.
+ */
+public class LocalTokenBucketStore implements TokenBucketStore {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public LocalTokenBucketStore(long maxKeys, Duration idleExpiry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    @Override
+    public Mono<Decision> tryConsume(String key, int replenishRate, int burstCapacity, int tokens) {
+        return Mono.just(consume(key, replenishRate, burstCapacity, tokens, System.nanoTime()));
+    }
+
+    Decision consume(String key, int replenishRate, int burstCapacity, int tokens, long now) {
+        long interval = NANOS_PER_SECOND / replenishRate;
+        long tolerance = interval * burstCapacity;
+        // Un bucket nuevo empieza lleno: TAT = ahora
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval * tokens;
+            long allowAt = next - tolerance;
+            if (allowAt > now) {
+                return new Decision(false, 0, Duration.ofNanos(allowAt - now));
+            }
+            if (tat.compareAndSet(current, next)) {
+                return new Decision(true, (now - allowAt) / interval, Duration.ZERO);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code RateLimiter} para el filtro {@code RequestRateLimiter} del gateway, con un bucket por
+ * ruta y cliente. Se configura por ruta con los argumentos {@code token-bucket-rate-limiter.*}
+ * (mismo esquema que {@code redis-rate-limiter.*}); las rutas sin argumentos usan la configuración
+ * por defecto. Al rechazar añade {@code Retry-After} en segundos.
+ */
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final TokenBucketStore store;
+    private final Config defaultConfig;
+    private final boolean enabled;
+
+    public TokenBucketRateLimiter(ConfigurationService configurationService, TokenBucketStore store,
+                                  Config defaultConfig, boolean enabled) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = store;
+        this.defaultConfig = defaultConfig;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        if (!enabled) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        return store.tryConsume(routeId + ":" + id, config.getReplenishRate(), config.getBurstCapacity(),
+                        config.getRequestedTokens())
+                .map(decision -> new Response(decision.allowed(), headers(config, decision)));
+    }
+
+    private Map<String, String> headers(Config config, TokenBucketStore.Decision decision) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        if (!decision.allowed()) {
+            // Retry-After se expresa en segundos enteros: se redondea hacia arriba
+            long millis = decision.retryAfter().toMillis();
+            headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (millis + 999) / 1000)));
+        }
+        return headers;
+    }
+
+    @Data
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate = 1;
+
+        @Min(1)
+        private int burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+}
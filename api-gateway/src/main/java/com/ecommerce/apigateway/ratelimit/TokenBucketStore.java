@@ -0,0 +1,27 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Estado de los token buckets del gateway. La implementación por defecto vive en memoria
+ * ({@link LocalTokenBucketStore}); un backend compartido entre instancias (Redis, etc.) declara
+ * otro bean de este tipo y fija {@code gateway.admission.rate-limit.store} a un valor distinto de
+ * {@code local}.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Intenta consumir {@code tokens} del bucket {@code key}, que se rellena a
+     * {@code replenishRate} tokens por segundo hasta {@code burstCapacity}.
+     */
+    Mono<Decision> tryConsume(String key, int replenishRate, int burstCapacity, int tokens);
+
+    /**
+     * @param remaining  tokens que quedan tras la petición (0 si se rechaza)
+     * @param retryAfter tiempo hasta que la petición se admitiría; {@link Duration#ZERO} si se admite
+     */
+    record Decision(boolean allowed, long remaining, Duration retryAfter) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.apigateway.ratelimit.AdmissionController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rechazos de {@link ConcurrencyLimitGatewayFilterFactory}: las peticiones en curso se simulan con
+ * una cadena que no termina hasta que el test la completa.
+ */
+class ConcurrencyLimitGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Sinks.Empty<Void> upstream = Sinks.empty();
+
+    @Test
+    void requestOverTheRouteLimitIsRejectedUntilOneFinishes() {
+        GatewayFilter filter = filter(new AdmissionController(100, 0.7), 1, false);
+
+        MockServerWebExchange first = exchange(HttpMethod.GET);
+        filter.filter(first, exchange -> upstream.asMono()).subscribe();
+
+        MockServerWebExchange second = exchange(HttpMethod.GET);
+        filter.filter(second, exchange -> upstream.asMono()).block();
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected("route")).isEqualTo(1);
+
+        // Al terminar la primera se libera su hueco
+        upstream.tryEmitEmpty();
+        MockServerWebExchange third = exchange(HttpMethod.GET);
+        filter.filter(third, exchange -> upstream.asMono()).block();
+        assertThat(third.getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    void readsCannotTakeTheShareReservedForWrites() {
+        // Presupuesto global de 2: las lecturas solo pueden ocupar 1
+        GatewayFilter filter = filter(new AdmissionController(2, 0.5), 10, true);
+
+        filter.filter(exchange(HttpMethod.GET), exchange -> upstream.asMono()).subscribe();
+
+        MockServerWebExchange read = exchange(HttpMethod.GET);
+        filter.filter(read, exchange -> upstream.asMono()).block();
+        assertThat(read.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected("overload")).isEqualTo(1);
+
+        MockServerWebExchange write = exchange(HttpMethod.POST);
+        filter.filter(write, exchange -> upstream.asMono()).subscribe();
+        assertThat(write.getResponse().getStatusCode()).isNull();
+
+        // Con el presupuesto completo también se rechazan las escrituras
+        MockServerWebExchange another = exchange(HttpMethod.POST);
+        filter.filter(another, exchange -> upstream.asMono()).block();
+        assertThat(another.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected("overload")).isEqualTo(2);
+    }
+
+    private GatewayFilter filter(AdmissionController admission, int maxConcurrent, boolean prioritizeWrites) {
+        ConcurrencyLimitGatewayFilterFactory.Config config = new ConcurrencyLimitGatewayFilterFactory.Config();
+        config.setMaxConcurrent(maxConcurrent);
+        config.setPrioritizeWrites(prioritizeWrites);
+        return new ConcurrencyLimitGatewayFilterFactory(admission, meterRegistry, true).apply(config);
+    }
+
+    private static MockServerWebExchange exchange(HttpMethod method) {
+        return MockServerWebExchange.from(MockServerHttpRequest.method(method, "/api/v1/order").build());
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.counter("gateway.admission.rejected", "route", "unknown", "reason", reason).count();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ResponseCacheFilter} con la configuración de application.yml contra un origen simulado
+ * que responde con el ETag de la versión actual de cada ruta y 304 si coincide el If-None-Match.
+ */
+class ResponseCacheFilterTest {
+
+    private final ResponseCacheFilter filter = new ResponseCacheFilter("/api/inventory",
+            List.of("/api/inventory", "/api/inventory/{sku}"),
+            List.of("/api/inventory/events/**", "/api/inventory/reservations/**"),
+            DataSize.ofMegabytes(1).toBytes(), (int) DataSize.ofKilobytes(64).toBytes(),
+            Duration.ofMinutes(1), Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    // Peticiones que llegaron al origen
+    private final List<String> upstream = new ArrayList<>();
+    private int version;
+
+    private final GatewayFilterChain origin = exchange -> {
+        String path = exchange.getRequest().getURI().getRawPath();
+        String query = exchange.getRequest().getURI().getRawQuery();
+        upstream.add(exchange.getRequest().getMethod() + " " + path + (query != null ? "?" + query : ""));
+        ServerHttpResponse response = exchange.getResponse();
+        String etag = "\"" + version + "\"";
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.writeWith(Flux.empty());
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setETag(etag);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"version\": " + version + "}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    };
+
+    @Test
+    void clientWithTheCachedETagGetsNotModifiedWithoutReachingTheOrigin() {
+        MockServerWebExchange first = get("/api/inventory/pro1");
+        assertThat(first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = send(MockServerHttpRequest.get("/api/inventory/pro1")
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .ifNoneMatch(etag));
+        assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidation.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER))
+                .isEqualTo("HIT");
+        assertThat(revalidation.getResponse().getHeaders().getETag()).isEqualTo(etag);
+        assertThat(upstream).containsExactly("GET /api/inventory/pro1");
+    }
+
+    @Test
+    void writeInvalidatesTheProductAndTheCatalogButNotOtherProducts() {
+        get("/api/inventory/pro1");
+        get("/api/inventory/pro2");
+        get("/api/inventory");
+
+        version++;
+        send(MockServerHttpRequest.put("/api/inventory/pro1"));
+
+        MockServerWebExchange product = get("/api/inventory/pro1");
+        assertThat(product.getResponse().getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(product.getResponse().getBodyAsString().block()).isEqualTo("{\"version\": 1}");
+        assertThat(get("/api/inventory").getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER))
+                .isEqualTo("MISS");
+        assertThat(get("/api/inventory/pro2").getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER))
+                .isEqualTo("HIT");
+        assertThat(upstream).containsExactly("GET /api/inventory/pro1", "GET /api/inventory/pro2", "GET /api/inventory",
+                "PUT /api/inventory/pro1", "GET /api/inventory/pro1", "GET /api/inventory");
+    }
+
+    @Test
+    void eachPageIsCachedUnderItsOwnQuery() {
+        get("/api/inventory?size=1");
+        version++;
+        MockServerWebExchange otherPage = get("/api/inventory?size=1&after=pro1");
+
+        assertThat(otherPage.getResponse().getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(get("/api/inventory?size=1").getResponse().getHeaders().getETag()).isEqualTo("\"0\"");
+        assertThat(upstream).containsExactly("GET /api/inventory?size=1", "GET /api/inventory?size=1&after=pro1");
+    }
+
+    @Test
+    void eventFeedAndOtherRoutesOutsideTheAllowListAreNeverCached() {
+        for (String path : List.of("/api/inventory/events?after=0", "/api/inventory/pro1/reservations", "/api/v1/order")) {
+            MockServerWebExchange first = get(path);
+            MockServerWebExchange second = get(path);
+            assertThat(first.getResponse().getHeaders().containsKey(ResponseCacheFilter.CACHE_STATUS_HEADER)).isFalse();
+            assertThat(second.getResponse().getHeaders().containsKey(ResponseCacheFilter.CACHE_STATUS_HEADER)).isFalse();
+        }
+        assertThat(upstream).hasSize(6);
+    }
+
+    private MockServerWebExchange get(String uri) {
+        return send(MockServerHttpRequest.method(HttpMethod.GET, uri).header(HttpHeaders.ACCEPT, "application/json"));
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, origin).block();
+        return exchange;
+    }
+}
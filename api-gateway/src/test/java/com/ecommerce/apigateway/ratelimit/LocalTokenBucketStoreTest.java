@@ -0,0 +1,74 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA de {@link LocalTokenBucketStore} con un reloj explícito: 10 tokens por segundo (uno cada
+ * 100 ms) y ráfagas de hasta 5.
+ */
+class LocalTokenBucketStoreTest {
+
+    private static final int RATE = 10;
+    private static final int BURST = 5;
+    private static final long INTERVAL = Duration.ofMillis(100).toNanos();
+    private static final long START = Duration.ofSeconds(1).toNanos();
+
+    private final LocalTokenBucketStore store = new LocalTokenBucketStore(1000, Duration.ofMinutes(10));
+
+    @Test
+    void newBucketAdmitsAFullBurstAndThenRejects() {
+        for (int remaining = BURST - 1; remaining >= 0; remaining--) {
+            TokenBucketStore.Decision decision = consume("client", 1, START);
+            assertThat(decision.allowed()).isTrue();
+            assertThat(decision.remaining()).isEqualTo(remaining);
+        }
+
+        TokenBucketStore.Decision rejected = consume("client", 1, START);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.remaining()).isZero();
+        // El siguiente token llega en un intervalo
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofNanos(INTERVAL));
+    }
+
+    @Test
+    void bucketRefillsAtTheReplenishRateUpToTheBurst() {
+        exhaust("client", START);
+
+        // Un intervalo después hay exactamente un token
+        assertThat(consume("client", 1, START + INTERVAL).allowed()).isTrue();
+        assertThat(consume("client", 1, START + INTERVAL).allowed()).isFalse();
+
+        // Tras mucho tiempo inactivo el bucket no acumula más de BURST
+        long later = START + 100 * INTERVAL;
+        assertThat(exhaust("client", later)).isEqualTo(BURST);
+    }
+
+    @Test
+    void requestCanConsumeSeveralTokensAndClientsDoNotShareBuckets() {
+        assertThat(consume("client", 3, START).remaining()).isEqualTo(BURST - 3);
+        TokenBucketStore.Decision rejected = consume("client", 3, START);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfter()).isEqualTo(Duration.ofNanos(INTERVAL));
+
+        assertThat(exhaust("other", START)).isEqualTo(BURST);
+    }
+
+    private TokenBucketStore.Decision consume(String key, int tokens, long now) {
+        return store.consume(key, RATE, BURST, tokens, now);
+    }
+
+    /**
+     * Consume hasta el primer rechazo; devuelve cuántas peticiones se admitieron.
+     */
+    private int exhaust(String key, long now) {
+        int admitted = 0;
+        while (consume(key, 1, now).allowed()) {
+            admitted++;
+        }
+        return admitted;
+    }
+}
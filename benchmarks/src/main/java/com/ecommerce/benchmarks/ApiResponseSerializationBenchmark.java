@@ -0,0 +1,73 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.sharedlib.dto.ApiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de {@link ApiResponse} con un ObjectMapper configurado como el de Spring Boot
+ * (módulos de fechas incluidos), para una respuesta de error y para una lista de órdenes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int orders;
+
+    private ObjectWriter writer;
+    private ApiResponse<String> errorResponse;
+    private ApiResponse<List<OrderDTO>> ordersResponse;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        errorResponse = ApiResponse.error("Stock insuficiente. Disponible: 5, Solicitado: 50", "uri=/api/v1/order");
+
+        List<OrderDTO> data = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            OrderDTO order = new OrderDTO();
+            order.setId((long) i);
+            order.setSku("sku-" + (i % 500));
+            order.setQuantity(1 + i % 10);
+            order.setStatus(OrderStatus.CONFIRMED);
+            data.add(order);
+        }
+        ordersResponse = ApiResponse.success(data);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public byte[] ordersResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(ordersResponse);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.orderservice.OrderServiceApplication;
+import com.ecommerce.orderservice.client.InventoryClient;
+import com.ecommerce.orderservice.dto.CreateOrderDTO;
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Órdenes por segundo que sostiene un pool de {@value #POOL_SIZE} conexiones con
+ * {@value #CONCURRENCY} peticiones concurrentes e inventory-service respondiendo en
+ * {@value #INVENTORY_LATENCY_MS} ms. Con {@code holdConnection=true} {@link OrderService#saveOrder}
+ * se ejecuta dentro de una transacción abierta antes de la reserva, como cuando era
+ * {@code @Transactional}: la conexión queda prestada durante la llamada remota y el throughput no
+ * pasa de {@code pool / latencia}. Con {@code false} solo el INSERT toma una conexión.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(ConnectionPoolBenchmark.CONCURRENCY)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    static final int POOL_SIZE = 4;
+    static final int CONCURRENCY = 64;
+    static final long INVENTORY_LATENCY_MS = 50;
+
+    @Param({"true", "false"})
+    public boolean holdConnection;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private TransactionTemplate transactionTemplate;
+    private CreateOrderDTO request;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class, SlowInventoryConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // Sin application.yml: order-service e inventory-service comparten classpath aquí
+                        "spring.config.name=order-service-benchmark",
+                        "spring.application.name=order-service",
+                        "spring.datasource.url=jdbc:h2:mem:poolbench;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.open-in-view=false",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration",
+                        // El bulkhead no debe ser el cuello de botella: se mide el pool de conexiones
+                        "resilience4j.thread-pool-bulkhead.instances.inventory-service.coreThreadPoolSize=" + CONCURRENCY,
+                        "resilience4j.thread-pool-bulkhead.instances.inventory-service.maxThreadPoolSize=" + CONCURRENCY,
+                        "resilience4j.thread-pool-bulkhead.instances.inventory-service.queueCapacity=" + CONCURRENCY,
+                        "eureka.client.enabled=false",
+                        // data.sql de inventory-service también está en el classpath
+                        "spring.sql.init.mode=never",
+                        "orders.async.dispatcher.enabled=false",
+                        "inventory.events.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        request = new CreateOrderDTO();
+        request.setSku("bench-1");
+        request.setQuantity(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO saveOrder() {
+        if (holdConnection) {
+            // JpaTransactionManager toma la conexión al abrir la transacción
+            return transactionTemplate.execute(status -> orderService.saveOrder(request));
+        }
+        return orderService.saveOrder(request);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class SlowInventoryConfig {
+
+        @Bean
+        static BeanDefinitionRegistryPostProcessor slowInventoryClient() {
+            return new BeanDefinitionRegistryPostProcessor() {
+                @Override
+                public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                    String beanName = InventoryClient.class.getName();
+                    if (registry.containsBeanDefinition(beanName)) {
+                        registry.removeBeanDefinition(beanName);
+                    }
+                    registry.registerBeanDefinition(beanName, new RootBeanDefinition(SlowInventoryClient.class));
+                }
+
+                @Override
+                public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+                }
+            };
+        }
+    }
+
+    /**
+     * Como {@link OrderServiceBenchmark.StubInventoryClient}, pero cada reserva tarda
+     * {@value #INVENTORY_LATENCY_MS} ms.
+     */
+    static class SlowInventoryClient extends OrderServiceBenchmark.StubInventoryClient {
+
+        @Override
+        public StockReservationResultDTO reserveStock(String sku, StockReservationDTO reservation) {
+            pause();
+            return super.reserveStock(sku, reservation);
+        }
+
+        @Override
+        public List<StockReservationResultDTO> reserveStock(List<StockReservationDTO> reservations) {
+            pause();
+            return super.reserveStock(reservations);
+        }
+
+        private static void pause() {
+            try {
+                Thread.sleep(INVENTORY_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
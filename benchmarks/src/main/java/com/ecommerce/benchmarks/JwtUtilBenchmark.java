@@ -0,0 +1,59 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.sharedlib.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y validación de JWT. La validación se mide con la caché de claims (token ya visto)
+ * y sin ella (firma HMAC y parseo en cada llamada, como con un token nuevo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    private static final long EXPIRATION = 86_400_000L;
+    private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = new JwtUtil(SECRET, EXPIRATION, 10_000);
+        uncachedJwtUtil = new JwtUtil(SECRET, EXPIRATION, 0);
+        token = cachedJwtUtil.generateToken("benchmark-user", ROLES);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken("benchmark-user", ROLES);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return cachedJwtUtil.isTokenValid(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValidUncached() {
+        return uncachedJwtUtil.isTokenValid(token);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.inventoryservice.dto.ProductDTO;
+import com.ecommerce.inventoryservice.mapper.ProductMapper;
+import com.ecommerce.inventoryservice.mapper.ProductMapperImpl;
+import com.ecommerce.inventoryservice.models.Product;
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.mapper.OrderMapperImpl;
+import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de listas grandes entidad → DTO con los mappers MapStruct generados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MapperBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private final ProductMapper productMapper = new ProductMapperImpl();
+
+    private List<Order> orders;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        orders = new ArrayList<>(size);
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(new Order((long) i, "sku-" + (i % 500), 1 + i % 10, OrderStatus.CONFIRMED, null));
+            products.add(new Product("sku-" + i, "Producto " + i, "Descripción del producto " + i,
+                    true, 10.0 + i % 100, "categoria-" + (i % 20), i % 1000, (long) i));
+        }
+    }
+
+    @Benchmark
+    public List<OrderDTO> orderDTOList() {
+        return orderMapper.orderDTOList(orders);
+    }
+
+    @Benchmark
+    public List<ProductDTO> productDTOList() {
+        return productMapper.productDTOList(products);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.orderservice.OrderServiceApplication;
+import com.ecommerce.orderservice.dto.CreateOrderDTO;
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#saveOrder} con ráfagas concurrentes: INSERT con JPA en una transacción por
+ * orden ({@code journal=false}) o log de entrada con group commit e inserción en lotes
+ * ({@code journal=true}). inventory-service se sustituye como en {@link OrderServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class OrderIntakeBenchmark {
+
+    @Param({"false", "true"})
+    public boolean journal;
+
+    private Path journalDirectory;
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderDTO request;
+
+    @Setup
+    public void setUp() throws IOException {
+        journalDirectory = Files.createTempDirectory("order-intake-benchmark");
+        context = new SpringApplicationBuilder(OrderServiceApplication.class,
+                OrderServiceBenchmark.StubInventoryConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // Sin application.yml: order-service e inventory-service comparten classpath aquí
+                        "spring.config.name=order-service-benchmark",
+                        "spring.application.name=order-service",
+                        "spring.datasource.url=jdbc:h2:mem:intakebench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration",
+                        "eureka.client.enabled=false",
+                        // data.sql de inventory-service también está en el classpath
+                        "spring.sql.init.mode=never",
+                        "orders.async.dispatcher.enabled=false",
+                        "inventory.events.enabled=false",
+                        "orders.intake.journal.enabled=" + journal,
+                        "orders.intake.journal.dir=" + journalDirectory,
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+
+        request = new CreateOrderDTO();
+        request.setSku("bench-1");
+        request.setQuantity(1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(journalDirectory);
+    }
+
+    @Benchmark
+    public OrderDTO saveOrder() {
+        return orderService.saveOrder(request);
+    }
+}
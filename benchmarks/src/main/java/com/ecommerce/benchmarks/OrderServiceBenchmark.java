@@ -0,0 +1,192 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.orderservice.OrderServiceApplication;
+import com.ecommerce.orderservice.client.InventoryClient;
+import com.ecommerce.orderservice.dto.CreateOrderDTO;
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.ProductEventPageDTO;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.service.OrderService;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#saveOrder} de extremo a extremo dentro del proceso: transacción, near-cache,
+ * circuit breaker + bulkhead de inventory-service y persistencia JPA en H2. Solo la llamada HTTP
+ * a inventory-service se sustituye por un {@link InventoryClient} que reserva al instante.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderDTO request;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class, StubInventoryConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // Sin application.yml: order-service e inventory-service comparten classpath aquí
+                        "spring.config.name=order-service-benchmark",
+                        "spring.application.name=order-service",
+                        "spring.datasource.url=jdbc:h2:mem:orderbench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration",
+                        "eureka.client.enabled=false",
+                        // data.sql de inventory-service también está en el classpath
+                        "spring.sql.init.mode=never",
+                        "orders.async.dispatcher.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+
+        request = new CreateOrderDTO();
+        request.setSku("bench-1");
+        request.setQuantity(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO saveOrder() {
+        return orderService.saveOrder(request);
+    }
+
+    /**
+     * Reemplaza el cliente Feign registrado por {@code @EnableFeignClients} (mismo nombre de bean).
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class StubInventoryConfig {
+
+        @Bean
+        static BeanDefinitionRegistryPostProcessor stubInventoryClient() {
+            return new BeanDefinitionRegistryPostProcessor() {
+                @Override
+                public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                    String beanName = InventoryClient.class.getName();
+                    if (registry.containsBeanDefinition(beanName)) {
+                        registry.removeBeanDefinition(beanName);
+                    }
+                    registry.registerBeanDefinition(beanName, new RootBeanDefinition(StubInventoryClient.class));
+                }
+
+                @Override
+                public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+                }
+            };
+        }
+    }
+
+    /**
+     * inventory-service simulado: toda reserva se acepta con el mismo producto activo.
+     */
+    static class StubInventoryClient implements InventoryClient {
+
+        private static final ProductDTO PRODUCT = product();
+
+        @Override
+        public ResponseEntity<ProductDTO> getProductBySku(String sku) {
+            return ResponseEntity.ok(PRODUCT);
+        }
+
+        @Override
+        public ProductDTO updateProduct(String sku, String ifMatch, ProductDTO product) {
+            return product;
+        }
+
+        @Override
+        public KeysetPage<ProductDTO> getProductsPage(String after, int size) {
+            return KeysetPage.of(List.of(PRODUCT), null);
+        }
+
+        @Override
+        public ProductEventPageDTO getProductEvents(String streamId, long after, int limit) {
+            ProductEventPageDTO page = new ProductEventPageDTO();
+            page.setStreamId("benchmark");
+            page.setEvents(List.of());
+            return page;
+        }
+
+        @Override
+        public StockReservationResultDTO reserveStock(String sku, StockReservationDTO reservation) {
+            return reserved(sku, reservation.getQuantity());
+        }
+
+        @Override
+        public List<StockReservationResultDTO> reserveStock(List<StockReservationDTO> reservations) {
+            return reservations.stream()
+                    .map(reservation -> reserved(reservation.getSku(), reservation.getQuantity()))
+                    .toList();
+        }
+
+        @Override
+        public List<StockReservationResultDTO> releaseStock(List<StockReservationDTO> releases) {
+            return releases.stream()
+                    .map(release -> {
+                        StockReservationResultDTO result = reserved(release.getSku(), release.getQuantity());
+                        result.setStatus(StockReservationResultDTO.Status.RELEASED);
+                        return result;
+                    })
+                    .toList();
+        }
+
+        private static StockReservationResultDTO reserved(String sku, Integer quantity) {
+            StockReservationResultDTO result = new StockReservationResultDTO();
+            result.setSku(sku);
+            result.setStatus(StockReservationResultDTO.Status.RESERVED);
+            result.setRequested(quantity);
+            result.setAvailable(1_000_000);
+            result.setProduct(PRODUCT);
+            return result;
+        }
+
+        private static ProductDTO product() {
+            ProductDTO product = new ProductDTO();
+            product.setSku("bench-1");
+            product.setName("Benchmark");
+            product.setActive(true);
+            product.setPrice(1.0);
+            product.setCategory("benchmark");
+            product.setQuantity(1_000_000);
+            product.setVersion(1L);
+            return product;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.inventoryservice.InventoryServiceApplication;
+import com.ecommerce.inventoryservice.dto.CreateProductDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
+import com.ecommerce.inventoryservice.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservas concurrentes de una unidad sobre un único SKU (venta flash) en inventory-service, con
+ * el ledger de stock en memoria ({@code ledger=true}: descuento bajo el lock de la franja y group
+ * commit del WAL) o descontando en la base de datos en cada reserva ({@code ledger=false}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class StockLedgerBenchmark {
+
+    private static final String SKU = "flash-1";
+
+    @Param({"true", "false"})
+    public boolean ledger;
+
+    private Path walDirectory;
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup
+    public void setUp() throws IOException {
+        walDirectory = Files.createTempDirectory("stock-ledger-benchmark");
+        context = new SpringApplicationBuilder(InventoryServiceApplication.class)
+                // InventorySecurityConfig necesita un contexto web: servidor en un puerto libre sin uso
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        // Sin application.yml: order-service e inventory-service comparten classpath aquí
+                        "spring.config.name=inventory-service-benchmark",
+                        "spring.application.name=inventory-service",
+                        "spring.datasource.url=jdbc:h2:mem:ledgerbench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration,"
+                                + "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration",
+                        "eureka.client.enabled=false",
+                        "spring.sql.init.mode=never",
+                        "inventory.ledger.enabled=" + ledger,
+                        "inventory.ledger.dir=" + walDirectory,
+                        "logging.level.root=WARN")
+                .run();
+        productService = context.getBean(ProductService.class);
+
+        CreateProductDTO product = new CreateProductDTO();
+        product.setSku(SKU);
+        product.setName("Flash");
+        product.setActive(true);
+        product.setPrice(1.0);
+        product.setCategory("benchmark");
+        product.setQuantity(Integer.MAX_VALUE);
+        productService.saveProduct(product);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(walDirectory);
+    }
+
+    @Benchmark
+    public StockReservationResultDTO reserveHotSku() {
+        return productService.reserveStock(SKU, 1, null);
+    }
+}
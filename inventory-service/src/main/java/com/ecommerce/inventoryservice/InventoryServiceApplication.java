@@ -1,11 +1,14 @@
 package com.ecommerce.inventoryservice;
 
+import com.ecommerce.sharedlib.tracing.TracingConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import(TracingConfiguration.class)
 public class InventoryServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,38 @@
+package com.ecommerce.inventoryservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Caché de lectura de productos (Caffeine, configurada en {@code spring.cache}).
+ * El advice de caché se ordena por fuera del transaccional para que las
+ * invalidaciones se apliquen después del commit.
+ * <p>
+ * El catálogo incluye el stock de todos los productos: las reservas no lo invalidan (lo harían
+ * en cada orden), así que caduca a los {@code inventory.catalog-cache.ttl}.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+    public static final String CATALOG_CACHE = "catalog";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> catalogCacheCustomizer(
+            @Value("${inventory.catalog-cache.ttl:5s}") Duration catalogTtl) {
+        return cacheManager -> cacheManager.registerCustomCache(CATALOG_CACHE, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(catalogTtl)
+                .recordStats()
+                .build());
+    }
+}
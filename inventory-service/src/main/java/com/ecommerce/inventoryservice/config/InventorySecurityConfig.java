@@ -1,16 +1,24 @@
 package com.ecommerce.inventoryservice.config;
+import com.ecommerce.sharedlib.security.GatewayAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 public class InventorySecurityConfig {
 
+    @Value("${security.gateway.shared-secret:}")
+    private String gatewaySharedSecret;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .headers(headers -> headers.frameOptions(frame -> frame.disable())) // 👈 permite iframes de H2
+                .addFilterBefore(new GatewayAuthenticationFilter(gatewaySharedSecret),
+                        UsernamePasswordAuthenticationFilter.class) // 👈 identidad verificada por el gateway
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/h2-console/**").permitAll() // 👈 permite acceder a la consola
                         .anyRequest().permitAll()
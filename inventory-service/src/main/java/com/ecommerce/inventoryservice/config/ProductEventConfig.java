@@ -0,0 +1,32 @@
+package com.ecommerce.inventoryservice.config;
+
+import com.ecommerce.inventoryservice.events.InMemoryProductEventLog;
+import com.ecommerce.inventoryservice.events.ProductEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publicador de eventos de producto, elegido con {@code inventory.events.publisher}:
+ * {@code memory} (log en memoria servido en {@code /api/inventory/events}) o {@code none}.
+ * Un broker real se integra como otro valor de la propiedad con su propio bean {@link ProductEventPublisher}.
+ */
+@Configuration
+public class ProductEventConfig {
+
+    public static final String PUBLISHER_PROPERTY = "inventory.events.publisher";
+
+    @Bean
+    @ConditionalOnProperty(name = PUBLISHER_PROPERTY, havingValue = "memory", matchIfMissing = true)
+    public InMemoryProductEventLog inMemoryProductEventLog(
+            @Value("${inventory.events.memory.capacity:100000}") int capacity) {
+        return new InMemoryProductEventLog(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PUBLISHER_PROPERTY, havingValue = "none")
+    public ProductEventPublisher noProductEventPublisher() {
+        return ProductEventPublisher.NONE;
+    }
+}
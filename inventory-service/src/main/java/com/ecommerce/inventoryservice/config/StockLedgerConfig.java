@@ -0,0 +1,58 @@
+package com.ecommerce.inventoryservice.config;
+
+import com.ecommerce.inventoryservice.events.ProductEventPublisher;
+import com.ecommerce.inventoryservice.ledger.StockLedger;
+import com.ecommerce.inventoryservice.ledger.StockLedgerWal;
+import com.ecommerce.inventoryservice.mapper.ProductMapper;
+import com.ecommerce.inventoryservice.repository.LedgerCheckpointRepository;
+import com.ecommerce.inventoryservice.repository.ProductRepository;
+import com.ecommerce.inventoryservice.repository.StockReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Ledger de stock en memoria con WAL, activado con {@code inventory.ledger.enabled}. Sin él las
+ * reservas descuentan directamente en la base de datos.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.ledger.enabled", havingValue = "true")
+public class StockLedgerConfig {
+
+    @Bean(destroyMethod = "close")
+    public StockLedgerWal stockLedgerWal(
+            @Value("${inventory.ledger.dir:data/inventory-ledger}") Path directory,
+            @Value("${inventory.ledger.segment-size:64MB}") DataSize segmentSize,
+            @Value("${inventory.ledger.max-batch:1024}") int maxBatch,
+            @Value("${inventory.ledger.queue-capacity:65536}") int queueCapacity) {
+        return new StockLedgerWal(directory, segmentSize.toBytes(), maxBatch, queueCapacity);
+    }
+
+    @Bean(destroyMethod = "close")
+    public StockLedger stockLedger(ProductRepository productRepository,
+                                   LedgerCheckpointRepository checkpointRepository,
+                                   StockReservationRepository reservationRepository,
+                                   ProductMapper productMapper,
+                                   ProductEventPublisher productEventPublisher,
+                                   CacheManager cacheManager,
+                                   PlatformTransactionManager transactionManager,
+                                   StockLedgerWal stockLedgerWal,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${inventory.ledger.skus:}") Set<String> skus,
+                                   @Value("${inventory.ledger.reservation-retention:10m}") Duration reservationRetention,
+                                   @Value("${inventory.ledger.stripes:64}") int stripes,
+                                   @Value("${inventory.ledger.flush-interval:100ms}") Duration flushInterval) {
+        return new StockLedger(productRepository, checkpointRepository, reservationRepository, productMapper,
+                productEventPublisher, cacheManager, transactionManager, stockLedgerWal, skus, reservationRetention,
+                stripes, flushInterval, meterRegistry);
+    }
+}
@@ -2,10 +2,22 @@ package com.ecommerce.inventoryservice.controller;
 
 import com.ecommerce.inventoryservice.dto.CreateProductDTO;
 import com.ecommerce.inventoryservice.dto.ProductDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
 import com.ecommerce.inventoryservice.service.ProductService;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
 
@@ -15,13 +27,22 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProductController {
 
+    /**
+     * Líneas por petición de los endpoints de lote; igual que orders.batch.max-size en order-service.
+     */
+    static final int MAX_BATCH_SIZE = 500;
+
     private final ProductService productService;
 
     @GetMapping("/{sku}")
     public ResponseEntity<ProductDTO> getProductBySku(@PathVariable("sku") String sku) {
         log.info("Consultando producto con SKU: {}", sku); // <-- agregado
+        // Con If-None-Match igual al ETag, Spring responde 304 sin cuerpo
         return productService.findById(sku)
-                .map(ResponseEntity::ok)
+                .map(product -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache())
+                        .eTag(ProductETags.of(product))
+                        .body(product))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -36,14 +57,40 @@ public class ProductController {
     @GetMapping
     public ResponseEntity<List<ProductDTO>> getAllProducts(){
         log.info("Obteniendo todos los productos"); // <-- agregado
-        return ResponseEntity.ok(productService.getAllProducts());
+        List<ProductDTO> products = productService.getAllProducts();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(ProductETags.of(products, null))
+                .body(products);
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<KeysetPage<ProductDTO>> getProductsPage(@RequestParam(value = "after", required = false) String after,
+                                                                 @RequestParam("size") int size){
+        log.info("Obteniendo página de productos. Después de: {}, tamaño: {}", after, size);
+        KeysetPage<ProductDTO> page = productService.getProductsPage(after, size);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(ProductETags.of(page.getItems(), page.getNextCursor()))
+                .body(page);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts(){
+        log.info("Transmitiendo catálogo completo");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productService::streamProducts);
     }
 
     @PutMapping("/{sku}")
-    public ResponseEntity<ProductDTO> updateProduct(@PathVariable("sku") String sku, @RequestBody ProductDTO dto){
+    public ResponseEntity<ProductDTO> updateProduct(@PathVariable("sku") String sku, @RequestBody ProductDTO dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         log.info("Actualizando producto con SKU: {}, datos: {}", sku, dto); // <-- agregado
-        return productService.updateProduct(sku, dto)
-                .map(ResponseEntity::ok)
+        // Con If-Match la escritura es condicional: 412 si el producto ya no está en esa versión
+        Long expectedVersion = ifMatch != null ? ProductETags.expectedVersion(sku, ifMatch) : null;
+        return productService.updateProduct(sku, dto, expectedVersion)
+                .map(product -> ResponseEntity.ok().eTag(ProductETags.of(product)).body(product))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -53,4 +100,38 @@ public class ProductController {
         productService.deleteProduct(sku);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/{sku}/reserve")
+    public ResponseEntity<StockReservationResultDTO> reserveStock(@PathVariable("sku") String sku,
+                                                                  @Valid @RequestBody StockReservationDTO dto){
+        log.info("Reservando stock. SKU: {}, cantidad: {}", sku, dto.getQuantity());
+        return ResponseEntity.ok(productService.reserveStock(sku, dto.getQuantity(), dto.getReservationId()));
+    }
+
+    @PostMapping("/{sku}/release")
+    public ResponseEntity<StockReservationResultDTO> releaseStock(@PathVariable("sku") String sku,
+                                                                  @Validated({Default.class, StockReservationDTO.Release.class})
+                                                                  @RequestBody StockReservationDTO dto){
+        log.info("Liberando reserva de stock. SKU: {}, reserva: {}", sku, dto.getReservationId());
+        dto.setSku(sku);
+        return ResponseEntity.ok(productService.releaseStock(List.of(dto)).get(0));
+    }
+
+    @PostMapping("/reservations")
+    @Validated({Default.class, StockReservationDTO.Line.class})
+    public ResponseEntity<List<StockReservationResultDTO>> reserveStock(
+            @RequestBody @Size(max = MAX_BATCH_SIZE, message = "Máximo " + MAX_BATCH_SIZE + " líneas por lote")
+            List<@NotNull(message = "Línea vacía") @Valid StockReservationDTO> dtos){
+        log.info("Reservando stock en lote. Líneas: {}", dtos.size());
+        return ResponseEntity.ok(productService.reserveStock(dtos));
+    }
+
+    @PostMapping("/reservations/release")
+    @Validated({Default.class, StockReservationDTO.Line.class, StockReservationDTO.Release.class})
+    public ResponseEntity<List<StockReservationResultDTO>> releaseStock(
+            @RequestBody @Size(max = MAX_BATCH_SIZE, message = "Máximo " + MAX_BATCH_SIZE + " líneas por lote")
+            List<@NotNull(message = "Línea vacía") @Valid StockReservationDTO> dtos){
+        log.info("Liberando reservas de stock en lote. Líneas: {}", dtos.size());
+        return ResponseEntity.ok(productService.releaseStock(dtos));
+    }
 }
\ No newline at end of file
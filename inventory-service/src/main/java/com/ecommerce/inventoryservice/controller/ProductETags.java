@@ -0,0 +1,84 @@
+package com.ecommerce.inventoryservice.controller;
+
+import com.ecommerce.inventoryservice.dto.ProductDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * ETags derivados de la versión del producto, que cambia con cada escritura (incluidas
+ * las reservas de stock). Permiten responder 304 a las revalidaciones sin serializar el cuerpo.
+ */
+final class ProductETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ProductETags() {
+    }
+
+    /**
+     * Versión que no coincide con ninguna: los productos empiezan en la versión 0.
+     */
+    static final long NO_MATCH = -1L;
+
+    static String of(ProductDTO product) {
+        return "\"" + product.getSku() + "-" + versionOf(product) + "\"";
+    }
+
+    /**
+     * Versión exigida por un If-Match sobre el producto {@code sku}; {@code null} con {@code *}
+     * (basta con que exista). Las ETags débiles, las de otro SKU y las listas de varias ETags
+     * nunca coinciden ({@link #NO_MATCH}).
+     */
+    static Long expectedVersion(String sku, String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + sku + "-";
+        if (!value.startsWith(prefix) || !value.endsWith("\"") || value.length() <= prefix.length() + 1) {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+
+    /**
+     * ETag de un listado: hash FNV-1a de 64 bits sobre los pares SKU/versión en orden,
+     * más un discriminador opcional (p. ej. el cursor de la página siguiente).
+     */
+    static String of(Collection<ProductDTO> products, String discriminator) {
+        long hash = FNV_OFFSET;
+        for (ProductDTO product : products) {
+            hash = mix(hash, product.getSku());
+            hash = mix(hash, versionOf(product));
+        }
+        if (discriminator != null) {
+            hash = mix(hash, discriminator);
+        }
+        return "\"c" + products.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long versionOf(ProductDTO product) {
+        return product.getVersion() != null ? product.getVersion() : 0L;
+    }
+
+    private static long mix(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        // Separador para que ("ab","c") y ("a","bc") no colisionen
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.inventoryservice.controller;
+
+import com.ecommerce.inventoryservice.config.ProductEventConfig;
+import com.ecommerce.inventoryservice.dto.ProductEventPageDTO;
+import com.ecommerce.inventoryservice.events.InMemoryProductEventLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Feed de eventos de producto del log en memoria, leído por secuencia (polling).
+ */
+@RestController
+@RequestMapping("/api/inventory/events")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ProductEventConfig.PUBLISHER_PROPERTY, havingValue = "memory", matchIfMissing = true)
+public class ProductEventController {
+
+    private final InMemoryProductEventLog eventLog;
+
+    @Value("${inventory.events.memory.max-read:1000}")
+    private int maxRead;
+
+    @GetMapping
+    public ResponseEntity<ProductEventPageDTO> readEvents(@RequestParam(value = "stream", required = false) String streamId,
+                                                          @RequestParam(value = "after", defaultValue = "0") long after,
+                                                          @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        // El feed cambia con cada escritura: ni el gateway ni los clientes deben cachearlo
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(eventLog.read(streamId, after, Math.max(0, Math.min(limit, maxRead))));
+    }
+}
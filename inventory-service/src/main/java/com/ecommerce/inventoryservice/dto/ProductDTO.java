@@ -14,4 +14,5 @@ public class ProductDTO {
     private Double price;
     private String category;
     private Integer quantity;
+    private Long version;
 }
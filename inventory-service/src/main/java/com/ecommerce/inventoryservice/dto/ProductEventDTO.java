@@ -0,0 +1,33 @@
+package com.ecommerce.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Cambio de un producto publicado por inventory-service. Lleva el estado tras el cambio
+ * (activo, stock y versión); en {@code DELETED} solo el SKU. {@code sequence} la asigna
+ * el publicador y ordena los eventos dentro de un mismo {@code streamId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductEventDTO {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STOCK_CHANGED,
+        DELETED
+    }
+
+    private long sequence;
+    private Type type;
+    private String sku;
+    private Boolean active;
+    private Integer quantity;
+    private Long version;
+    private Instant occurredAt;
+}
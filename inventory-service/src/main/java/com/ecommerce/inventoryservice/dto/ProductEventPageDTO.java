@@ -0,0 +1,25 @@
+package com.ecommerce.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Tramo del feed de eventos de producto. {@code cursor} es la última secuencia incluida y se
+ * envía como {@code after} en la siguiente lectura. {@code truncated} indica que se perdieron
+ * eventos posteriores a {@code after} (el log ya los descartó o pertenecen a otro
+ * {@code streamId}): el consumidor debe reconstruir su vista. {@code lastSequence} es la
+ * última secuencia publicada en el log.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductEventPageDTO {
+    private String streamId;
+    private List<ProductEventDTO> events;
+    private long cursor;
+    private boolean truncated;
+    private long lastSequence;
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.inventoryservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * DTO con la cantidad a reservar (descontar) del stock de un producto. Con {@code reservationId}
+ * la reserva se puede repetir sin descontar dos veces y liberar después; para liberar es obligatorio.
+ * En los endpoints de una sola línea el SKU va en la ruta; en los de lote, en cada línea.
+ */
+@Data
+public class StockReservationDTO {
+
+    /**
+     * Grupo de validación de las liberaciones.
+     */
+    public interface Release {
+    }
+
+    /**
+     * Grupo de validación de las líneas de un lote.
+     */
+    public interface Line {
+    }
+
+    @NotBlank(groups = Line.class, message = "El SKU es obligatorio en cada línea")
+    private String sku;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser mayor a 0")
+    private Integer quantity;
+
+    @NotBlank(groups = Release.class, message = "El id de la reserva es obligatorio para liberarla")
+    @Size(max = 64, message = "El id de la reserva no puede superar 64 caracteres")
+    private String reservationId;
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una reserva de stock. {@code available} es el stock restante
+ * si la reserva se aplicó, o el stock actual si fue rechazada. {@code product}
+ * lleva el estado del producto tras la reserva (null si no existe). {@code FAILED}: la
+ * línea no se pudo registrar y no se descontó nada; puede reintentarse. {@code RELEASED}: la
+ * reserva con ese id está liberada (resultado de una liberación, o de una reserva que llegó tarde).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResultDTO {
+
+    public enum Status {
+        RESERVED,
+        NOT_FOUND,
+        INACTIVE,
+        INSUFFICIENT_STOCK,
+        FAILED,
+        RELEASED
+    }
+
+    private String sku;
+    private Status status;
+    private Integer requested;
+    private Integer available;
+    private ProductDTO product;
+}
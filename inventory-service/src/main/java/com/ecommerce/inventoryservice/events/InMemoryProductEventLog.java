@@ -0,0 +1,52 @@
+package com.ecommerce.inventoryservice.events;
+
+import com.ecommerce.inventoryservice.dto.ProductEventDTO;
+import com.ecommerce.inventoryservice.dto.ProductEventPageDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sustituto local de un broker: buffer circular con los últimos {@code capacity} eventos,
+ * numerados de forma consecutiva desde 1. Los consumidores leen por secuencia a través de
+ * {@code GET /api/inventory/events}. Al reiniciar el servicio cambia el {@code streamId},
+ * así que un consumidor detecta que la numeración empezó de nuevo.
+ */
+public class InMemoryProductEventLog implements ProductEventPublisher {
+
+    private final String streamId = UUID.randomUUID().toString();
+    private final ProductEventDTO[] buffer;
+    private long lastSequence;
+
+    public InMemoryProductEventLog(int capacity) {
+        this.buffer = new ProductEventDTO[capacity];
+    }
+
+    @Override
+    public synchronized void publish(ProductEventDTO event) {
+        event.setSequence(++lastSequence);
+        buffer[slot(lastSequence)] = event;
+    }
+
+    /**
+     * Hasta {@code limit} eventos con secuencia mayor que {@code after}, en orden.
+     */
+    public synchronized ProductEventPageDTO read(String expectedStreamId, long after, int limit) {
+        long oldest = Math.max(1, lastSequence - buffer.length + 1);
+        boolean otherStream = expectedStreamId != null && !expectedStreamId.equals(streamId);
+        boolean truncated = otherStream || after > lastSequence || after + 1 < oldest;
+        long from = truncated ? oldest : after + 1;
+
+        List<ProductEventDTO> events = new ArrayList<>();
+        for (long sequence = from; sequence <= lastSequence && events.size() < limit; sequence++) {
+            events.add(buffer[slot(sequence)]);
+        }
+        long cursor = events.isEmpty() ? (truncated ? from - 1 : after) : events.get(events.size() - 1).getSequence();
+        return new ProductEventPageDTO(streamId, events, cursor, truncated, lastSequence);
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % buffer.length);
+    }
+}
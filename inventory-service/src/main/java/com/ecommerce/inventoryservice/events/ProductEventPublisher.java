@@ -0,0 +1,16 @@
+package com.ecommerce.inventoryservice.events;
+
+import com.ecommerce.inventoryservice.dto.ProductEventDTO;
+
+/**
+ * Destino de los eventos de cambio de producto. {@link com.ecommerce.inventoryservice.service.ProductServiceImpl}
+ * publica después del commit; la implementación no debe bloquear ni lanzar excepciones.
+ */
+@FunctionalInterface
+public interface ProductEventPublisher {
+
+    ProductEventPublisher NONE = event -> {
+    };
+
+    void publish(ProductEventDTO event);
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.inventoryservice.events;
+
+import com.ecommerce.inventoryservice.dto.ProductEventDTO;
+import com.ecommerce.inventoryservice.models.Product;
+
+import java.time.Instant;
+
+/**
+ * Construcción de eventos a partir del estado confirmado del producto.
+ */
+public final class ProductEvents {
+
+    private ProductEvents() {
+    }
+
+    public static ProductEventDTO of(ProductEventDTO.Type type, Product product) {
+        return new ProductEventDTO(0, type, product.getSku(), product.isActive(), product.getQuantity(),
+                product.getVersion(), Instant.now());
+    }
+
+    public static ProductEventDTO deleted(String sku) {
+        return new ProductEventDTO(0, ProductEventDTO.Type.DELETED, sku, null, null, null, Instant.now());
+    }
+}
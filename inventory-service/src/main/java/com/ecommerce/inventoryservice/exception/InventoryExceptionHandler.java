@@ -0,0 +1,25 @@
+package com.ecommerce.inventoryservice.exception;
+
+import com.ecommerce.sharedlib.dto.ApiResponse;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Traduce solo las excepciones de negocio de inventory-service; el resto de errores sigue
+ * con el manejo por defecto de Spring (400 en parámetros inválidos, etc.).
+ */
+@Slf4j
+@RestControllerAdvice
+public class InventoryExceptionHandler {
+
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusinessException(BusinessException ex, WebRequest request) {
+        log.warn("Business exception: {}", ex.getMessage());
+        return ResponseEntity.status(ex.getHttpStatus())
+                .body(ApiResponse.error(ex.getMessage(), request.getDescription(false)));
+    }
+}
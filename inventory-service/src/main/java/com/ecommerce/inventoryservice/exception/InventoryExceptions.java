@@ -0,0 +1,29 @@
+package com.ecommerce.inventoryservice.exception;
+
+import com.ecommerce.sharedlib.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Excepciones específicas del dominio de inventario
+ */
+public class InventoryExceptions {
+
+    /**
+     * El If-Match de la petición no corresponde a la versión actual del producto.
+     */
+    public static class ProductVersionMismatchException extends BusinessException {
+        public ProductVersionMismatchException(String sku, Long current) {
+            super(String.format("El producto %s no está en la versión indicada en If-Match. Versión actual: %s",
+                    sku, current), HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    /**
+     * Otra escritura confirmó primero entre la lectura y la actualización del producto.
+     */
+    public static class ProductUpdateConflictException extends BusinessException {
+        public ProductUpdateConflictException(String sku, Throwable cause) {
+            super("Actualización concurrente del producto: " + sku, HttpStatus.CONFLICT, cause);
+        }
+    }
+}
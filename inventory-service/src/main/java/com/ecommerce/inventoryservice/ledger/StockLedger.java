@@ -0,0 +1,654 @@
+package com.ecommerce.inventoryservice.ledger;
+
+import com.ecommerce.inventoryservice.config.CacheConfig;
+import com.ecommerce.inventoryservice.dto.ProductDTO;
+import com.ecommerce.inventoryservice.dto.ProductEventDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
+import com.ecommerce.inventoryservice.events.ProductEventPublisher;
+import com.ecommerce.inventoryservice.events.ProductEvents;
+import com.ecommerce.inventoryservice.mapper.ProductMapper;
+import com.ecommerce.inventoryservice.models.LedgerCheckpoint;
+import com.ecommerce.inventoryservice.models.Product;
+import com.ecommerce.inventoryservice.models.StockReservation;
+import com.ecommerce.inventoryservice.repository.LedgerCheckpointRepository;
+import com.ecommerce.inventoryservice.repository.ProductRepository;
+import com.ecommerce.inventoryservice.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stock en memoria para SKUs muy disputados (ventas flash). Cada reserva descuenta el contador del
+ * SKU bajo uno de {@code stripes} locks (elegido por hash del SKU) y se registra en el
+ * {@link StockLedgerWal}; la respuesta espera solo al fsync del lote (group commit), no a la base de
+ * datos. Cada {@code flush-interval} los descuentos ya durables se agregan por SKU y se aplican a
+ * {@code products} en una transacción que también guarda el último LSN aplicado; al arrancar se
+ * reaplica lo que quedó en el WAL después de ese LSN.
+ * <p>
+ * {@code products.quantity} va por detrás del ledger como mucho un intervalo de volcado. Un SKU
+ * gestionado por el ledger solo debe descontarse a través de él; los cambios de producto (PUT,
+ * DELETE) vuelcan antes lo pendiente y descartan el contador, que se vuelve a cargar de la base de datos.
+ * <p>
+ * Las reservas con id y sus liberaciones también van al WAL, y sus filas de {@code stock_reservations}
+ * se escriben en el mismo volcado. Los ids se recuerdan en memoria hasta volcarse y durante
+ * {@code reservation-retention}: una reserva repetida pasado ese tiempo se vuelve a descontar.
+ * Para liberar un id que ya no está en memoria se consulta su fila.
+ */
+@Slf4j
+public class StockLedger implements AutoCloseable {
+
+    private final ProductRepository productRepository;
+    private final LedgerCheckpointRepository checkpointRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ProductMapper productMapper;
+    private final ProductEventPublisher productEventPublisher;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLedgerWal wal;
+    private final Set<String> managedSkus;
+    private final Duration reservationRetention;
+    private final ReentrantLock[] stripes;
+    private final ScheduledExecutorService flusher;
+
+    // Contador y unidades sin volcar de cada SKU; se leen y modifican bajo el lock de su franja
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> unflushed = new ConcurrentHashMap<>();
+    // Último estado de cada id de reserva reciente o sin volcar; bajo el lock de la franja de su SKU
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // Solo un volcado a la vez, y ninguna carga de contador mientras se aplica uno.
+    // Orden de adquisición: flushLock y después la franja.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Descuentos ya durables en el WAL pendientes de volcar; los protege su propio monitor
+    private final Object pendingLock = new Object();
+    private Map<String, Long> pending = new HashMap<>();
+    private Map<String, Reservation> pendingReservations = new HashMap<>();
+    private long durableLsn;
+    // Solo lo usa el volcado, bajo flushLock
+    private Instant nextSweep = Instant.MIN;
+
+    public StockLedger(ProductRepository productRepository,
+                       LedgerCheckpointRepository checkpointRepository,
+                       StockReservationRepository reservationRepository,
+                       ProductMapper productMapper,
+                       ProductEventPublisher productEventPublisher,
+                       CacheManager cacheManager,
+                       PlatformTransactionManager transactionManager,
+                       StockLedgerWal wal,
+                       Set<String> managedSkus,
+                       Duration reservationRetention,
+                       int stripes,
+                       Duration flushInterval,
+                       MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.reservationRepository = reservationRepository;
+        this.productMapper = productMapper;
+        this.productEventPublisher = productEventPublisher;
+        this.cacheManager = cacheManager;
+        // El volcado confirma por su cuenta aunque se invoque dentro de otra transacción
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.wal = wal;
+        this.managedSkus = Set.copyOf(managedSkus);
+        this.reservationRetention = reservationRetention;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+
+        recover();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder("inventory.ledger.unflushed", unflushed,
+                        map -> map.values().stream().mapToLong(Long::longValue).sum())
+                .description("Unidades reservadas en el ledger de stock aún no aplicadas a la base de datos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * true si las reservas de {@code sku} deben pasar por el ledger (lista vacía = todos los SKUs).
+     */
+    public boolean manages(String sku) {
+        return managedSkus.isEmpty() || managedSkus.contains(sku);
+    }
+
+    public StockReservationResultDTO reserve(String sku, int quantity) {
+        return reserve(sku, quantity, null);
+    }
+
+    public StockReservationResultDTO reserve(String sku, int quantity, String reservationId) {
+        StockReservationDTO line = new StockReservationDTO();
+        line.setSku(sku);
+        line.setQuantity(quantity);
+        line.setReservationId(reservationId);
+        return reserve(List.of(line)).get(0);
+    }
+
+    /**
+     * Reserva cada línea de forma independiente; todas las aceptadas se esperan en el mismo group commit.
+     * Una línea que no llega al WAL se devuelve al contador y queda como {@code FAILED}; las demás
+     * se mantienen, así que la petición nunca falla entera con parte de sus líneas ya durables.
+     * Una línea con un id ya conocido no descuenta nada: devuelve RESERVED o RELEASED según su estado.
+     */
+    public List<StockReservationResultDTO> reserve(List<StockReservationDTO> reservations) {
+        return writeAhead(reservations, line -> tryReserve(line.getSku(), line.getQuantity(), line.getReservationId()));
+    }
+
+    /**
+     * Libera reservas por id ({@code reservationId} obligatorio): sus unidades vuelven al contador una
+     * sola vez. Un id que no se llegó a reservar queda liberado para que su reserva, si llega después,
+     * no se aplique. Cada línea devuelve RELEASED, o FAILED si no llegó al WAL.
+     */
+    public List<StockReservationResultDTO> release(List<StockReservationDTO> releases) {
+        return writeAhead(releases, line -> tryRelease(line.getSku(), line.getQuantity(), line.getReservationId()));
+    }
+
+    /**
+     * Vuelca lo pendiente del SKU antes de que se modifique o borre el producto y descarta su
+     * contador al terminar la transacción del cambio (de inmediato si no hay ninguna activa).
+     */
+    public void productChanged(String sku) {
+        if (!manages(sku)) {
+            return;
+        }
+        flush();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    retire(sku);
+                }
+            });
+        } else {
+            retire(sku);
+        }
+    }
+
+    /**
+     * Aplica a la base de datos los descuentos y las filas de reserva ya durables en el WAL.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+            sweepReservations();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar reservas, vuelca todo lo durable y cierra el WAL.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wal.close();
+        flushQuietly();
+    }
+
+    /**
+     * Detiene el volcado y el WAL sin terminar lo pendiente, como si el proceso muriera.
+     * Solo para tests, igual que {@link #wal()}.
+     */
+    void halt() {
+        flusher.shutdownNow();
+        wal.halt();
+    }
+
+    StockLedgerWal wal() {
+        return wal;
+    }
+
+    /**
+     * Ejecuta cada línea en memoria, registra en el WAL las que cambiaron algo y espera a todas juntas.
+     */
+    private List<StockReservationResultDTO> writeAhead(List<StockReservationDTO> lines,
+                                                       Function<StockReservationDTO, Attempt> execute) {
+        List<Attempt> attempts = new ArrayList<>(lines.size());
+        Map<Integer, CompletableFuture<Long>> durable = new HashMap<>();
+        for (StockReservationDTO line : lines) {
+            Attempt attempt = execute.apply(line);
+            if (attempt.logged()) {
+                durable.put(attempts.size(), wal.append(line.getSku(), attempt.units(), line.getReservationId()));
+            }
+            attempts.add(attempt);
+        }
+
+        durable.forEach((index, append) -> {
+            StockReservationDTO line = lines.get(index);
+            Attempt attempt = attempts.get(index);
+            try {
+                append.join();
+            } catch (CompletionException e) {
+                log.warn("No se pudo registrar en el WAL la línea de {} ({} unidades): {}",
+                        line.getSku(), attempt.units(), e.getCause().getMessage());
+                undo(line, attempt);
+                StockReservationResultDTO result = attempt.result();
+                result.setStatus(StockReservationResultDTO.Status.FAILED);
+                if (result.getProduct() != null) {
+                    result.setAvailable(result.getAvailable() + attempt.units());
+                    result.getProduct().setQuantity(result.getAvailable());
+                }
+            }
+        });
+        return attempts.stream().map(Attempt::result).toList();
+    }
+
+    private Attempt tryReserve(String sku, int quantity, String reservationId) {
+        while (true) {
+            ReentrantLock stripe = stripe(sku);
+            stripe.lock();
+            try {
+                Entry entry = entries.get(sku);
+                if (entry != null) {
+                    Reservation previous = reservationId != null ? reservations.get(reservationId) : null;
+                    if (previous != null) {
+                        // Reserva repetida, o que llega después de su liberación: no descuenta nada
+                        return Attempt.unchanged(result(entry, previous.status() == StockReservation.Status.RESERVED
+                                ? StockReservationResultDTO.Status.RESERVED
+                                : StockReservationResultDTO.Status.RELEASED, quantity));
+                    }
+                    if (!entry.product.isActive()) {
+                        return Attempt.unchanged(result(entry, StockReservationResultDTO.Status.INACTIVE, quantity));
+                    }
+                    if (entry.available < quantity) {
+                        return Attempt.unchanged(
+                                result(entry, StockReservationResultDTO.Status.INSUFFICIENT_STOCK, quantity));
+                    }
+                    entry.available -= quantity;
+                    addUnflushed(sku, quantity);
+                    Reservation current = null;
+                    if (reservationId != null) {
+                        current = new Reservation(sku, quantity, StockReservation.Status.RESERVED, Instant.now());
+                        reservations.put(reservationId, current);
+                    }
+                    return new Attempt(result(entry, StockReservationResultDTO.Status.RESERVED, quantity),
+                            quantity, null, current);
+                }
+            } finally {
+                stripe.unlock();
+            }
+            if (!load(sku)) {
+                return Attempt.unchanged(new StockReservationResultDTO(sku,
+                        StockReservationResultDTO.Status.NOT_FOUND, quantity, 0, null));
+            }
+        }
+    }
+
+    private Attempt tryRelease(String sku, int quantity, String reservationId) {
+        ReentrantLock stripe = stripe(sku);
+        stripe.lock();
+        try {
+            Reservation previous = reservations.get(reservationId);
+            // Un id solo sale de memoria después de volcarse: si no está, su fila está al día
+            Reservation stored = previous == null
+                    ? reservationRepository.findById(reservationId).map(Reservation::of).orElse(null)
+                    : previous;
+            Entry entry = entries.get(sku);
+            if (stored != null && stored.status() == StockReservation.Status.RELEASED) {
+                return Attempt.unchanged(released(entry, sku, quantity));
+            }
+
+            int credit = stored != null ? stored.quantity() : 0;
+            Reservation current = new Reservation(sku, credit, StockReservation.Status.RELEASED, Instant.now());
+            reservations.put(reservationId, current);
+            if (entry != null) {
+                entry.available += credit;
+            }
+            addUnflushed(sku, -credit);
+            return new Attempt(released(entry, sku, quantity), -credit, previous, current);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Deshace en memoria una línea que no llegó al WAL. Si el contador se recargó entretanto, la
+     * recarga ya contó estas unidades en {@code unflushed}, así que también se corrigen allí.
+     */
+    private void undo(StockReservationDTO line, Attempt attempt) {
+        ReentrantLock stripe = stripe(line.getSku());
+        stripe.lock();
+        try {
+            Entry entry = entries.get(line.getSku());
+            if (entry != null) {
+                entry.available += attempt.units();
+            }
+            addUnflushed(line.getSku(), -attempt.units());
+            if (attempt.current() != null) {
+                if (attempt.previous() != null) {
+                    reservations.replace(line.getReservationId(), attempt.current(), attempt.previous());
+                } else {
+                    reservations.remove(line.getReservationId(), attempt.current());
+                }
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Carga el contador desde la base de datos descontando lo reservado que aún no está en ella;
+     * false si el producto no existe.
+     */
+    private boolean load(String sku) {
+        flushLock.lock();
+        try {
+            if (entries.containsKey(sku)) {
+                return true;
+            }
+            Product product = productRepository.findById(sku).orElse(null);
+            if (product == null) {
+                return false;
+            }
+            ReentrantLock stripe = stripe(sku);
+            stripe.lock();
+            try {
+                long available = product.getQuantity() - unflushed.getOrDefault(sku, 0L);
+                entries.put(sku, new Entry(productMapper.productDTO(product), (int) Math.max(available, 0)));
+            } finally {
+                stripe.unlock();
+            }
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void retire(String sku) {
+        ReentrantLock stripe = stripe(sku);
+        stripe.lock();
+        try {
+            entries.remove(sku);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * {@code unflushed} queda en negativo mientras una liberación no se ha volcado.
+     */
+    private void addUnflushed(String sku, long delta) {
+        if (delta != 0) {
+            unflushed.merge(sku, delta, (units, added) -> units + added == 0 ? null : units + added);
+        }
+    }
+
+    private ReentrantLock stripe(String sku) {
+        return stripes[Math.floorMod(sku.hashCode(), stripes.length)];
+    }
+
+    private List<Product> apply(Map<String, Long> deltas, Map<String, Reservation> rows, long lsn) {
+        deltas.forEach((sku, delta) -> {
+            // Un PUT que bajó el stock mientras había reservas en vuelo: se agota en vez de quedar en negativo
+            if (productRepository.applyStockDelta(sku, Math.toIntExact(delta)) == 0
+                    && productRepository.exhaustStock(sku) == 1) {
+                log.warn("El stock de {} quedó por debajo de las {} unidades reservadas en el ledger; se deja en 0",
+                        sku, delta);
+            }
+        });
+        saveReservations(rows);
+        checkpointRepository.save(new LedgerCheckpoint(wal.id(), lsn));
+        return productRepository.findAllById(deltas.keySet());
+    }
+
+    /**
+     * Inserta las filas nuevas y marca como liberadas las que ya estaban reservadas.
+     */
+    private void saveReservations(Map<String, Reservation> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> stored = reservationRepository.findAllById(rows.keySet()).stream()
+                .map(StockReservation::getReservationId)
+                .collect(Collectors.toSet());
+        rows.forEach((reservationId, reservation) -> {
+            if (!stored.contains(reservationId)) {
+                reservationRepository.save(new StockReservation(reservationId, reservation.sku(),
+                        reservation.quantity(), reservation.status(), reservation.at()));
+            } else if (reservation.status() == StockReservation.Status.RELEASED) {
+                reservationRepository.markReleased(reservationId);
+            }
+        });
+    }
+
+    private void onDurable(List<StockLedgerWal.Record> records) {
+        synchronized (pendingLock) {
+            for (StockLedgerWal.Record record : records) {
+                pending.merge(record.sku(), (long) record.quantity(), Long::sum);
+                if (record.reservationId() != null) {
+                    pendingReservations.put(record.reservationId(), Reservation.of(record));
+                }
+            }
+            durableLsn = records.get(records.size() - 1).lsn();
+        }
+    }
+
+    /**
+     * Reaplica los registros posteriores al último checkpoint. Si la base de datos no conoce este
+     * WAL (p. ej. H2 en memoria recién creada) su contenido no le corresponde y se descarta.
+     * Después recupera de la base de datos los ids de reserva dentro de la retención.
+     */
+    private void recover() {
+        List<StockLedgerWal.Record> records = wal.readAll();
+        LedgerCheckpoint checkpoint = checkpointRepository.findById(wal.id()).orElse(null);
+        long appliedLsn = checkpoint != null ? checkpoint.getAppliedLsn() : 0;
+        long lastLsn = records.isEmpty() ? appliedLsn : Math.max(appliedLsn, records.get(records.size() - 1).lsn());
+
+        if (checkpoint == null) {
+            if (!records.isEmpty()) {
+                log.warn("La base de datos no tiene checkpoint del WAL {}: se descartan {} registros",
+                        wal.id(), records.size());
+            }
+            checkpointRepository.save(new LedgerCheckpoint(wal.id(), lastLsn));
+        } else {
+            Map<String, Long> deltas = new HashMap<>();
+            Map<String, Reservation> rows = new HashMap<>();
+            records.stream()
+                    .filter(record -> record.lsn() > appliedLsn)
+                    .forEach(record -> {
+                        deltas.merge(record.sku(), (long) record.quantity(), Long::sum);
+                        if (record.reservationId() != null) {
+                            rows.put(record.reservationId(), Reservation.of(record));
+                        }
+                    });
+            if (!deltas.isEmpty()) {
+                transactionTemplate.execute(status -> apply(deltas, rows, lastLsn));
+                evictProducts(deltas.keySet());
+                log.info("Ledger de stock recuperado: {} SKUs actualizados hasta el LSN {}", deltas.size(), lastLsn);
+            }
+        }
+
+        reservationRepository.findByCreatedAtAfter(Instant.now().minus(reservationRetention)).stream()
+                .filter(reservation -> manages(reservation.getSku()))
+                .forEach(reservation -> reservations.put(reservation.getReservationId(), Reservation.of(reservation)));
+
+        durableLsn = lastLsn;
+        wal.start(lastLsn + 1, this::onDurable);
+    }
+
+    private void flushPending() {
+        Map<String, Long> deltas;
+        Map<String, Reservation> rows;
+        long lsn;
+        synchronized (pendingLock) {
+            if (pending.isEmpty() && pendingReservations.isEmpty()) {
+                return;
+            }
+            deltas = pending;
+            rows = pendingReservations;
+            lsn = durableLsn;
+            pending = new HashMap<>();
+            pendingReservations = new HashMap<>();
+        }
+
+        List<Product> products;
+        try {
+            products = transactionTemplate.execute(status -> apply(deltas, rows, lsn));
+        } catch (RuntimeException e) {
+            synchronized (pendingLock) {
+                deltas.forEach((sku, delta) -> pending.merge(sku, delta, Long::sum));
+                // Un cambio posterior del mismo id ya está en pendingReservations y es más reciente
+                rows.forEach(pendingReservations::putIfAbsent);
+            }
+            throw e;
+        }
+
+        deltas.forEach((sku, delta) -> {
+            ReentrantLock stripe = stripe(sku);
+            stripe.lock();
+            try {
+                addUnflushed(sku, -delta);
+            } finally {
+                stripe.unlock();
+            }
+        });
+        evictProducts(deltas.keySet());
+        products.forEach(product -> productEventPublisher.publish(
+                ProductEvents.of(ProductEventDTO.Type.STOCK_CHANGED, product)));
+        wal.deleteUpTo(lsn);
+    }
+
+    /**
+     * Olvida los ids ya volcados que superan la retención; desde entonces se consultan en la base de datos.
+     */
+    private void sweepReservations() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextSweep)) {
+            return;
+        }
+        nextSweep = now.plus(reservationRetention.dividedBy(4));
+        Instant expiry = now.minus(reservationRetention);
+        Set<String> unflushedIds;
+        synchronized (pendingLock) {
+            unflushedIds = Set.copyOf(pendingReservations.keySet());
+        }
+        reservations.forEach((reservationId, reservation) -> {
+            if (reservation.at().isBefore(expiry) && !unflushedIds.contains(reservationId)) {
+                ReentrantLock stripe = stripe(reservation.sku());
+                stripe.lock();
+                try {
+                    reservations.remove(reservationId, reservation);
+                } finally {
+                    stripe.unlock();
+                }
+            }
+        });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Error volcando el ledger de stock; se reintentará: {}", e.getMessage());
+        }
+    }
+
+    private void evictProducts(Set<String> skus) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (products != null) {
+            skus.forEach(products::evict);
+        }
+    }
+
+    private static StockReservationResultDTO result(Entry entry, StockReservationResultDTO.Status status,
+                                                    int requested) {
+        ProductDTO snapshot = new ProductDTO();
+        snapshot.setSku(entry.product.getSku());
+        snapshot.setName(entry.product.getName());
+        snapshot.setDescription(entry.product.getDescription());
+        snapshot.setActive(entry.product.isActive());
+        snapshot.setPrice(entry.product.getPrice());
+        snapshot.setCategory(entry.product.getCategory());
+        snapshot.setQuantity(entry.available);
+        snapshot.setVersion(entry.product.getVersion());
+        return new StockReservationResultDTO(snapshot.getSku(), status, requested, entry.available, snapshot);
+    }
+
+    private static StockReservationResultDTO released(Entry entry, String sku, int requested) {
+        return entry != null
+                ? result(entry, StockReservationResultDTO.Status.RELEASED, requested)
+                : new StockReservationResultDTO(sku, StockReservationResultDTO.Status.RELEASED, requested, null, null);
+    }
+
+    /**
+     * Estado de un id de reserva; {@code at} es el momento de su último cambio.
+     */
+    private record Reservation(String sku, int quantity, StockReservation.Status status, Instant at) {
+
+        static Reservation of(StockReservation row) {
+            return new Reservation(row.getSku(), row.getQuantity(), row.getStatus(), row.getCreatedAt());
+        }
+
+        static Reservation of(StockLedgerWal.Record record) {
+            return new Reservation(record.sku(), Math.abs(record.quantity()), record.quantity() > 0
+                    ? StockReservation.Status.RESERVED
+                    : StockReservation.Status.RELEASED, Instant.now());
+        }
+    }
+
+    /**
+     * Una línea ejecutada en memoria, antes de esperar al WAL. {@code units} es lo que se descontó
+     * del contador (negativo si se le devolvió); {@code previous} y {@code current}, el estado del id
+     * en memoria antes y después de la línea.
+     */
+    private record Attempt(StockReservationResultDTO result, int units, Reservation previous, Reservation current) {
+
+        static Attempt unchanged(StockReservationResultDTO result) {
+            return new Attempt(result, 0, null, null);
+        }
+
+        boolean logged() {
+            return units != 0 || current != null;
+        }
+    }
+
+    private static final class Entry {
+        private final ProductDTO product;
+        private int available;
+
+        private Entry(ProductDTO product, int available) {
+            this.product = product;
+            this.available = available;
+        }
+    }
+}
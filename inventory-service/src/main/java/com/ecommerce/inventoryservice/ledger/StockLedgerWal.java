@@ -0,0 +1,410 @@
+package com.ecommerce.inventoryservice.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log de las reservas del {@link StockLedger}, en segmentos {@code wal-<primer LSN>.log}
+ * dentro de un directorio propio. Un único hilo escritor agrupa las reservas que llegan a la vez,
+ * las escribe y hace un solo fsync por lote (group commit); después entrega el lote a
+ * {@code onDurable} y completa las esperas de los llamantes.
+ * <p>
+ * Registro: {@code [longitud int][lsn long][cantidad int][longitud del sku short][sku UTF-8][id de reserva UTF-8][crc32c int]}.
+ * La cantidad es negativa al liberar una reserva y 0 al liberar un id que no se llegó a reservar;
+ * el id va vacío en las reservas sin él. La recuperación se detiene en el primer registro
+ * incompleto o con CRC erróneo (escritura cortada).
+ */
+@Slf4j
+public class StockLedgerWal implements Closeable {
+
+    static final String ID_FILE = "wal.id";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES + Short.BYTES;
+    private static final int MAX_SKU_BYTES = 256;
+    private static final int MAX_RESERVATION_ID_BYTES = 64;
+
+    /**
+     * {@code reservationId} es null en las reservas sin id.
+     */
+    public record Record(long lsn, String sku, int quantity, String reservationId) {
+    }
+
+    private record Append(String sku, int quantity, String reservationId, CompletableFuture<Long> durable) {
+    }
+
+    private final Path directory;
+    private final String walId;
+    private final long segmentBytes;
+    private final int maxBatch;
+    private final BlockingQueue<Append> queue;
+    private final ByteBuffer buffer;
+    private final Thread writer;
+
+    private Consumer<List<Record>> onDurable = records -> {
+    };
+    private Path segmentPath;
+    private FileChannel segment;
+    private long nextLsn;
+    private volatile boolean running;
+    private volatile boolean halted;
+    private volatile IOException failure;
+
+    /**
+     * Abre (o crea) el directorio del log. No escribe nada hasta {@link #start}.
+     */
+    public StockLedgerWal(Path directory, long segmentBytes, int maxBatch, int queueCapacity) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.buffer = ByteBuffer.allocateDirect(
+                maxBatch * (HEADER_BYTES + MAX_SKU_BYTES + MAX_RESERVATION_ID_BYTES + Integer.BYTES));
+        this.walId = readOrCreateId();
+        this.writer = new Thread(this::writeLoop, "stock-ledger-wal");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Identificador del log; se guarda junto al checkpoint para no aplicar el log de otra base de datos.
+     */
+    public String id() {
+        return walId;
+    }
+
+    /**
+     * Registros completos de todos los segmentos, en orden de LSN.
+     */
+    public List<Record> readAll() {
+        List<Record> records = new ArrayList<>();
+        for (Path path : segments()) {
+            if (!readSegment(path, records)) {
+                break;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Borra los segmentos existentes y empieza a escribir uno nuevo a partir de {@code firstLsn}.
+     * Debe llamarse después de recuperar el contenido anterior.
+     */
+    public void start(long firstLsn, Consumer<List<Record>> onDurable) {
+        this.onDurable = onDurable;
+        this.nextLsn = firstLsn;
+        segments().forEach(StockLedgerWal::deleteQuietly);
+        openSegment();
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Encola una reserva o liberación ({@code reservationId} puede ser null); el futuro se completa
+     * con su LSN cuando está en disco.
+     */
+    public CompletableFuture<Long> append(String sku, int quantity, String reservationId) {
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        if (sku.getBytes(StandardCharsets.UTF_8).length > MAX_SKU_BYTES) {
+            durable.completeExceptionally(new IllegalArgumentException("SKU demasiado largo para el WAL: " + sku));
+        } else if (reservationId != null
+                && reservationId.getBytes(StandardCharsets.UTF_8).length > MAX_RESERVATION_ID_BYTES) {
+            durable.completeExceptionally(new IllegalArgumentException(
+                    "Id de reserva demasiado largo para el WAL: " + reservationId));
+        } else if (!running || failure != null) {
+            durable.completeExceptionally(new IllegalStateException("WAL del ledger de stock no disponible", failure));
+        } else {
+            try {
+                Append append = new Append(sku, quantity, reservationId, durable);
+                queue.put(append);
+                // close() pudo terminar el hilo escritor entre la comprobación y el put
+                if (!writer.isAlive() && queue.remove(append)) {
+                    durable.completeExceptionally(new IllegalStateException("WAL del ledger de stock cerrado"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                durable.completeExceptionally(e);
+            }
+        }
+        return durable;
+    }
+
+    /**
+     * Borra los segmentos cerrados cuyos registros son todos anteriores o iguales a {@code lsn}.
+     * El segmento en escritura nunca se borra.
+     */
+    public void deleteUpTo(long lsn) {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsn(segments.get(i + 1)) - 1 <= lsn) {
+                deleteQuietly(segments.get(i));
+            }
+        }
+    }
+
+    /**
+     * Deja de aceptar reservas, escribe las pendientes y cierra el segmento.
+     */
+    @Override
+    public void close() {
+        running = false;
+        awaitWriter();
+        closeSegment();
+    }
+
+    /**
+     * Detiene el escritor sin escribir lo encolado ni forzar el segmento, como si el proceso muriera.
+     * Solo para tests.
+     */
+    void halt() {
+        halted = true;
+        running = false;
+        awaitWriter();
+    }
+
+    /**
+     * Segmento en escritura. Solo para tests.
+     */
+    Path currentSegment() {
+        return segmentPath;
+    }
+
+    private void awaitWriter() {
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<Append> batch = new ArrayList<>(maxBatch);
+        while ((running || !queue.isEmpty()) && !halted) {
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        // Lo que quede en cola no llegará a disco
+        Append pending;
+        while ((pending = queue.poll()) != null) {
+            pending.durable().completeExceptionally(new IllegalStateException("WAL del ledger de stock cerrado"));
+        }
+    }
+
+    private void writeBatch(List<Append> batch) {
+        if (failure != null) {
+            batch.forEach(append -> append.durable().completeExceptionally(failure));
+            return;
+        }
+
+        List<Record> records = new ArrayList<>(batch.size());
+        buffer.clear();
+        for (Append append : batch) {
+            Record record = new Record(nextLsn + records.size(), append.sku(), append.quantity(),
+                    append.reservationId());
+            encode(record, buffer);
+            records.add(record);
+        }
+        buffer.flip();
+
+        long position = -1;
+        try {
+            position = segment.position();
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            segment.force(false);
+        } catch (IOException e) {
+            fail(e, position);
+            batch.forEach(append -> append.durable().completeExceptionally(e));
+            return;
+        }
+
+        nextLsn += records.size();
+        onDurable.accept(records);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).durable().complete(records.get(i).lsn());
+        }
+        rotateIfFull();
+    }
+
+    /**
+     * Descarta la escritura parcial para que la recuperación no se detenga antes de lotes posteriores;
+     * si tampoco se puede, el log queda inutilizable y las reservas fallan.
+     */
+    private void fail(IOException e, long position) {
+        try {
+            if (position >= 0) {
+                segment.truncate(position);
+                segment.position(position);
+                log.error("Error escribiendo el WAL del ledger de stock; lote descartado", e);
+                return;
+            }
+        } catch (IOException truncateFailure) {
+            e.addSuppressed(truncateFailure);
+        }
+        log.error("WAL del ledger de stock inutilizable", e);
+        failure = e;
+    }
+
+    private void rotateIfFull() {
+        try {
+            if (segment.size() >= segmentBytes) {
+                closeSegment();
+                openSegment();
+            }
+        } catch (IOException e) {
+            fail(e, -1);
+        } catch (UncheckedIOException e) {
+            fail(e.getCause(), -1);
+        }
+    }
+
+    private void openSegment() {
+        segmentPath = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextLsn, SEGMENT_SUFFIX));
+        try {
+            segment = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeSegment() {
+        if (segment != null && segment.isOpen()) {
+            try {
+                segment.force(true);
+                segment.close();
+            } catch (IOException e) {
+                log.warn("Error cerrando el segmento del WAL del ledger de stock", e);
+            }
+        }
+    }
+
+    private static void encode(Record record, ByteBuffer buffer) {
+        byte[] sku = record.sku().getBytes(StandardCharsets.UTF_8);
+        byte[] reservationId = record.reservationId() != null
+                ? record.reservationId().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        int start = buffer.position();
+        buffer.putInt(HEADER_BYTES + sku.length + reservationId.length);
+        buffer.putLong(record.lsn());
+        buffer.putInt(record.quantity());
+        buffer.putShort((short) sku.length);
+        buffer.put(sku);
+        buffer.put(reservationId);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(start).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Añade a {@code records} los registros válidos del segmento; false si encontró uno cortado.
+     */
+    private static boolean readSegment(Path path, List<Record> records) {
+        ByteBuffer data;
+        try {
+            data = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        while (data.remaining() >= HEADER_BYTES) {
+            int start = data.position();
+            int length = data.getInt(start);
+            if (length < HEADER_BYTES || length > HEADER_BYTES + MAX_SKU_BYTES + MAX_RESERVATION_ID_BYTES
+                    || data.remaining() < length + Integer.BYTES) {
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(data.duplicate().position(start).limit(start + length));
+            if ((int) crc.getValue() != data.getInt(start + length)) {
+                break;
+            }
+            long lsn = data.getLong(start + Integer.BYTES);
+            int quantity = data.getInt(start + Integer.BYTES + Long.BYTES);
+            int skuLength = data.getShort(start + Integer.BYTES + Long.BYTES + Integer.BYTES);
+            int idStart = start + HEADER_BYTES + skuLength;
+            String sku = new String(data.array(), start + HEADER_BYTES, skuLength, StandardCharsets.UTF_8);
+            String reservationId = idStart < start + length
+                    ? new String(data.array(), idStart, start + length - idStart, StandardCharsets.UTF_8)
+                    : null;
+            records.add(new Record(lsn, sku, quantity, reservationId));
+            data.position(start + length + Integer.BYTES);
+        }
+        if (data.hasRemaining()) {
+            log.warn("Registro incompleto en {} (posición {}); se ignora el resto del WAL", path, data.position());
+            return false;
+        }
+        return true;
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private String readOrCreateId() {
+        try {
+            Files.createDirectories(directory);
+            Path idFile = directory.resolve(ID_FILE);
+            if (Files.exists(idFile)) {
+                return Files.readString(idFile).trim();
+            }
+            String id = UUID.randomUUID().toString();
+            Files.writeString(idFile, id);
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el segmento {} del WAL del ledger de stock", path, e);
+        }
+    }
+}
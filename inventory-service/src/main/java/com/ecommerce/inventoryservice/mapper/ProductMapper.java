@@ -4,6 +4,7 @@ import com.ecommerce.inventoryservice.dto.CreateProductDTO;
 import com.ecommerce.inventoryservice.dto.ProductDTO;
 import com.ecommerce.inventoryservice.models.Product;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.NullValueMappingStrategy;
 
 import java.util.List;
@@ -17,10 +18,13 @@ import java.util.List;
 )
 public interface ProductMapper {
 
+    // La versión la gestiona JPA (@Version); nunca se copia desde el DTO
+    @Mapping(target = "version", ignore = true)
     Product createProductDTO(CreateProductDTO dto);
 
     ProductDTO productDTO(Product product);
 
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductDTO dto);
 
     List<ProductDTO> productDTOList(List<Product> products);
@@ -0,0 +1,52 @@
+package com.ecommerce.inventoryservice.metrics;
+
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Métricas de reserva de stock:
+ * <ul>
+ *     <li>{@code inventory.reservation.stage{operation, stage}}: duración de cada etapa de la reserva</li>
+ *     <li>{@code inventory.reservation.results{status}}: líneas reservadas o rechazadas por motivo</li>
+ * </ul>
+ * La duración total la mide el timer {@code http.server.requests} de cada endpoint. Percentiles,
+ * histogramas y buckets SLO se configuran en {@code management.metrics.distribution}.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryMetrics {
+
+    public static final String OPERATION_SINGLE = "single";
+    public static final String OPERATION_BATCH = "batch";
+
+    public static final String STAGE_DECREMENT_STOCK = "decrement_stock";
+    public static final String STAGE_RELOAD = "reload";
+    // Reserva en el ledger de stock en memoria, incluida la espera al fsync del WAL
+    public static final String STAGE_LEDGER_RESERVE = "ledger_reserve";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T stage(String operation, String stage, Supplier<T> step) {
+        return Timer.builder("inventory.reservation.stage")
+                .description("Duración de cada etapa de la reserva de stock")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(step);
+    }
+
+    public StockReservationResultDTO result(StockReservationResultDTO result) {
+        Counter.builder("inventory.reservation.results")
+                .description("Líneas de reserva de stock por resultado")
+                .tag("status", result.getStatus().name())
+                .register(meterRegistry)
+                .increment();
+        return result;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.inventoryservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Último LSN del WAL del ledger de stock ya aplicado a {@code products}. Se actualiza en la misma
+ * transacción que los descuentos, así que al recuperar solo se reaplican los registros posteriores.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "stock_ledger_checkpoints")
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerCheckpoint {
+
+    @Id
+    @Column(name = "wal_id", length = 36)
+    private String walId;
+
+    @Column(name = "applied_lsn", nullable = false)
+    private long appliedLsn;
+}
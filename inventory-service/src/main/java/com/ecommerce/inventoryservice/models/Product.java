@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -37,4 +38,8 @@ public class Product {
     @Column(nullable = false)
     private Integer quantity;
 
+    // Se incrementa con cada cambio (incluidas las reservas de stock); los clientes lo usan para detectar datos obsoletos
+    @Version
+    private Long version;
+
 }
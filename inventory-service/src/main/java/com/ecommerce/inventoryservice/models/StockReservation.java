@@ -0,0 +1,61 @@
+package com.ecommerce.inventoryservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Reserva de stock con el identificador que eligió el cliente. Repetir la reserva con el mismo id
+ * no descuenta dos veces, y liberarla devuelve las unidades una sola vez. Liberar un id que no
+ * existe deja la fila directamente en RELEASED: si la reserva llega después, ya no se aplica.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "stock_reservations")
+@NoArgsConstructor
+public class StockReservation {
+
+    public enum Status {
+        RESERVED,
+        RELEASED
+    }
+
+    @Id
+    @Column(name = "reservation_id", length = 64)
+    private String reservationId;
+
+    @Column(nullable = false, length = 50)
+    private String sku;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Nula hasta el primer guardado: save() inserta sin consultar antes si el id existe
+    @Version
+    private Long version;
+
+    public StockReservation(String reservationId, String sku, int quantity, Status status, Instant createdAt) {
+        this.reservationId = reservationId;
+        this.sku = sku;
+        this.quantity = quantity;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+}
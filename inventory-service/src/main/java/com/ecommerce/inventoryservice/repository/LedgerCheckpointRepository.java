@@ -0,0 +1,7 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.models.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, String> {
+}
@@ -1,10 +1,61 @@
 package com.ecommerce.inventoryservice.repository;
 
 import com.ecommerce.inventoryservice.models.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, String> {
 
+    /**
+     * Descuenta stock de forma atómica: solo actualiza si el producto está activo
+     * y tiene stock suficiente. Devuelve el número de filas afectadas (0 o 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.version = p.version + 1 " +
+            "WHERE p.sku = :sku AND p.active = true AND p.quantity >= :quantity")
+    int decrementStock(@Param("sku") String sku, @Param("quantity") int quantity);
+
+    /**
+     * Devuelve al stock las unidades de una reserva liberada.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, p.version = p.version + 1 WHERE p.sku = :sku")
+    int incrementStock(@Param("sku") String sku, @Param("quantity") int quantity);
+
+    /**
+     * Aplica el descuento acumulado por el ledger de stock, ya validado en memoria. No deja el
+     * stock en negativo: devuelve 0 si un cambio de producto lo bajó por debajo de lo reservado.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.version = p.version + 1 " +
+            "WHERE p.sku = :sku AND p.quantity >= :quantity")
+    int applyStockDelta(@Param("sku") String sku, @Param("quantity") int quantity);
+
+    /**
+     * Agota el stock de un producto; para los descuentos del ledger que ya no caben en él.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = 0, p.version = p.version + 1 WHERE p.sku = :sku")
+    int exhaustStock(@Param("sku") String sku);
+
+    /**
+     * Página por keyset: productos con SKU mayor que el cursor, en orden ascendente.
+     */
+    List<Product> findBySkuGreaterThanOrderBySkuAsc(String sku, Limit limit);
 
+    /**
+     * Recorre todo el catálogo con un cursor JDBC; debe consumirse dentro de una transacción.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Product> streamAllByOrderBySkuAsc();
 
-}
\ No newline at end of file
+}
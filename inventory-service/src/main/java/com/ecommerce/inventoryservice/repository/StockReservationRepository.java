@@ -0,0 +1,29 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.models.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /**
+     * Pasa la reserva a RELEASED si sigue RESERVED; 1 solo para la llamada que la liberó.
+     */
+    default int markReleased(String reservationId) {
+        return updateStatus(reservationId, StockReservation.Status.RESERVED, StockReservation.Status.RELEASED);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to, r.version = r.version + 1 " +
+            "WHERE r.reservationId = :reservationId AND r.status = :from")
+    int updateStatus(@Param("reservationId") String reservationId,
+                     @Param("from") StockReservation.Status from,
+                     @Param("to") StockReservation.Status to);
+
+    List<StockReservation> findByCreatedAtAfter(Instant since);
+}
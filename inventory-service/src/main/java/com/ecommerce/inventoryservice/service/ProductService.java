@@ -2,7 +2,13 @@ package com.ecommerce.inventoryservice.service;
 
 import com.ecommerce.inventoryservice.dto.CreateProductDTO;
 import com.ecommerce.inventoryservice.dto.ProductDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
 
+import com.ecommerce.sharedlib.dto.KeysetPage;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +23,39 @@ public interface ProductService {
 
     List<ProductDTO> getAllProducts();
 
-    Optional<ProductDTO> updateProduct(String sku, ProductDTO dto);
+    /**
+     * Página del catálogo por keyset sobre el SKU.
+     */
+    KeysetPage<ProductDTO> getProductsPage(String after, int size);
+
+    /**
+     * Escribe todo el catálogo como NDJSON a medida que se lee de la base de datos.
+     */
+    void streamProducts(OutputStream out) throws IOException;
+
+    /**
+     * Actualiza el producto con bloqueo optimista. Con {@code expectedVersion} la escritura solo
+     * se aplica si el producto sigue en esa versión; {@code null} la aplica sobre la versión actual.
+     */
+    Optional<ProductDTO> updateProduct(String sku, ProductDTO dto, Long expectedVersion);
 
     void deleteProduct(String sku);
+
+    /**
+     * Reserva (descuenta) stock de forma atómica, sin lectura-modificación-escritura. Con
+     * {@code reservationId} (opcional) repetir la reserva no descuenta dos veces.
+     */
+    StockReservationResultDTO reserveStock(String sku, int quantity, String reservationId);
+
+    /**
+     * Reserva stock para varias líneas en una sola transacción. Cada línea se
+     * aplica de forma independiente y el resultado conserva el orden de entrada.
+     */
+    List<StockReservationResultDTO> reserveStock(List<StockReservationDTO> reservations);
+
+    /**
+     * Libera reservas por su {@code reservationId}: sus unidades vuelven al stock una sola vez.
+     * Liberar un id que no se reservó impide que esa reserva se aplique si llega más tarde.
+     */
+    List<StockReservationResultDTO> releaseStock(List<StockReservationDTO> releases);
 }
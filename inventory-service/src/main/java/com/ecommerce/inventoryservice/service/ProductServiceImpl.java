@@ -1,56 +1,429 @@
 package com.ecommerce.inventoryservice.service;
 
+import com.ecommerce.inventoryservice.config.CacheConfig;
 import com.ecommerce.inventoryservice.dto.CreateProductDTO;
+import com.ecommerce.inventoryservice.dto.ProductEventDTO;
 import com.ecommerce.inventoryservice.dto.ProductDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
+import com.ecommerce.inventoryservice.events.ProductEventPublisher;
+import com.ecommerce.inventoryservice.events.ProductEvents;
+import com.ecommerce.inventoryservice.exception.InventoryExceptions;
+import com.ecommerce.inventoryservice.ledger.StockLedger;
 import com.ecommerce.inventoryservice.mapper.ProductMapper;
+import com.ecommerce.inventoryservice.metrics.InventoryMetrics;
 import com.ecommerce.inventoryservice.models.Product;
+import com.ecommerce.inventoryservice.models.StockReservation;
 import com.ecommerce.inventoryservice.repository.ProductRepository;
+import com.ecommerce.inventoryservice.repository.StockReservationRepository;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio de gestión de productos.
+ * Las lecturas por SKU y el catálogo completo se sirven desde caché; toda
+ * escritura invalida el SKU afectado y el catálogo y, tras el commit, publica
+ * un {@link ProductEventDTO} con el estado resultante. Las reservas de los SKUs
+ * gestionados por el {@link StockLedger} (si está activo) no pasan por la base de datos.
+ * Las reservas con id se guardan en {@code stock_reservations} en la misma transacción que el
+ * descuento, para no aplicarlas dos veces y poder liberarlas.
  */
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
     private final ProductMapper productMapper;
+    private final InventoryMetrics inventoryMetrics;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ProductEventPublisher productEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Optional<StockLedger> stockLedger;
+
+    @Value("${inventory.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${inventory.stream.flush-every:500}")
+    private int streamFlushEvery;
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#sku", unless = "#result == null")
     public Optional<ProductDTO> findById(String sku) {
         return productRepository.findById(sku).map(productMapper::productDTO);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#dto.sku"),
+            @CacheEvict(cacheNames = CacheConfig.CATALOG_CACHE, allEntries = true)
+    })
     public Optional<ProductDTO> saveProduct(CreateProductDTO dto) {
         Product saved = productRepository.save(productMapper.createProductDTO(dto));
+        publishAfterCommit(ProductEvents.of(ProductEventDTO.Type.CREATED, saved));
         return Optional.of(productMapper.productDTO(saved));
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CATALOG_CACHE, key = "'all'")
     public List<ProductDTO> getAllProducts() {
-        return productMapper.productDTOList(productRepository.findAll());
+        // Snapshot inmutable: la misma instancia se comparte entre todas las lecturas cacheadas
+        return List.copyOf(productMapper.productDTOList(productRepository.findAll()));
+    }
+
+    @Override
+    public KeysetPage<ProductDTO> getProductsPage(String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Se pide un elemento extra solo para saber si hay más páginas
+        List<Product> products = productRepository.findBySkuGreaterThanOrderBySkuAsc(
+                after != null ? after : "", Limit.of(pageSize + 1));
+
+        boolean hasMore = products.size() > pageSize;
+        List<Product> page = hasMore ? products.subList(0, pageSize) : products;
+        String nextCursor = hasMore ? page.get(page.size() - 1).getSku() : null;
+        return KeysetPage.of(productMapper.productDTOList(page), nextCursor);
     }
 
     @Override
-    public Optional<ProductDTO> updateProduct(String sku, ProductDTO dto) {
+    @Transactional(readOnly = true)
+    public void streamProducts(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ProductDTO.class);
+        try (Stream<Product> products = productRepository.streamAllByOrderBySkuAsc()) {
+            Iterator<Product> iterator = products.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                out.write(writer.writeValueAsBytes(productMapper.productDTO(product)));
+                out.write('\n');
+                // Desasociar la entidad para que la memoria no crezca con el tamaño del catálogo
+                entityManager.detach(product);
+                if (++written % streamFlushEvery == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#sku"),
+            @CacheEvict(cacheNames = CacheConfig.CATALOG_CACHE, allEntries = true)
+    })
+    @Transactional
+    public Optional<ProductDTO> updateProduct(String sku, ProductDTO dto, Long expectedVersion) {
+        // Antes de leer: la versión y el stock deben incluir lo reservado en el ledger
+        stockLedger.ifPresent(ledger -> ledger.productChanged(sku));
         return productRepository.findById(sku).map(existing -> {
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                throw new InventoryExceptions.ProductVersionMismatchException(sku, existing.getVersion());
+            }
             existing.setName(dto.getName());
             existing.setDescription(dto.getDescription());
             existing.setActive(dto.isActive());
             existing.setPrice(dto.getPrice());
             existing.setCategory(dto.getCategory());
             existing.setQuantity(dto.getQuantity());
-            return productMapper.productDTO(productRepository.save(existing));
+            try {
+                // El UPDATE lleva "WHERE version = ?": si otra escritura confirmó después de la
+                // lectura no afecta a ninguna fila. El flush también deja la versión nueva en el DTO.
+                Product saved = productRepository.saveAndFlush(existing);
+                publishAfterCommit(ProductEvents.of(ProductEventDTO.Type.UPDATED, saved));
+                return productMapper.productDTO(saved);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new InventoryExceptions.ProductUpdateConflictException(sku, e);
+            }
         });
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#sku"),
+            @CacheEvict(cacheNames = CacheConfig.CATALOG_CACHE, allEntries = true)
+    })
     public void deleteProduct(String sku) {
+        // Antes de borrar: lo reservado en el ledger se vuelca mientras el producto aún existe
+        stockLedger.ifPresent(ledger -> ledger.productChanged(sku));
         productRepository.deleteById(sku);
+        publishAfterCommit(ProductEvents.deleted(sku));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#sku")
+    public StockReservationResultDTO reserveStock(String sku, int quantity, String reservationId) {
+        Optional<StockLedger> ledger = stockLedger.filter(l -> l.manages(sku));
+        if (ledger.isPresent()) {
+            return inventoryMetrics.result(inventoryMetrics.stage(InventoryMetrics.OPERATION_SINGLE,
+                    InventoryMetrics.STAGE_LEDGER_RESERVE, () -> ledger.get().reserve(sku, quantity, reservationId)));
+        }
+        return transactionTemplate.execute(status -> reserveInDatabase(sku, quantity, reservationId));
+    }
+
+    @Override
+    public List<StockReservationResultDTO> reserveStock(List<StockReservationDTO> reservations) {
+        return byStore(reservations, this::reserveInDatabase, (ledger, lines) -> inventoryMetrics.stage(
+                InventoryMetrics.OPERATION_BATCH, InventoryMetrics.STAGE_LEDGER_RESERVE, () -> ledger.reserve(lines)));
+    }
+
+    @Override
+    public List<StockReservationResultDTO> releaseStock(List<StockReservationDTO> releases) {
+        return byStore(releases, this::releaseInDatabase, StockLedger::release);
+    }
+
+    /**
+     * Ejecuta en una transacción las líneas que van a la base de datos y el resto en el ledger;
+     * los resultados vuelven en el orden de las líneas recibidas.
+     */
+    private List<StockReservationResultDTO> byStore(
+            List<StockReservationDTO> lines,
+            Function<List<StockReservationDTO>, List<StockReservationResultDTO>> inDatabase,
+            BiFunction<StockLedger, List<StockReservationDTO>, List<StockReservationResultDTO>> inLedger) {
+        if (stockLedger.isEmpty()) {
+            return transactionTemplate.execute(status -> inDatabase.apply(lines));
+        }
+        StockLedger ledger = stockLedger.get();
+        List<StockReservationDTO> ledgerLines = new ArrayList<>();
+        List<StockReservationDTO> databaseLines = new ArrayList<>();
+        for (StockReservationDTO line : lines) {
+            (ledger.manages(line.getSku()) ? ledgerLines : databaseLines).add(line);
+        }
+
+        Iterator<StockReservationResultDTO> fromDatabase = databaseLines.isEmpty()
+                ? Collections.emptyIterator()
+                : transactionTemplate.execute(status -> inDatabase.apply(databaseLines)).iterator();
+        Iterator<StockReservationResultDTO> fromLedger = ledgerLines.isEmpty()
+                ? Collections.emptyIterator()
+                : inLedger.apply(ledger, ledgerLines).iterator();
+        evictProducts(ledgerLines.stream().map(StockReservationDTO::getSku).collect(Collectors.toSet()));
+
+        List<StockReservationResultDTO> results = new ArrayList<>(lines.size());
+        for (StockReservationDTO line : lines) {
+            results.add(ledger.manages(line.getSku())
+                    ? inventoryMetrics.result(fromLedger.next())
+                    : fromDatabase.next());
+        }
+        return results;
+    }
+
+    private StockReservationResultDTO reserveInDatabase(String sku, int quantity, String reservationId) {
+        String operation = InventoryMetrics.OPERATION_SINGLE;
+        StockReservation previous = reservationId != null
+                ? reservationRepository.findById(reservationId).orElse(null)
+                : null;
+        boolean reserved = previous == null && inventoryMetrics.stage(operation,
+                InventoryMetrics.STAGE_DECREMENT_STOCK, () -> productRepository.decrementStock(sku, quantity) > 0);
+        if (reserved && reservationId != null) {
+            reservationRepository.save(new StockReservation(reservationId, sku, quantity,
+                    StockReservation.Status.RESERVED, Instant.now()));
+        }
+
+        // Releer el producto solo para informar el stock restante o el motivo del rechazo
+        Product product = inventoryMetrics.stage(operation, InventoryMetrics.STAGE_RELOAD,
+                () -> productRepository.findById(sku).orElse(null));
+        if (reserved && product != null) {
+            publishAfterCommit(ProductEvents.of(ProductEventDTO.Type.STOCK_CHANGED, product));
+        }
+        return inventoryMetrics.result(toReservationResult(sku, quantity, reserved, previous, product));
+    }
+
+    private List<StockReservationResultDTO> reserveInDatabase(List<StockReservationDTO> reservations) {
+        String operation = InventoryMetrics.OPERATION_BATCH;
+        // Ids ya conocidos: esas líneas no descuentan nada
+        Map<String, StockReservation> previous = findReservations(reservations);
+        boolean[] reserved = inventoryMetrics.stage(operation, InventoryMetrics.STAGE_DECREMENT_STOCK, () -> {
+            boolean[] decremented = new boolean[reservations.size()];
+            for (int i = 0; i < reservations.size(); i++) {
+                StockReservationDTO line = reservations.get(i);
+                if (line.getReservationId() != null && previous.containsKey(line.getReservationId())) {
+                    continue;
+                }
+                decremented[i] = productRepository.decrementStock(line.getSku(), line.getQuantity()) > 0;
+                if (decremented[i] && line.getReservationId() != null) {
+                    StockReservation reservation = new StockReservation(line.getReservationId(), line.getSku(),
+                            line.getQuantity(), StockReservation.Status.RESERVED, Instant.now());
+                    reservationRepository.save(reservation);
+                    // Un id repetido dentro del mismo lote tampoco descuenta dos veces
+                    previous.put(line.getReservationId(), reservation);
+                }
+            }
+            return decremented;
+        });
+        // Una sola lectura para informar el stock final de todos los SKUs involucrados
+        Map<String, Product> products = inventoryMetrics.stage(operation, InventoryMetrics.STAGE_RELOAD,
+                () -> productRepository.findAllById(reservations.stream()
+                                .map(StockReservationDTO::getSku)
+                                .distinct()
+                                .toList())
+                        .stream()
+                        .collect(Collectors.toMap(Product::getSku, Function.identity())));
+        evictProductsAfterCommit(products.keySet());
+        // Un evento por SKU con alguna línea reservada, con el stock final tras todo el lote
+        Set<String> changed = new LinkedHashSet<>();
+        for (int i = 0; i < reservations.size(); i++) {
+            if (reserved[i] && products.containsKey(reservations.get(i).getSku())) {
+                changed.add(reservations.get(i).getSku());
+            }
+        }
+        changed.forEach(sku -> publishAfterCommit(ProductEvents.of(ProductEventDTO.Type.STOCK_CHANGED, products.get(sku))));
+
+        List<StockReservationResultDTO> results = new ArrayList<>(reservations.size());
+        for (int i = 0; i < reservations.size(); i++) {
+            StockReservationDTO line = reservations.get(i);
+            StockReservation replayed = reserved[i] || line.getReservationId() == null
+                    ? null
+                    : previous.get(line.getReservationId());
+            results.add(inventoryMetrics.result(toReservationResult(line.getSku(), line.getQuantity(), reserved[i],
+                    replayed, products.get(line.getSku()))));
+        }
+        return results;
+    }
+
+    /**
+     * Libera cada línea por su id: marca la fila como liberada y devuelve sus unidades al stock una
+     * sola vez. Un id sin fila se guarda ya liberado, así que su reserva no se aplica si llega después.
+     */
+    private List<StockReservationResultDTO> releaseInDatabase(List<StockReservationDTO> releases) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (StockReservationDTO line : releases) {
+            StockReservation reservation = reservationRepository.findById(line.getReservationId()).orElse(null);
+            if (reservation == null) {
+                reservationRepository.save(new StockReservation(line.getReservationId(), line.getSku(),
+                        line.getQuantity(), StockReservation.Status.RELEASED, Instant.now()));
+            } else if (reservationRepository.markReleased(line.getReservationId()) == 1) {
+                productRepository.incrementStock(reservation.getSku(), reservation.getQuantity());
+                changed.add(reservation.getSku());
+            }
+        }
+
+        Map<String, Product> products = productRepository.findAllById(releases.stream()
+                        .map(StockReservationDTO::getSku)
+                        .distinct()
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getSku, Function.identity()));
+        evictProductsAfterCommit(changed);
+        changed.stream()
+                .filter(products::containsKey)
+                .forEach(sku -> publishAfterCommit(ProductEvents.of(ProductEventDTO.Type.STOCK_CHANGED, products.get(sku))));
+
+        return releases.stream()
+                .map(line -> {
+                    Product product = products.get(line.getSku());
+                    return inventoryMetrics.result(new StockReservationResultDTO(line.getSku(),
+                            StockReservationResultDTO.Status.RELEASED, line.getQuantity(),
+                            product != null ? product.getQuantity() : 0,
+                            product != null ? productMapper.productDTO(product) : null));
+                })
+                .toList();
+    }
+
+    private Map<String, StockReservation> findReservations(List<StockReservationDTO> lines) {
+        List<String> ids = lines.stream()
+                .map(StockReservationDTO::getReservationId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return reservationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(StockReservation::getReservationId, Function.identity(),
+                        (first, second) -> first, HashMap::new));
+    }
+
+    private void evictProducts(Collection<String> skus) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache != null) {
+            skus.forEach(cache::evict);
+        }
+    }
+
+    private void evictProductsAfterCommit(Collection<String> skus) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (cache == null || skus.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                skus.forEach(cache::evict);
+            }
+        });
+    }
+
+    /**
+     * Publica el evento cuando la transacción confirma; sin transacción activa, de inmediato.
+     */
+    private void publishAfterCommit(ProductEventDTO event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productEventPublisher.publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productEventPublisher.publish(event);
+            }
+        });
+    }
+
+    /**
+     * {@code previous}: fila ya existente del id de la reserva, que no descontó nada en esta llamada.
+     */
+    private StockReservationResultDTO toReservationResult(String sku, int quantity, boolean reserved,
+                                                          StockReservation previous, Product product) {
+        if (product == null) {
+            return new StockReservationResultDTO(sku, StockReservationResultDTO.Status.NOT_FOUND, quantity, 0, null);
+        }
+
+        StockReservationResultDTO.Status status;
+        if (previous != null) {
+            status = previous.getStatus() == StockReservation.Status.RESERVED
+                    ? StockReservationResultDTO.Status.RESERVED
+                    : StockReservationResultDTO.Status.RELEASED;
+        } else if (reserved) {
+            status = StockReservationResultDTO.Status.RESERVED;
+        } else if (!product.isActive()) {
+            status = StockReservationResultDTO.Status.INACTIVE;
+        } else {
+            status = StockReservationResultDTO.Status.INSUFFICIENT_STOCK;
+        }
+        return new StockReservationResultDTO(sku, status, quantity, product.getQuantity(),
+                productMapper.productDTO(product));
     }
 }
@@ -0,0 +1,160 @@
+package com.ecommerce.inventoryservice.controller;
+
+import com.ecommerce.inventoryservice.repository.StockReservationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.handler;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Contrato HTTP de {@link ProductController} sobre los productos de data.sql.
+ */
+@SpringBootTest(properties = {"eureka.client.enabled=false", "spring.jpa.show-sql=false"})
+@AutoConfigureMockMvc
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void batchWithNullOrIncompleteLinesIsRejected() throws Exception {
+        postJson("/api/inventory/reservations", "[null]").andExpect(status().isBadRequest());
+        postJson("/api/inventory/reservations", "[{\"quantity\": 1}]").andExpect(status().isBadRequest());
+        postJson("/api/inventory/reservations", "[{\"sku\": \"pro2\", \"quantity\": 0}]").andExpect(status().isBadRequest());
+        postJson("/api/inventory/reservations/release", "[null]").andExpect(status().isBadRequest());
+        // Liberar exige el id de la reserva
+        postJson("/api/inventory/reservations/release", "[{\"sku\": \"pro2\", \"quantity\": 1}]")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchLargerThanTheMaximumIsRejected() throws Exception {
+        String line = "{\"sku\": \"pro2\", \"quantity\": 1, \"reservationId\": \"r\"}";
+        String tooMany = "[" + String.join(",", Collections.nCopies(ProductController.MAX_BATCH_SIZE + 1, line)) + "]";
+
+        postJson("/api/inventory/reservations", tooMany).andExpect(status().isBadRequest());
+        postJson("/api/inventory/reservations/release", tooMany).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void validBatchIsReleased() throws Exception {
+        // Liberar una reserva que no llegó deja su marca y no cambia el stock
+        postJson("/api/inventory/reservations/release", "[{\"sku\": \"pro2\", \"quantity\": 1, \"reservationId\": \"r-1\"}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("RELEASED"));
+    }
+
+    @Test
+    void updateIsConditionalOnTheETagSentInIfMatch() throws Exception {
+        MvcResult current = mockMvc.perform(get("/api/inventory/pro2")).andExpect(status().isOk()).andReturn();
+        String eTag = current.getResponse().getHeader(HttpHeaders.ETAG);
+        String product = current.getResponse().getContentAsString();
+
+        // Una ETag de otra versión, débil o de otro producto no coincide: 412 sin escribir
+        for (String stale : new String[]{"\"pro2-999\"", "W/" + eTag, "\"pro1-0\""}) {
+            putJson("/api/inventory/pro2", stale, product).andExpect(status().isPreconditionFailed());
+        }
+        mockMvc.perform(get("/api/inventory/pro2")).andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        putJson("/api/inventory/pro2", eTag, product)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        // La ETag usada ya no vale para la siguiente escritura
+        putJson("/api/inventory/pro2", eTag, product).andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void catalogHandlerDependsOnAcceptAndSize() throws Exception {
+        for (String accept : new String[]{MediaType.ALL_VALUE, MediaType.APPLICATION_JSON_VALUE, null}) {
+            catalog("/api/inventory", accept)
+                    .andExpect(status().isOk())
+                    .andExpect(handler().methodName("getAllProducts"))
+                    .andExpect(jsonPath("$").isArray());
+            catalog("/api/inventory?size=1", accept)
+                    .andExpect(status().isOk())
+                    .andExpect(handler().methodName("getProductsPage"))
+                    .andExpect(jsonPath("$.items.length()").value(1));
+        }
+
+        MvcResult stream = catalog("/api/inventory", MediaType.APPLICATION_NDJSON_VALUE)
+                .andExpect(handler().methodName("streamProducts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        // El parámetro size gana al produces del stream; la página no se sirve como NDJSON
+        catalog("/api/inventory?size=1", MediaType.APPLICATION_NDJSON_VALUE)
+                .andExpect(status().isNotAcceptable())
+                .andExpect(handler().methodName("getProductsPage"));
+    }
+
+    @Test
+    void keysetCursorWalksTheWholeCatalogOnceInSkuOrder() throws Exception {
+        List<String> all = new ArrayList<>();
+        objectMapper.readTree(catalog("/api/inventory", null).andReturn().getResponse().getContentAsString())
+                .forEach(product -> all.add(product.get("sku").asText()));
+
+        List<String> walked = new ArrayList<>();
+        String after = null;
+        do {
+            String uri = "/api/inventory?size=1" + (after != null ? "&after=" + after : "");
+            JsonNode page = objectMapper.readTree(catalog(uri, null)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(product -> walked.add(product.get("sku").asText()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertThat(page.get("hasMore").asBoolean()).isEqualTo(after != null);
+        } while (after != null);
+
+        assertThat(walked).hasSizeGreaterThan(1).isSorted().containsExactlyInAnyOrderElementsOf(all);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll();
+    }
+
+    private ResultActions postJson(String path, String body) throws Exception {
+        return mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    private ResultActions catalog(String uri, String accept) throws Exception {
+        return mockMvc.perform(accept != null ? get(uri).header(HttpHeaders.ACCEPT, accept) : get(uri));
+    }
+
+    private ResultActions putJson(String path, String ifMatch, String body) throws Exception {
+        return mockMvc.perform(put(path).header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+}
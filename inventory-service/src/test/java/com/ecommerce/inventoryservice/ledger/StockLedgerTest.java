@@ -0,0 +1,264 @@
+package com.ecommerce.inventoryservice.ledger;
+
+import com.ecommerce.inventoryservice.config.CacheConfig;
+import com.ecommerce.inventoryservice.dto.StockReservationDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
+import com.ecommerce.inventoryservice.events.ProductEventPublisher;
+import com.ecommerce.inventoryservice.mapper.ProductMapper;
+import com.ecommerce.inventoryservice.models.StockReservation;
+import com.ecommerce.inventoryservice.repository.LedgerCheckpointRepository;
+import com.ecommerce.inventoryservice.repository.ProductRepository;
+import com.ecommerce.inventoryservice.repository.StockReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recuperación del ledger de stock tras una caída: cada escenario detiene el ledger sin cerrarlo
+ * ({@link StockLedger#halt}) y abre otro sobre el mismo directorio. Usa los productos de data.sql.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerTest {
+
+    // Sin volcado periódico: cada test decide cuándo se aplica a la base de datos
+    private static final Duration NEVER = Duration.ofHours(1);
+    private static final String LAPTOP = "pro1";
+    private static final String MOUSE = "pro2";
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int laptops;
+    private int mice;
+
+    @BeforeEach
+    void readStock() {
+        laptops = quantity(LAPTOP);
+        mice = quantity(MOUSE);
+    }
+
+    @Test
+    void durableReservationsSurviveCrashWithTornRecord() throws IOException {
+        StockLedger ledger = open();
+        // Reservas concurrentes para que el escritor las agrupe; el portátil se agota a mitad
+        List<StockReservationResultDTO> results = IntStream.range(0, 24)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> ledger.reserve(i % 3 == 0 ? LAPTOP : MOUSE, 1)))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+        long reservedLaptops = reserved(results, LAPTOP);
+        long reservedMice = reserved(results, MOUSE);
+        assertThat(reservedLaptops).isEqualTo(laptops);
+        assertThat(reservedMice).isEqualTo(16);
+        // Nada volcado todavía
+        assertThat(quantity(MOUSE)).isEqualTo(mice);
+
+        // Muere con el siguiente registro a medio escribir
+        String walId = ledger.wal().id();
+        ledger.halt();
+        writeTornRecord(ledger.wal());
+
+        StockLedger recovered = open();
+        try {
+            assertThat(quantity(LAPTOP)).isZero();
+            assertThat(quantity(MOUSE)).isEqualTo(mice - reservedMice);
+            assertThat(checkpointRepository.findById(walId).orElseThrow().getAppliedLsn())
+                    .isEqualTo(reservedLaptops + reservedMice);
+
+            // El contador se recarga de la base de datos ya recuperada, sin descontar dos veces
+            assertThat(recovered.reserve(LAPTOP, 1).getStatus())
+                    .isEqualTo(StockReservationResultDTO.Status.INSUFFICIENT_STOCK);
+            assertThat(recovered.reserve(MOUSE, 1).getStatus())
+                    .isEqualTo(StockReservationResultDTO.Status.RESERVED);
+            recovered.flush();
+            assertThat(quantity(MOUSE)).isEqualTo(mice - reservedMice - 1);
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void flushedReservationsAreNotReappliedAfterRestart() {
+        StockLedger ledger = open();
+        ledger.reserve(MOUSE, 3);
+        ledger.flush();
+        assertThat(quantity(MOUSE)).isEqualTo(mice - 3);
+
+        // Solo la segunda reserva queda detrás del checkpoint
+        ledger.reserve(MOUSE, 2);
+        ledger.halt();
+
+        open().close();
+        assertThat(quantity(MOUSE)).isEqualTo(mice - 5);
+
+        // Una segunda recuperación no vuelve a descontar nada
+        open().close();
+        assertThat(quantity(MOUSE)).isEqualTo(mice - 5);
+    }
+
+    @Test
+    void linesThatMissTheWalAreReportedAsFailedAndGiveTheirUnitsBack() {
+        StockLedger ledger = open();
+        ledger.reserve(MOUSE, 2);
+        // El WAL deja de aceptar registros; la línea sin stock ni siquiera llega a él
+        ledger.wal().halt();
+
+        List<StockReservationResultDTO> results = ledger.reserve(List.of(line(MOUSE, 3), line(LAPTOP, laptops + 1)));
+
+        assertThat(results).extracting(StockReservationResultDTO::getStatus).containsExactly(
+                StockReservationResultDTO.Status.FAILED, StockReservationResultDTO.Status.INSUFFICIENT_STOCK);
+        assertThat(results.get(0).getAvailable()).isEqualTo(mice - 2);
+        // Solo se vuelca la reserva que sí quedó registrada
+        ledger.flush();
+        assertThat(quantity(MOUSE)).isEqualTo(mice - 2);
+        ledger.halt();
+    }
+
+    @Test
+    void stockLoweredBelowUnflushedReservationsIsExhaustedNotNegative() {
+        StockLedger ledger = open();
+        ledger.reserve(MOUSE, 3);
+        // Un PUT confirmado mientras la reserva estaba en vuelo deja menos stock del reservado
+        jdbcTemplate.update("UPDATE products SET quantity = 1 WHERE sku = ?", MOUSE);
+
+        ledger.flush();
+
+        assertThat(quantity(MOUSE)).isZero();
+        ledger.close();
+    }
+
+    @Test
+    void reservationIdsAreAppliedOnceAndReleasedOnce() {
+        StockLedger ledger = open();
+        assertThat(ledger.reserve(MOUSE, 3, "r-1").getStatus()).isEqualTo(StockReservationResultDTO.Status.RESERVED);
+        assertThat(ledger.reserve(MOUSE, 3, "r-1").getStatus()).isEqualTo(StockReservationResultDTO.Status.RESERVED);
+        // Liberada antes de que llegue su reserva
+        assertThat(ledger.release(List.of(line(MOUSE, 2, "r-2"))).get(0).getStatus())
+                .isEqualTo(StockReservationResultDTO.Status.RELEASED);
+        assertThat(ledger.reserve(MOUSE, 2, "r-2").getStatus()).isEqualTo(StockReservationResultDTO.Status.RELEASED);
+        ledger.flush();
+        assertThat(quantity(MOUSE)).isEqualTo(mice - 3);
+        ledger.halt();
+
+        // Tras reiniciar, la reserva volcada se libera desde su fila, una sola vez
+        StockLedger restarted = open();
+        try {
+            assertThat(restarted.reserve(MOUSE, 3, "r-1").getStatus())
+                    .isEqualTo(StockReservationResultDTO.Status.RESERVED);
+            restarted.release(List.of(line(MOUSE, 3, "r-1")));
+            restarted.release(List.of(line(MOUSE, 3, "r-1")));
+            restarted.flush();
+            assertThat(quantity(MOUSE)).isEqualTo(mice);
+            assertThat(reservationRepository.findAllById(List.of("r-1", "r-2")))
+                    .extracting(StockReservation::getStatus)
+                    .containsOnly(StockReservation.Status.RELEASED);
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void releaseSurvivesCrashBeforeFlush() {
+        StockLedger ledger = open();
+        ledger.reserve(MOUSE, 4, "r-1");
+        ledger.release(List.of(line(MOUSE, 4, "r-1")));
+        ledger.reserve(MOUSE, 1, "r-2");
+        ledger.halt();
+
+        open().close();
+        assertThat(quantity(MOUSE)).isEqualTo(mice - 1);
+        assertThat(reservationRepository.findById("r-1").orElseThrow().getStatus())
+                .isEqualTo(StockReservation.Status.RELEASED);
+        assertThat(reservationRepository.findById("r-2").orElseThrow().getStatus())
+                .isEqualTo(StockReservation.Status.RESERVED);
+    }
+
+    @AfterEach
+    void restoreStock() {
+        jdbcTemplate.update("UPDATE products SET quantity = ? WHERE sku = ?", laptops, LAPTOP);
+        jdbcTemplate.update("UPDATE products SET quantity = ? WHERE sku = ?", mice, MOUSE);
+        checkpointRepository.deleteAll();
+        reservationRepository.deleteAll();
+    }
+
+    private StockLedger open() {
+        // Segmentos pequeños para que los lotes crucen de un segmento al siguiente
+        StockLedgerWal wal = new StockLedgerWal(directory, 128, 8, 1024);
+        return new StockLedger(productRepository, checkpointRepository, reservationRepository,
+                Mappers.getMapper(ProductMapper.class), ProductEventPublisher.NONE,
+                new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE), transactionManager, wal, Set.of(),
+                Duration.ofMinutes(10), 4, NEVER, new SimpleMeterRegistry());
+    }
+
+    private static StockReservationDTO line(String sku, int quantity) {
+        return line(sku, quantity, null);
+    }
+
+    private static StockReservationDTO line(String sku, int quantity, String reservationId) {
+        StockReservationDTO line = new StockReservationDTO();
+        line.setSku(sku);
+        line.setQuantity(quantity);
+        line.setReservationId(reservationId);
+        return line;
+    }
+
+    private int quantity(String sku) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE sku = ?", Integer.class, sku);
+    }
+
+    private static long reserved(List<StockReservationResultDTO> results, String sku) {
+        return results.stream()
+                .filter(result -> result.getSku().equals(sku))
+                .filter(result -> result.getStatus() == StockReservationResultDTO.Status.RESERVED)
+                .count();
+    }
+
+    /**
+     * Cabecera de un registro sin el resto de sus bytes, justo después del último registro completo.
+     */
+    private static void writeTornRecord(StockLedgerWal wal) throws IOException {
+        try (FileChannel channel = FileChannel.open(wal.currentSegment(), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(16).putInt(40).putLong(Long.MAX_VALUE).putInt(7).flip());
+        }
+    }
+}
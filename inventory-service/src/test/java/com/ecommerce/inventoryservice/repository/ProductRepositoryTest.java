@@ -0,0 +1,101 @@
+package com.ecommerce.inventoryservice.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Descuento condicional de stock ({@link ProductRepository#decrementStock}) sobre los productos de data.sql.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRepositoryTest {
+
+    private static final String LAPTOP = "pro1";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int laptops;
+
+    @BeforeEach
+    void readStock() {
+        laptops = quantity();
+    }
+
+    @Test
+    void insufficientStockLeavesTheProductUntouched() {
+        assertThat(decrement(laptops + 1)).isZero();
+        assertThat(quantity()).isEqualTo(laptops);
+
+        assertThat(decrement(laptops)).isOne();
+        assertThat(quantity()).isZero();
+    }
+
+    @Test
+    void inactiveProductIsNotDecremented() {
+        jdbcTemplate.update("UPDATE products SET active = FALSE WHERE sku = ?", LAPTOP);
+
+        assertThat(decrement(1)).isZero();
+        assertThat(quantity()).isEqualTo(laptops);
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> decrements = IntStream.range(0, laptops * 4)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return decrement(1);
+                }))
+                .toList();
+        start.countDown();
+
+        int applied = decrements.stream().mapToInt(CompletableFuture::join).sum();
+        assertThat(applied).isEqualTo(laptops);
+        assertThat(quantity()).isZero();
+    }
+
+    @AfterEach
+    void restoreStock() {
+        jdbcTemplate.update("UPDATE products SET quantity = ?, active = TRUE WHERE sku = ?", laptops, LAPTOP);
+    }
+
+    private int decrement(int quantity) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> productRepository.decrementStock(LAPTOP, quantity));
+    }
+
+    private int quantity() {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE sku = ?", Integer.class, LAPTOP);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
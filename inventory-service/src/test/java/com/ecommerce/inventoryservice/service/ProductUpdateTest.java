@@ -0,0 +1,115 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.config.CacheConfig;
+import com.ecommerce.inventoryservice.dto.ProductDTO;
+import com.ecommerce.inventoryservice.events.ProductEventPublisher;
+import com.ecommerce.inventoryservice.exception.InventoryExceptions;
+import com.ecommerce.inventoryservice.mapper.ProductMapper;
+import com.ecommerce.inventoryservice.metrics.InventoryMetrics;
+import com.ecommerce.inventoryservice.repository.ProductRepository;
+import com.ecommerce.inventoryservice.repository.StockReservationRepository;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Actualizaciones de productos con control optimista: una escritura que confirma entre la lectura
+ * y el flush se detecta por la versión y se rechaza con 409. Usa los productos de data.sql.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductUpdateTest {
+
+    private static final String MOUSE = "pro2";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+    private TransactionTemplate transactionTemplate;
+    private ProductService productService;
+    private long version;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        productService = new ProductServiceImpl(productRepository, reservationRepository, productMapper,
+                new InventoryMetrics(new SimpleMeterRegistry()),
+                new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE), entityManager, new ObjectMapper(),
+                ProductEventPublisher.NONE, transactionTemplate, Optional.empty());
+        version = version();
+    }
+
+    @Test
+    void writeCommittedAfterTheReadIsAConflict() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // La lectura queda en el contexto de persistencia con la versión actual
+            ProductDTO dto = productMapper.productDTO(productRepository.findById(MOUSE).orElseThrow());
+            dto.setQuantity(dto.getQuantity() + 1);
+            // Otra escritura confirma antes del flush de esta transacción
+            CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "UPDATE products SET version = version + 1 WHERE sku = ?", MOUSE)).join();
+
+            assertThatThrownBy(() -> productService.updateProduct(MOUSE, dto, null))
+                    .isInstanceOf(InventoryExceptions.ProductUpdateConflictException.class)
+                    .extracting(e -> ((BusinessException) e).getHttpStatus())
+                    .isEqualTo(HttpStatus.CONFLICT);
+            status.setRollbackOnly();
+        });
+
+        assertThat(version()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void staleExpectedVersionIsAPreconditionFailure() {
+        ProductDTO dto = productMapper.productDTO(productRepository.findById(MOUSE).orElseThrow());
+
+        assertThatThrownBy(() -> transactionTemplate.execute(status ->
+                productService.updateProduct(MOUSE, dto, version + 1)))
+                .isInstanceOf(InventoryExceptions.ProductVersionMismatchException.class)
+                .extracting(e -> ((BusinessException) e).getHttpStatus())
+                .isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(version()).isEqualTo(version);
+    }
+
+    @AfterEach
+    void restoreVersion() {
+        jdbcTemplate.update("UPDATE products SET version = ? WHERE sku = ?", version, MOUSE);
+    }
+
+    private long version() {
+        return jdbcTemplate.queryForObject("SELECT version FROM products WHERE sku = ?", Long.class, MOUSE);
+    }
+}
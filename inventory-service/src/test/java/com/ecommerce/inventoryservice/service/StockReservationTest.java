@@ -0,0 +1,124 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.config.CacheConfig;
+import com.ecommerce.inventoryservice.dto.StockReservationDTO;
+import com.ecommerce.inventoryservice.dto.StockReservationResultDTO;
+import com.ecommerce.inventoryservice.events.ProductEventPublisher;
+import com.ecommerce.inventoryservice.mapper.ProductMapper;
+import com.ecommerce.inventoryservice.metrics.InventoryMetrics;
+import com.ecommerce.inventoryservice.models.StockReservation;
+import com.ecommerce.inventoryservice.repository.ProductRepository;
+import com.ecommerce.inventoryservice.repository.StockReservationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reservas con id y su liberación en la base de datos (sin ledger). Usa los productos de data.sql.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationTest {
+
+    private static final String MOUSE = "pro2";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProductService productService;
+    private int mice;
+
+    @BeforeEach
+    void setUp() {
+        productService = new ProductServiceImpl(productRepository, reservationRepository,
+                Mappers.getMapper(ProductMapper.class), new InventoryMetrics(new SimpleMeterRegistry()),
+                new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE), entityManager, new ObjectMapper(),
+                ProductEventPublisher.NONE, new TransactionTemplate(transactionManager), Optional.empty());
+        mice = quantity();
+    }
+
+    @Test
+    void repeatedReservationIsAppliedOnce() {
+        assertThat(productService.reserveStock(MOUSE, 3, "r-1").getStatus())
+                .isEqualTo(StockReservationResultDTO.Status.RESERVED);
+        assertThat(productService.reserveStock(MOUSE, 3, "r-1").getStatus())
+                .isEqualTo(StockReservationResultDTO.Status.RESERVED);
+        // También dentro de un lote, aunque el id se repita en él
+        assertThat(productService.reserveStock(List.of(line("r-2", 2), line("r-1", 3), line("r-2", 2))))
+                .extracting(StockReservationResultDTO::getStatus)
+                .containsOnly(StockReservationResultDTO.Status.RESERVED);
+
+        assertThat(quantity()).isEqualTo(mice - 5);
+    }
+
+    @Test
+    void releaseGivesTheUnitsBackOnce() {
+        productService.reserveStock(MOUSE, 3, "r-1");
+
+        assertThat(productService.releaseStock(List.of(line("r-1", 3))).get(0).getStatus())
+                .isEqualTo(StockReservationResultDTO.Status.RELEASED);
+        assertThat(productService.releaseStock(List.of(line("r-1", 3))).get(0).getStatus())
+                .isEqualTo(StockReservationResultDTO.Status.RELEASED);
+
+        assertThat(quantity()).isEqualTo(mice);
+        assertThat(reservationRepository.findById("r-1")).hasValueSatisfying(reservation ->
+                assertThat(reservation.getStatus()).isEqualTo(StockReservation.Status.RELEASED));
+    }
+
+    @Test
+    void reservationArrivingAfterItsReleaseIsNotApplied() {
+        // El cliente dio la reserva por perdida y la liberó antes de que llegara
+        productService.releaseStock(List.of(line("r-1", 3)));
+
+        assertThat(productService.reserveStock(MOUSE, 3, "r-1").getStatus())
+                .isEqualTo(StockReservationResultDTO.Status.RELEASED);
+        assertThat(quantity()).isEqualTo(mice);
+    }
+
+    @AfterEach
+    void restoreStock() {
+        jdbcTemplate.update("UPDATE products SET quantity = ? WHERE sku = ?", mice, MOUSE);
+        reservationRepository.deleteAll();
+    }
+
+    private static StockReservationDTO line(String reservationId, int quantity) {
+        StockReservationDTO line = new StockReservationDTO();
+        line.setSku(MOUSE);
+        line.setQuantity(quantity);
+        line.setReservationId(reservationId);
+        return line;
+    }
+
+    private int quantity() {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE sku = ?", Integer.class, MOUSE);
+    }
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.apigateway.ApiGatewayApplication;
+import com.ecommerce.inventoryservice.InventoryServiceApplication;
+import com.ecommerce.orderservice.OrderServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * inventory-service, order-service y api-gateway arrancados en este mismo proceso, cada uno en su
+ * contexto de Spring, con puerto aleatorio y con su propio application.yml. Eureka se sustituye
+ * por el discovery client simple de Spring Cloud con las URLs locales de cada servicio.
+ */
+@Slf4j
+public class InProcessStack implements AutoCloseable {
+
+    private static final String[] R2DBC_AUTOCONFIGURATION = {
+            "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration"
+    };
+
+    private static final String[] JDBC_AUTOCONFIGURATION = {
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration"
+    };
+
+    private final Map<String, ConfigurableApplicationContext> contexts = new LinkedHashMap<>();
+    private final List<String> commonArgs;
+    private URI gatewayUri;
+
+    private InProcessStack(List<String> commonArgs) {
+        this.commonArgs = commonArgs;
+    }
+
+    public static InProcessStack start(LoadTestConfig config) {
+        return start(config, List.of());
+    }
+
+    /**
+     * @param commonArgs argumentos añadidos a los tres servicios (p. ej. {@code --tracing.exporter=memory})
+     */
+    public static InProcessStack start(LoadTestConfig config, List<String> commonArgs) {
+        InProcessStack stack = new InProcessStack(commonArgs);
+        try {
+            int inventoryPort = stack.run("inventory-service", WebApplicationType.SERVLET,
+                    new Class<?>[]{InventoryServiceApplication.class, InventoryFaultInjection.class},
+                    "--spring.cloud.gateway.enabled=false",
+                    "--spring.autoconfigure.exclude=" + String.join(",", R2DBC_AUTOCONFIGURATION),
+                    "--loadtest.inventory.latency-ms=" + config.inventoryLatencyMs(),
+                    "--loadtest.inventory.latency-jitter-ms=" + config.inventoryLatencyJitterMs(),
+                    "--loadtest.inventory.error-rate=" + config.inventoryErrorRate(),
+                    "--loadtest.inventory.error-status=" + config.inventoryErrorStatus());
+
+            int orderPort = stack.run("order-service", WebApplicationType.SERVLET,
+                    new Class<?>[]{OrderServiceApplication.class},
+                    "--spring.cloud.gateway.enabled=false",
+                    // data.sql de inventory-service también está en el classpath
+                    "--spring.sql.init.mode=never",
+                    "--spring.cloud.discovery.client.simple.instances.inventory-service[0].uri=http://localhost:" + inventoryPort);
+
+            int gatewayPort = stack.run("api-gateway", WebApplicationType.REACTIVE,
+                    new Class<?>[]{ApiGatewayApplication.class, NettyServer.class},
+                    "--spring.autoconfigure.exclude=" + String.join(",",
+                            Stream.concat(Stream.of(R2DBC_AUTOCONFIGURATION), Stream.of(JDBC_AUTOCONFIGURATION)).toList()),
+                    "--spring.cloud.discovery.client.simple.instances[ORDER-SERVICE][0].uri=http://localhost:" + orderPort,
+                    "--spring.cloud.discovery.client.simple.instances[INVENTORY-SERVICE][0].uri=http://localhost:" + inventoryPort,
+                    // Toda la carga sale de un único cliente: el rate limiting por cliente la recortaría
+                    "--gateway.admission.enabled=false",
+                    "--logging.level.org.springframework.cloud.gateway=WARN",
+                    "--logging.level.org.springframework.cloud.loadbalancer=WARN",
+                    "--logging.level.org.springframework.web.reactive=WARN");
+
+            stack.gatewayUri = URI.create("http://localhost:" + gatewayPort);
+            log.info("Servicios arrancados. inventory-service: {}, order-service: {}, api-gateway: {}",
+                    inventoryPort, orderPort, gatewayPort);
+            return stack;
+        } catch (RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+    }
+
+    public URI gatewayUri() {
+        return gatewayUri;
+    }
+
+    /**
+     * Bean del contexto de un servicio ({@code inventory-service}, {@code order-service} o {@code api-gateway}).
+     */
+    public <T> T getBean(String module, Class<T> type) {
+        return contexts.get(module).getBean(type);
+    }
+
+    /**
+     * Activa la latencia y los errores configurados en inventory-service.
+     */
+    public void enableFaultInjection() {
+        getBean("inventory-service", InventoryFaultInjection.FaultInjectionFilter.class).setEnabled(true);
+    }
+
+    @Override
+    public void close() {
+        List<ConfigurableApplicationContext> reversed = new ArrayList<>(contexts.values());
+        Collections.reverse(reversed);
+        reversed.forEach(ConfigurableApplicationContext::close);
+        contexts.clear();
+    }
+
+    private int run(String module, WebApplicationType type, Class<?>[] sources, String... moduleArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.config.location=" + configLocation(module),
+                "--server.port=0",
+                "--eureka.client.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                // Avisos de arranque de Spring Cloud que se repiten por cada contexto
+                "--logging.level.org.springframework.context.support=ERROR",
+                "--logging.level.com.ecommerce.loadtest=INFO"));
+        args.addAll(List.of(moduleArgs));
+        args.addAll(commonArgs);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(sources)
+                .web(type)
+                .run(args.toArray(String[]::new));
+        contexts.put(module, context);
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Los tres módulos publican un application.yml en la raíz del classpath: se elige el del
+     * módulo por la ruta del directorio o del jar que lo contiene.
+     */
+    private static String configLocation(String module) {
+        try {
+            Enumeration<URL> resources = InProcessStack.class.getClassLoader().getResources("application.yml");
+            while (resources.hasMoreElements()) {
+                String url = resources.nextElement().toString();
+                if (url.contains("/" + module + "/") || url.contains("/" + module + "-")) {
+                    return url;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new IllegalStateException("No se encontró el application.yml de " + module + " en el classpath");
+    }
+
+    /**
+     * Spring Cloud Gateway necesita Netty; con Tomcat en el classpath Spring Boot elegiría Tomcat.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class NettyServer {
+
+        @Bean
+        NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+            return new NettyReactiveWebServerFactory();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Se añade al contexto de inventory-service: latencia y errores inyectados delante de la API
+ * de inventario. Empieza desactivado para que la siembra de datos no se vea afectada.
+ */
+@Configuration(proxyBeanMethods = false)
+public class InventoryFaultInjection {
+
+    @Bean
+    public FaultInjectionFilter faultInjectionFilter(@Value("${loadtest.inventory.latency-ms:0}") long latencyMs,
+                                                     @Value("${loadtest.inventory.latency-jitter-ms:0}") long jitterMs,
+                                                     @Value("${loadtest.inventory.error-rate:0}") double errorRate,
+                                                     @Value("${loadtest.inventory.error-status:500}") int errorStatus) {
+        return new FaultInjectionFilter(latencyMs, jitterMs, errorRate, errorStatus);
+    }
+
+    @Bean
+    public FilterRegistrationBean<FaultInjectionFilter> faultInjectionFilterRegistration(FaultInjectionFilter filter) {
+        FilterRegistrationBean<FaultInjectionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/inventory/*", "/api/inventory");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    public static class FaultInjectionFilter extends OncePerRequestFilter {
+
+        private final long latencyMs;
+        private final long jitterMs;
+        private final double errorRate;
+        private final int errorStatus;
+        private volatile boolean enabled;
+
+        FaultInjectionFilter(long latencyMs, long jitterMs, double errorRate, int errorStatus) {
+            this.latencyMs = latencyMs;
+            this.jitterMs = jitterMs;
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            if (!enabled) {
+                chain.doFilter(request, response);
+                return;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (errorRate > 0 && random.nextDouble() < errorRate) {
+                response.setStatus(errorStatus);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"success\":false,\"message\":\"Error inyectado por la prueba de carga\"}");
+                return;
+            }
+
+            chain.doFilter(request, response);
+        }
+    }
+}
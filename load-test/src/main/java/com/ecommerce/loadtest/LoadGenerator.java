@@ -0,0 +1,187 @@
+package com.ecommerce.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador en modelo abierto: las peticiones salen a ritmo fijo sin esperar a las anteriores y la
+ * latencia se mide desde el instante en que debía salir cada una, así una respuesta lenta no
+ * esconde las que se habrían encolado detrás (coordinated omission).
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEEDED_ORDERS = 50;
+
+    private final HttpClient client;
+    private final URI gateway;
+    private final LoadTestConfig config;
+    private final Route[] routes;
+    private final int[] cumulativeWeights;
+    private final AtomicLong lastOrderId = new AtomicLong();
+
+    public LoadGenerator(HttpClient client, URI gateway, LoadTestConfig config) {
+        this.client = client;
+        this.gateway = gateway;
+        this.config = config;
+        this.routes = config.mix().keySet().toArray(Route[]::new);
+        this.cumulativeWeights = new int[routes.length];
+        int total = 0;
+        for (int i = 0; i < routes.length; i++) {
+            total += config.mix().get(routes[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Crea los productos de la prueba con stock de sobra y algunas órdenes para las lecturas.
+     */
+    public void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < config.skus(); i++) {
+            String body = String.format("{\"sku\":\"%s\",\"name\":\"Producto de carga %d\",\"active\":true,"
+                    + "\"price\":10.0,\"category\":\"load\",\"quantity\":1000000000}", sku(i), i);
+            expectSuccess(client.send(post("/api/inventory", body), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (int i = 0; i < SEEDED_ORDERS; i++) {
+            expectSuccess(client.send(post("/api/v1/order", orderBody(i % config.skus())),
+                    HttpResponse.BodyHandlers.ofString()));
+            lastOrderId.incrementAndGet();
+        }
+        log.info("Datos sembrados. Productos: {}, órdenes: {}", config.skus(), SEEDED_ORDERS);
+    }
+
+    public Map<Route, RouteStats> run(Duration duration) throws InterruptedException {
+        Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+        for (Route route : routes) {
+            stats.put(route, new RouteStats());
+        }
+
+        AtomicInteger inFlight = new AtomicInteger();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Route route = pickRoute();
+            RouteStats routeStats = stats.get(route);
+            inFlight.incrementAndGet();
+            client.sendAsync(request(route), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        boolean success = failure == null && response.statusCode() / 100 == 2;
+                        routeStats.record(System.nanoTime() - intended, success);
+                        if (success && route == Route.ORDER_CREATE) {
+                            lastOrderId.incrementAndGet();
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        // Esperar a las respuestas pendientes; las que no lleguen cuentan como error por timeout
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private Route pickRoute() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return routes[i];
+            }
+        }
+        return routes[routes.length - 1];
+    }
+
+    private HttpRequest request(Route route) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (route) {
+            case ORDER_CREATE -> post("/api/v1/order", orderBody(random.nextInt(config.skus())));
+            case ORDER_GET -> get("/api/v1/order/" + (1 + random.nextLong(Math.max(1, lastOrderId.get()))));
+            case CATALOG_GET -> get("/api/inventory/" + sku(random.nextInt(config.skus())));
+            case CATALOG_PAGE -> get("/api/inventory?size=50");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String orderBody(int skuIndex) {
+        return "{\"sku\":\"" + sku(skuIndex) + "\",\"quantity\":1}";
+    }
+
+    private static String sku(int index) {
+        return "load-" + index;
+    }
+
+    private static void expectSuccess(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("La siembra de datos falló (" + response.statusCode() + " en "
+                    + response.uri() + "): " + response.body());
+        }
+    }
+
+    /**
+     * Latencias en microsegundos y errores de una ruta; se actualiza desde los hilos del HttpClient.
+     */
+    public static class RouteStats {
+
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, boolean success) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        public Histogram latencies() {
+            return latencies;
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de argumentos {@code --clave=valor}:
+ * <ul>
+ *     <li>{@code rate}: peticiones por segundo, en modelo abierto (100)</li>
+ *     <li>{@code duration} / {@code warmup}: duración de la medición y del calentamiento (30s / 10s)</li>
+ *     <li>{@code mix}: peso de cada ruta, p. ej. {@code order-create=30,order-get=20,catalog-get=40,catalog-page=10}</li>
+ *     <li>{@code skus}: productos sembrados en inventory-service (100)</li>
+ *     <li>{@code inventory-latency-ms} / {@code inventory-latency-jitter-ms}: latencia añadida a inventory-service (0 / 0)</li>
+ *     <li>{@code inventory-error-rate} / {@code inventory-error-status}: fracción de respuestas de error inyectadas (0.0 / 500)</li>
+ *     <li>{@code max-p99-ms} / {@code max-error-rate}: umbrales del gate; la prueba falla si se superan (sin límite)</li>
+ *     <li>{@code report}: fichero JSON con los resultados (load-test-report.json)</li>
+ * </ul>
+ */
+public record LoadTestConfig(int rate,
+                             Duration duration,
+                             Duration warmup,
+                             Map<Route, Integer> mix,
+                             int skus,
+                             long inventoryLatencyMs,
+                             long inventoryLatencyJitterMs,
+                             double inventoryErrorRate,
+                             int inventoryErrorStatus,
+                             double maxP99Ms,
+                             double maxErrorRate,
+                             Path report) {
+
+    private static final String DEFAULT_MIX = "order-create=30,order-get=20,catalog-get=40,catalog-page=10";
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento no válido (se espera --clave=valor): " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestConfig(
+                Integer.parseInt(options.getOrDefault("rate", "100")),
+                DurationStyle.detectAndParse(options.getOrDefault("duration", "30s")),
+                DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s")),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(options.getOrDefault("skus", "100")),
+                Long.parseLong(options.getOrDefault("inventory-latency-ms", "0")),
+                Long.parseLong(options.getOrDefault("inventory-latency-jitter-ms", "0")),
+                Double.parseDouble(options.getOrDefault("inventory-error-rate", "0")),
+                Integer.parseInt(options.getOrDefault("inventory-error-status", "500")),
+                Double.parseDouble(options.getOrDefault("max-p99-ms", "0")),
+                Double.parseDouble(options.getOrDefault("max-error-rate", "-1")),
+                Path.of(options.getOrDefault("report", "load-test-report.json")));
+    }
+
+    private static Map<Route, Integer> parseMix(String mix) {
+        Map<Route, Integer> weights = new EnumMap<>(Route.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Route.fromId(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("El mix no contiene ninguna ruta con peso positivo: " + mix);
+        }
+        return Collections.unmodifiableMap(weights);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de la medición: throughput y percentiles de latencia por ruta y en total.
+ */
+@Slf4j
+public record LoadTestReport(Instant timestamp, LoadTestConfig config, List<RouteReport> routes, RouteReport total) {
+
+    public record RouteReport(String route, long requests, long errors, double errorRate, double throughput,
+                              double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+
+        static RouteReport of(String route, Histogram latencies, long errors, Duration duration) {
+            long requests = latencies.getTotalCount();
+            return new RouteReport(route, requests, errors,
+                    requests > 0 ? (double) errors / requests : 0,
+                    requests / (duration.toNanos() / 1e9),
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    public static LoadTestReport of(LoadTestConfig config, Map<Route, LoadGenerator.RouteStats> stats) {
+        List<RouteReport> routes = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        for (Map.Entry<Route, LoadGenerator.RouteStats> entry : stats.entrySet()) {
+            Histogram latencies = entry.getValue().latencies();
+            routes.add(RouteReport.of(entry.getKey().id(), latencies, entry.getValue().errors(), config.duration()));
+            all.add(latencies);
+            errors += entry.getValue().errors();
+        }
+        return new LoadTestReport(Instant.now(), config, routes,
+                RouteReport.of("total", all, errors, config.duration()));
+    }
+
+    public void print() {
+        log.info(String.format("%-14s %9s %8s %9s %9s %9s %9s %9s",
+                "ruta", "peticiones", "errores", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (RouteReport route : routes) {
+            log.info(format(route));
+        }
+        log.info(format(total));
+    }
+
+    public void write(Path file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        log.info("Informe guardado en {}", file.toAbsolutePath());
+    }
+
+    /**
+     * Aplica los umbrales configurados al total; devuelve false si alguno se supera.
+     */
+    public boolean passes() {
+        boolean passed = true;
+        if (config.maxP99Ms() > 0 && total.p99Ms() > config.maxP99Ms()) {
+            log.error("p99 total {} ms supera el máximo de {} ms", total.p99Ms(), config.maxP99Ms());
+            passed = false;
+        }
+        if (config.maxErrorRate() >= 0 && total.errorRate() > config.maxErrorRate()) {
+            log.error("Tasa de error total {} supera el máximo de {}", total.errorRate(), config.maxErrorRate());
+            passed = false;
+        }
+        return passed;
+    }
+
+    private static String format(RouteReport route) {
+        return String.format("%-14s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f", route.route(), route.requests(),
+                route.errors(), route.throughput(), route.p50Ms(), route.p99Ms(), route.p999Ms(), route.maxMs());
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Prueba de carga de extremo a extremo sin red externa ni Eureka: arranca los tres servicios en
+ * este proceso, siembra datos, calienta, mide y aplica los umbrales. Sale con código 1 si falla el gate.
+ * Uso: {@code mvn -B verify -Pload-test -pl load-test -am -Dloadtest.args="--rate=200 --max-p99-ms=250"}.
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        boolean passed;
+        try (InProcessStack stack = InProcessStack.start(config)) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            LoadGenerator generator = new LoadGenerator(client, stack.gatewayUri(), config);
+            generator.seed();
+            stack.enableFaultInjection();
+
+            log.info("Calentamiento durante {} a {} req/s", config.warmup(), config.rate());
+            generator.run(config.warmup());
+
+            log.info("Midiendo durante {} a {} req/s. Mix: {}", config.duration(), config.rate(), config.mix());
+            LoadTestReport report = LoadTestReport.of(config, generator.run(config.duration()));
+            report.print();
+            report.write(config.report());
+            passed = report.passes();
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+}
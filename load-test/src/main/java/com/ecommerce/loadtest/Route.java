@@ -0,0 +1,35 @@
+package com.ecommerce.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Rutas que genera la prueba de carga, todas a través del api-gateway.
+ */
+public enum Route {
+    /** POST /api/v1/order: gateway → order-service → inventory-service (reserva) */
+    ORDER_CREATE("order-create"),
+    /** GET /api/v1/order/{id}: gateway → order-service */
+    ORDER_GET("order-get"),
+    /** GET /api/inventory/{sku}: gateway → inventory-service */
+    CATALOG_GET("catalog-get"),
+    /** GET /api/inventory?size=50: gateway → inventory-service (página por keyset) */
+    CATALOG_PAGE("catalog-page");
+
+    private final String id;
+
+    Route(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public static Route fromId(String id) {
+        return Arrays.stream(values())
+                .filter(route -> route.id.equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Ruta desconocida: " + id
+                        + " (válidas: " + Arrays.toString(Arrays.stream(values()).map(Route::id).toArray()) + ")"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.sharedlib.tracing.InMemorySpanCollector;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una orden que entra por el gateway deja una sola traza en los tres servicios: gateway →
+ * order-service → (Feign) inventory-service → repositorio. Los spans se recogen con
+ * {@code tracing.exporter=memory}; la petición lleva su propio {@code traceparent} para separar
+ * su traza de la de las tareas programadas de los servicios.
+ */
+class TracePropagationTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SKU = "trace-1";
+    private static final AttributeKey<String> REPOSITORY = AttributeKey.stringKey("repository");
+    // El BatchSpanProcessor exporta cada 5 s
+    private static final Duration EXPORT_TIMEOUT = Duration.ofSeconds(20);
+
+    private static InProcessStack stack;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startStack() throws Exception {
+        stack = InProcessStack.start(LoadTestConfig.parse(new String[0]), List.of(
+                "--tracing.exporter=memory",
+                "--management.tracing.sampling.probability=1.0"));
+        String product = "{\"sku\":\"" + SKU + "\",\"name\":\"Producto de traza\",\"active\":true,"
+                + "\"price\":10.0,\"category\":\"trace\",\"quantity\":100}";
+        assertThat(send(request("/api/inventory", product).build()).statusCode()).isEqualTo(200);
+    }
+
+    @AfterAll
+    static void stopStack() {
+        if (stack != null) {
+            stack.close();
+        }
+    }
+
+    @Test
+    void orderPlacedThroughTheGatewayIsASingleTraceDownToTheRepository() throws Exception {
+        HttpRequest order = request("/api/v1/order", "{\"sku\":\"" + SKU + "\",\"quantity\":1}")
+                .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01")
+                .build();
+        assertThat(send(order).statusCode()).isEqualTo(200);
+
+        List<SpanData> gateway = spans("api-gateway", kind(SpanKind.CLIENT));
+        List<SpanData> orders = spans("order-service", kind(SpanKind.SERVER).and(childOfAny(gateway)));
+        List<SpanData> feign = spans("order-service", kind(SpanKind.CLIENT));
+        List<SpanData> inventory = spans("inventory-service", kind(SpanKind.SERVER).and(childOfAny(feign)));
+        // Observaciones repository.call de RepositoryObservationInterceptor
+        List<SpanData> repository = spans("inventory-service", span -> span.getAttributes().get(REPOSITORY) != null);
+
+        // Cada salto cuelga del span cliente del anterior, todos con el traceId de la petición
+        assertThat(gateway).isNotEmpty();
+        assertThat(orders).isNotEmpty();
+        assertThat(feign).isNotEmpty();
+        assertThat(inventory).isNotEmpty();
+        assertThat(repository).isNotEmpty();
+    }
+
+    /**
+     * Espera a que el servicio exporte algún span de la traza que cumpla {@code condition}.
+     */
+    private static List<SpanData> spans(String module, Predicate<SpanData> condition) throws InterruptedException {
+        InMemorySpanCollector collector = collector(module);
+        long deadline = System.nanoTime() + EXPORT_TIMEOUT.toNanos();
+        List<SpanData> matching;
+        do {
+            matching = collector.getFinishedSpans(TRACE_ID).stream().filter(condition).toList();
+            if (!matching.isEmpty()) {
+                return matching;
+            }
+            Thread.sleep(100);
+        } while (System.nanoTime() < deadline);
+        return matching;
+    }
+
+    private static InMemorySpanCollector collector(String module) {
+        return stack.getBean(module, InMemorySpanCollector.class);
+    }
+
+    private static Predicate<SpanData> kind(SpanKind kind) {
+        return span -> span.getKind() == kind;
+    }
+
+    private static Predicate<SpanData> childOfAny(List<SpanData> parents) {
+        return span -> parents.stream().anyMatch(parent -> parent.getSpanId().equals(span.getParentSpanId()));
+    }
+
+    private static HttpRequest.Builder request(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(stack.gatewayUri() + path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
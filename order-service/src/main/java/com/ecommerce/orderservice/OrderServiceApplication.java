@@ -1,13 +1,18 @@
 package com.ecommerce.orderservice;
 
+import com.ecommerce.sharedlib.tracing.TracingConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
+@Import(TracingConfiguration.class)
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,116 @@
+package com.ecommerce.orderservice.cache;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Near-cache de metadatos de producto (activo, nombre, precio, categoría), alimentada
+ * con las respuestas de inventory-service. Nunca guarda el stock: la cantidad siempre
+ * se valida en inventory-service al reservar. Las entradas se reemplazan cuando
+ * inventory-service informa una versión más reciente del producto. Solo se consulta a través de
+ * {@link ProductStockView}, mientras la vista alimentada por eventos no está al día.
+ * <p>
+ * Un producto inactivo se rechaza sin llamar a inventory-service, así que nadie refresca su entrada:
+ * caduca a los {@code inventory.product-cache.inactive-ttl} para que una reactivación se vea pronto.
+ */
+@Component
+public class ProductMetadataCache {
+
+    private final Cache<String, ProductDTO> cache;
+
+    public ProductMetadataCache(MeterRegistry meterRegistry,
+                                @Value("${inventory.product-cache.max-size:10000}") long maxSize,
+                                @Value("${inventory.product-cache.ttl:30s}") Duration ttl,
+                                @Value("${inventory.product-cache.inactive-ttl:2s}") Duration inactiveTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(expireAfterWrite(ttl.toNanos(), inactiveTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productMetadata");
+    }
+
+    public Optional<ProductDTO> getIfPresent(String sku) {
+        return Optional.ofNullable(cache.getIfPresent(sku));
+    }
+
+    /**
+     * true solo si la caché sabe que el producto está inactivo; sin entrada no se presupone nada.
+     */
+    public boolean isKnownInactive(String sku) {
+        return getIfPresent(sku)
+                .map(product -> !product.isActive())
+                .orElse(false);
+    }
+
+    /**
+     * Actualiza la caché con el estado del producto devuelto por una reserva de stock.
+     */
+    public void update(StockReservationResultDTO reservation) {
+        if (reservation == null || reservation.getSku() == null) {
+            return;
+        }
+        if (reservation.getStatus() == StockReservationResultDTO.Status.NOT_FOUND) {
+            cache.invalidate(reservation.getSku());
+        } else if (reservation.getProduct() != null) {
+            put(reservation.getProduct());
+        }
+    }
+
+    public void put(ProductDTO product) {
+        ProductDTO metadata = withoutStock(product);
+        cache.asMap().merge(metadata.getSku(), metadata, ProductMetadataCache::newest);
+    }
+
+    public void invalidate(String sku) {
+        cache.invalidate(sku);
+    }
+
+    private static Expiry<String, ProductDTO> expireAfterWrite(long activeNanos, long inactiveNanos) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String sku, ProductDTO product, long currentTime) {
+                return product.isActive() ? activeNanos : inactiveNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(String sku, ProductDTO product, long currentTime, long currentDuration) {
+                return expireAfterCreate(sku, product, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String sku, ProductDTO product, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static ProductDTO newest(ProductDTO current, ProductDTO incoming) {
+        if (current.getVersion() == null || incoming.getVersion() == null) {
+            return incoming;
+        }
+        return incoming.getVersion() >= current.getVersion() ? incoming : current;
+    }
+
+    private static ProductDTO withoutStock(ProductDTO product) {
+        ProductDTO metadata = new ProductDTO();
+        metadata.setSku(product.getSku());
+        metadata.setName(product.getName());
+        metadata.setDescription(product.getDescription());
+        metadata.setActive(product.isActive());
+        metadata.setPrice(product.getPrice());
+        metadata.setCategory(product.getCategory());
+        metadata.setVersion(product.getVersion());
+        return metadata;
+    }
+}
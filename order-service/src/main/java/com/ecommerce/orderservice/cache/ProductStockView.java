@@ -0,0 +1,141 @@
+package com.ecommerce.orderservice.cache;
+
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.ProductEventDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Vista local de activo/stock por producto, materializada a partir de los eventos de
+ * inventory-service ({@link com.ecommerce.orderservice.service.ProductEventConsumer}).
+ * El stock es aproximado: solo sirve para rechazar sin llamada remota los pedidos que seguro
+ * fallarían. La reserva en inventory-service sigue siendo la que decide.
+ * <p>
+ * Es la única consulta local antes de reservar: mientras el consumidor está al día
+ * ({@code inventory.events.max-staleness}) decide la vista; si no, solo se rechazan los productos
+ * que {@link ProductMetadataCache} sabe inactivos por las últimas reservas.
+ */
+@Component
+public class ProductStockView {
+
+    private final Cache<String, ProductStock> products;
+    private final ProductMetadataCache productMetadataCache;
+    private final long maxStalenessNanos;
+    private volatile long syncedAt;
+    private volatile boolean synced;
+
+    public ProductStockView(MeterRegistry meterRegistry,
+                            ProductMetadataCache productMetadataCache,
+                            @Value("${inventory.events.view.max-size:100000}") long maxSize,
+                            @Value("${inventory.events.max-staleness:5s}") Duration maxStaleness) {
+        this.productMetadataCache = productMetadataCache;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        Gauge.builder("inventory.events.view.size", products, Cache::estimatedSize)
+                .description("Productos en la vista local de stock alimentada por eventos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rechazo que se puede decidir localmente: producto inactivo o con menos stock del pedido.
+     * Vacío si no hay información local del producto.
+     */
+    public Optional<BusinessException> rejection(String sku, int quantity) {
+        if (!isFresh()) {
+            return productMetadataCache.isKnownInactive(sku)
+                    ? Optional.of(new OrderExceptions.ProductNotAvailableException(sku))
+                    : Optional.empty();
+        }
+        ProductStock product = products.getIfPresent(sku);
+        if (product == null) {
+            return Optional.empty();
+        }
+        if (!product.active()) {
+            return Optional.of(new OrderExceptions.ProductNotAvailableException(sku));
+        }
+        if (product.quantity() < quantity) {
+            return Optional.of(new OrderExceptions.InsufficientStockException(product.quantity(), quantity));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * true solo si la información local dice que el producto está inactivo.
+     */
+    public boolean isKnownInactive(String sku) {
+        if (!isFresh()) {
+            return productMetadataCache.isKnownInactive(sku);
+        }
+        ProductStock product = products.getIfPresent(sku);
+        return product != null && !product.active();
+    }
+
+    /**
+     * Registra el estado devuelto por una reserva; es lo que se consulta mientras la vista no está al día.
+     */
+    public void update(StockReservationResultDTO reservation) {
+        productMetadataCache.update(reservation);
+    }
+
+    public void apply(ProductEventDTO event) {
+        if (event.getType() == ProductEventDTO.Type.DELETED) {
+            products.invalidate(event.getSku());
+        } else if (event.getActive() != null && event.getQuantity() != null) {
+            put(event.getSku(), new ProductStock(event.getActive(), event.getQuantity(), versionOf(event.getVersion())));
+        }
+    }
+
+    /**
+     * Carga un producto del catálogo al reconstruir la vista.
+     */
+    public void apply(ProductDTO product) {
+        if (product.getQuantity() != null) {
+            put(product.getSku(), new ProductStock(product.isActive(), product.getQuantity(), versionOf(product.getVersion())));
+        }
+    }
+
+    /**
+     * El consumidor leyó el feed hasta el final: la vista vuelve a estar al día.
+     */
+    public void markSynced() {
+        syncedAt = System.nanoTime();
+        synced = true;
+    }
+
+    /**
+     * Vacía la vista; no se usa hasta el siguiente {@link #markSynced()}.
+     */
+    public void reset() {
+        synced = false;
+        products.invalidateAll();
+    }
+
+    public boolean isFresh() {
+        return synced && System.nanoTime() - syncedAt <= maxStalenessNanos;
+    }
+
+    // Los eventos pueden llegar desordenados entre escritores concurrentes: gana la versión mayor
+    private void put(String sku, ProductStock incoming) {
+        products.asMap().merge(sku, incoming,
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    private record ProductStock(boolean active, int quantity, long version) {
+    }
+}
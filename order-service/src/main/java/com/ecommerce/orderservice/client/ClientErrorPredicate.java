@@ -0,0 +1,19 @@
+package com.ecommerce.orderservice.client;
+
+import feign.FeignException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Respuestas 4xx de inventory-service, tanto de Feign como de WebClient. Son errores de la
+ * petición, no del servicio, así que el circuit breaker no las cuenta como fallos.
+ */
+public class ClientErrorPredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        return throwable instanceof FeignException.FeignClientException
+                || throwable instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+}
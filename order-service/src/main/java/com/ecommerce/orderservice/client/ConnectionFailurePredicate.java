@@ -0,0 +1,29 @@
+package com.ecommerce.orderservice.client;
+
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.function.Predicate;
+
+/**
+ * Fallos en los que la petición seguro que no llegó a inventory-service: no se pudo abrir la
+ * conexión ni obtener una del pool. Solo estos fallos se reintentan; un timeout de lectura o un
+ * 5xx pueden llegar después de que inventory-service aplicara la reserva.
+ */
+public class ConnectionFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                    || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException
+                    || cause instanceof ConnectionRequestTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,17 +1,65 @@
 package com.ecommerce.orderservice.client;
 
 import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.ProductEventPageDTO;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.sharedlib.dto.KeysetPage;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "inventory-service", path = "/api/inventory")
 public interface InventoryClient {
+    /**
+     * Producto con su ETag, que identifica la versión leída.
+     */
     @GetMapping("/{sku}")
-    ProductDTO getProductBySku(@PathVariable("sku") String sku);
+    ResponseEntity<ProductDTO> getProductBySku(@PathVariable("sku") String sku);
 
+    /**
+     * Actualización condicional: inventory-service responde 412 si el producto ya no está en la
+     * versión de {@code ifMatch} y 409 si otra escritura confirma a la vez.
+     */
     @PutMapping("/{sku}")
-    ProductDTO updateProduct(@PathVariable("sku") String sku, @RequestBody ProductDTO product);
+    ProductDTO updateProduct(@PathVariable("sku") String sku,
+                             @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
+                             @RequestBody ProductDTO product);
+
+    /**
+     * Página del catálogo por keyset sobre el SKU.
+     */
+    @GetMapping
+    KeysetPage<ProductDTO> getProductsPage(@RequestParam(value = "after", required = false) String after,
+                                           @RequestParam("size") int size);
+
+    /**
+     * Eventos de producto con secuencia mayor que {@code after} dentro del stream {@code streamId}.
+     */
+    @GetMapping("/events")
+    ProductEventPageDTO getProductEvents(@RequestParam(value = "stream", required = false) String streamId,
+                                         @RequestParam("after") long after,
+                                         @RequestParam("limit") int limit);
+
+    @PostMapping("/{sku}/reserve")
+    StockReservationResultDTO reserveStock(@PathVariable("sku") String sku, @RequestBody StockReservationDTO reservation);
+
+    @PostMapping("/reservations")
+    List<StockReservationResultDTO> reserveStock(@RequestBody List<StockReservationDTO> reservations);
+
+    /**
+     * Libera reservas por su id. Es idempotente y, si la reserva aún no había llegado, impide
+     * que se aplique después.
+     */
+    @PostMapping("/reservations/release")
+    List<StockReservationResultDTO> releaseStock(@RequestBody List<StockReservationDTO> releases);
 }
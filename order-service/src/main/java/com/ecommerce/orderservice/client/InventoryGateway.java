@@ -0,0 +1,103 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Llamadas bloqueantes a inventory-service protegidas con Resilience4j: bulkhead de hilos acotado,
+ * límite de tiempo, circuit breaker y reintentos solo ante fallos de conexión.
+ * Cuando la llamada no se permite o no termina a tiempo se falla rápido ({@link InventoryResilience#fallback}).
+ */
+@Component
+@Profile("!reactive")
+public class InventoryGateway {
+
+    private final InventoryClient inventoryClient;
+    private final InventoryResilience resilience;
+    private final ThreadPoolBulkhead bulkhead;
+    private final ScheduledExecutorService scheduler;
+    private final ContextSnapshotFactory contextSnapshots = ContextSnapshotFactory.builder().build();
+
+    public InventoryGateway(InventoryClient inventoryClient,
+                            InventoryResilience resilience,
+                            ThreadPoolBulkheadRegistry bulkheadRegistry) {
+        this.inventoryClient = inventoryClient;
+        this.resilience = resilience;
+        this.bulkhead = bulkheadRegistry.bulkhead(InventoryResilience.INSTANCE);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-gateway-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public StockReservationResultDTO reserveStock(String sku, int quantity, String reservationId) {
+        return execute(() -> inventoryClient.reserveStock(sku, new StockReservationDTO(sku, quantity, reservationId)),
+                sku);
+    }
+
+    public List<StockReservationResultDTO> reserveStock(List<StockReservationDTO> reservations) {
+        return execute(() -> inventoryClient.reserveStock(reservations), null);
+    }
+
+    public List<StockReservationResultDTO> releaseStock(List<StockReservationDTO> releases) {
+        return execute(() -> inventoryClient.releaseStock(releases), null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Orden de los decoradores (de fuera hacia dentro): retry, circuit breaker, time limiter, bulkhead.
+     * Cada reintento pasa de nuevo por el circuit breaker y ocupa un hueco del bulkhead.
+     */
+    private <T> T execute(Supplier<T> call, String sku) {
+        Supplier<CompletionStage<T>> bulkheaded = ThreadPoolBulkhead.decorateSupplier(bulkhead, withCallerContext(call));
+        Supplier<CompletionStage<T>> timeLimited = TimeLimiter.decorateCompletionStage(
+                resilience.getTimeLimiter(), scheduler, bulkheaded);
+        Supplier<CompletionStage<T>> guarded = CircuitBreaker.decorateCompletionStage(
+                resilience.getCircuitBreaker(), timeLimited);
+        Supplier<CompletionStage<T>> retried = Retry.decorateCompletionStage(
+                resilience.getRetry(), scheduler, guarded);
+
+        try {
+            return retried.get().toCompletableFuture().join();
+        } catch (CompletionException e) {
+            throw resilience.fallback(e.getCause() != null ? e.getCause() : e, sku);
+        } catch (RuntimeException e) {
+            throw resilience.fallback(e, sku);
+        }
+    }
+
+    /**
+     * La llamada Feign corre en un hilo del bulkhead: se restaura allí el contexto del hilo que
+     * la origina (observación activa, MDC) para que el span del cliente cuelgue de la traza.
+     */
+    private <T> Supplier<T> withCallerContext(Supplier<T> call) {
+        ContextSnapshot snapshot = contextSnapshots.captureAll();
+        return () -> {
+            try (ContextSnapshot.Scope ignored = snapshot.setThreadLocals()) {
+                return call.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.cache.ProductStockView;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Instancias Resilience4j de inventory-service compartidas por el cliente bloqueante
+ * ({@link InventoryGateway}) y el reactivo ({@link ReactiveInventoryClient}), junto con el
+ * fallback común: fallar rápido usando la near-cache de productos para distinguir los
+ * productos que ya se sabe que están inactivos.
+ */
+@Slf4j
+@Component
+public class InventoryResilience {
+
+    public static final String INSTANCE = "inventory-service";
+
+    private static final ConnectionFailurePredicate CONNECTION_FAILURE = new ConnectionFailurePredicate();
+    private static final ClientErrorPredicate CLIENT_ERROR = new ClientErrorPredicate();
+
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+    @Getter
+    private final TimeLimiter timeLimiter;
+    @Getter
+    private final Retry retry;
+
+    private final ProductStockView productStockView;
+    private final Counter rejectedCircuitOpen;
+    private final Counter rejectedBulkheadFull;
+    private final Counter rejectedTimeout;
+
+    public InventoryResilience(CircuitBreakerRegistry circuitBreakerRegistry,
+                               TimeLimiterRegistry timeLimiterRegistry,
+                               RetryRegistry retryRegistry,
+                               ProductStockView productStockView,
+                               MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.timeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE);
+        this.retry = retryRegistry.retry(INSTANCE);
+        this.productStockView = productStockView;
+
+        this.rejectedCircuitOpen = rejectedCounter(meterRegistry, "circuit_open");
+        this.rejectedBulkheadFull = rejectedCounter(meterRegistry, "bulkhead_full");
+        this.rejectedTimeout = rejectedCounter(meterRegistry, "timeout");
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker {}: {}", event.getCircuitBreakerName(), event.getStateTransition());
+            Counter.builder("inventory.circuitbreaker.transitions")
+                    .description("Cambios de estado del circuit breaker de inventory-service")
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+
+    /**
+     * Traduce un fallo de la llamada: los rechazos de Resilience4j (circuito abierto, bulkhead
+     * lleno, timeout) se convierten en una excepción de negocio con el fallo como causa; el resto
+     * se propaga tal cual.
+     */
+    public RuntimeException fallback(Throwable failure, String sku) {
+        Counter rejected = rejectedCounterFor(failure);
+        if (rejected == null) {
+            // Errores de la propia llamada (4xx, 5xx, conexión agotados los reintentos)
+            return failure instanceof RuntimeException runtime ? runtime : new IllegalStateException(failure);
+        }
+
+        rejected.increment();
+        log.warn("Llamada a inventory-service rechazada ({}): {}", failure.getClass().getSimpleName(),
+                failure.getMessage());
+
+        if (sku != null && productStockView.isKnownInactive(sku)) {
+            return new OrderExceptions.ProductNotAvailableException(sku, failure);
+        }
+        return new OrderExceptions.InventoryUnavailableException(failure);
+    }
+
+    /**
+     * Si una llamada que falló pudo aplicarse igualmente en inventory-service: timeouts, 5xx y
+     * errores de lectura. Los rechazos del circuit breaker y del bulkhead, los fallos de conexión
+     * y los 4xx seguro que no se aplicaron.
+     */
+    public static boolean mayHaveApplied(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                    || CLIENT_ERROR.test(cause)) {
+                return false;
+            }
+        }
+        return !CONNECTION_FAILURE.test(failure);
+    }
+
+    private Counter rejectedCounterFor(Throwable failure) {
+        if (failure instanceof CallNotPermittedException) {
+            return rejectedCircuitOpen;
+        }
+        if (failure instanceof BulkheadFullException) {
+            return rejectedBulkheadFull;
+        }
+        if (failure instanceof TimeoutException) {
+            return rejectedTimeout;
+        }
+        return null;
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("inventory.calls.rejected")
+                .description("Llamadas a inventory-service que fallaron rápido sin respuesta del servicio")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.orderservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pool de conexiones HTTP de los clientes Feign que mide el tiempo de espera para obtener
+ * una conexión y lo limita a {@code leaseTimeout}, aunque la petición traiga uno mayor.
+ */
+public class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timeout maxLeaseTimeout;
+    private final Timer leaseSuccess;
+    private final Timer leaseTimeout;
+    private final Timer leaseError;
+
+    public MeteredConnectionManager(String poolName, TimeValue timeToLive, Timeout maxLeaseTimeout,
+                                    MeterRegistry meterRegistry) {
+        // LIFO: se reutilizan las conexiones recientes y las demás caducan por inactividad
+        super(RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register(URIScheme.HTTP.id, PlainConnectionSocketFactory.getSocketFactory())
+                        .register(URIScheme.HTTPS.id, SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, timeToLive);
+        this.maxLeaseTimeout = maxLeaseTimeout;
+        this.leaseSuccess = leaseTimer(poolName, "success", meterRegistry);
+        this.leaseTimeout = leaseTimer(poolName, "timeout", meterRegistry);
+        this.leaseError = leaseTimer(poolName, "error", meterRegistry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        Timeout timeout = cap(requestTimeout);
+        LeaseRequest delegate = super.lease(id, route, timeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout getTimeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                Timer timer = leaseError;
+                try {
+                    ConnectionEndpoint endpoint = delegate.get(cap(getTimeout));
+                    timer = leaseSuccess;
+                    return endpoint;
+                } catch (TimeoutException e) {
+                    timer = leaseTimeout;
+                    throw e;
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+
+    private Timeout cap(Timeout timeout) {
+        // Timeout 0 o nulo significa esperar indefinidamente
+        if (!TimeValue.isPositive(timeout) || timeout.compareTo(maxLeaseTimeout) > 0) {
+            return maxLeaseTimeout;
+        }
+        return timeout;
+    }
+
+    private static Timer leaseTimer(String poolName, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("http.client.pool.lease")
+                .description("Tiempo de espera para obtener una conexión del pool")
+                .tag("pool", poolName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cliente no bloqueante de inventory-service para el perfil {@code reactive}. Mismas operaciones
+ * de reserva que {@link InventoryClient} y mismas políticas que {@link InventoryGateway}, pero el
+ * bulkhead es de semáforo: no hace falta un pool de hilos para no bloquear al llamante.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveInventoryClient {
+
+    private final WebClient webClient;
+    private final InventoryResilience resilience;
+    private final Bulkhead bulkhead;
+
+    public ReactiveInventoryClient(WebClient.Builder loadBalancedWebClientBuilder,
+                                   InventoryResilience resilience,
+                                   BulkheadRegistry bulkheadRegistry,
+                                   @Value("${inventory.http-client.max-connections-per-route:50}") int maxConnections,
+                                   @Value("${inventory.http-client.lease-timeout:1s}") Duration leaseTimeout,
+                                   @Value("${inventory.http-client.idle-eviction:30s}") Duration idleEviction,
+                                   @Value("${inventory.http-client.time-to-live:5m}") Duration timeToLive,
+                                   @Value("${spring.cloud.openfeign.client.config.default.connect-timeout:1000}") int connectTimeoutMs) {
+        // Mismos límites que el pool de Apache HttpClient del cliente Feign
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(InventoryResilience.INSTANCE)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(leaseTimeout)
+                .maxIdleTime(idleEviction)
+                .maxLifeTime(timeToLive)
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
+
+        this.webClient = loadBalancedWebClientBuilder
+                .baseUrl("http://inventory-service/api/inventory")
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.resilience = resilience;
+        this.bulkhead = bulkheadRegistry.bulkhead(InventoryResilience.INSTANCE);
+    }
+
+    public Mono<StockReservationResultDTO> reserveStock(String sku, int quantity, String reservationId) {
+        Mono<StockReservationResultDTO> call = webClient.post()
+                .uri("/{sku}/reserve", sku)
+                .bodyValue(new StockReservationDTO(sku, quantity, reservationId))
+                .retrieve()
+                .bodyToMono(StockReservationResultDTO.class);
+        return decorate(call, sku);
+    }
+
+    public Mono<List<StockReservationResultDTO>> reserveStock(List<StockReservationDTO> reservations) {
+        Mono<List<StockReservationResultDTO>> call = webClient.post()
+                .uri("/reservations")
+                .bodyValue(reservations)
+                .retrieve()
+                .bodyToFlux(StockReservationResultDTO.class)
+                .collectList();
+        return decorate(call, null);
+    }
+
+    public Mono<List<StockReservationResultDTO>> releaseStock(List<StockReservationDTO> releases) {
+        Mono<List<StockReservationResultDTO>> call = webClient.post()
+                .uri("/reservations/release")
+                .bodyValue(releases)
+                .retrieve()
+                .bodyToFlux(StockReservationResultDTO.class)
+                .collectList();
+        return decorate(call, null);
+    }
+
+    /**
+     * Mismo orden que {@link InventoryGateway}: el retry envuelve al circuit breaker, que
+     * envuelve al time limiter, que envuelve al bulkhead y a la llamada.
+     */
+    private <T> Mono<T> decorate(Mono<T> call, String sku) {
+        return call
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(TimeLimiterOperator.of(resilience.getTimeLimiter()))
+                .transformDeferred(CircuitBreakerOperator.of(resilience.getCircuitBreaker()))
+                .transformDeferred(RetryOperator.of(resilience.getRetry()))
+                .onErrorMap(failure -> resilience.fallback(failure, sku));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.orderservice.client.MeteredConnectionManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Transporte HTTP de {@link com.ecommerce.orderservice.client.InventoryClient}: Apache HttpClient 5
+ * con pool de conexiones keep-alive en lugar de una conexión nueva por llamada.
+ * Spring Cloud OpenFeign construye el cliente sobre este pool; los timeouts de conexión y lectura
+ * siguen en {@code spring.cloud.openfeign.client.config}.
+ */
+@Configuration
+public class InventoryHttpClientConfig {
+
+    private static final String POOL_NAME = "inventory-service";
+
+    @Bean
+    public HttpClientConnectionManager inventoryConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${inventory.http-client.max-connections:200}") int maxConnections,
+            @Value("${inventory.http-client.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${inventory.http-client.lease-timeout:1s}") Duration leaseTimeout,
+            @Value("${inventory.http-client.time-to-live:5m}") Duration timeToLive,
+            @Value("${inventory.http-client.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        MeteredConnectionManager connectionManager = new MeteredConnectionManager(POOL_NAME,
+                TimeValue.ofMilliseconds(timeToLive.toMillis()),
+                Timeout.ofMilliseconds(leaseTimeout.toMillis()),
+                meterRegistry);
+        connectionManager.setMaxTotal(maxConnections);
+        // Cada instancia de inventory-service resuelta por el load balancer es una ruta
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()))
+                .build());
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * Cierra en segundo plano las conexiones que llevan demasiado tiempo sin usarse,
+     * antes de que el servidor las corte por su lado.
+     */
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer idleConnectionEviction(
+            @Value("${inventory.http-client.idle-eviction:30s}") Duration idleEviction) {
+        return builder -> builder.evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()));
+    }
+}
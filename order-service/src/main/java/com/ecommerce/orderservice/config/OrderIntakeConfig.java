@@ -0,0 +1,50 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.orderservice.intake.OrderIntakeJournal;
+import com.ecommerce.orderservice.intake.OrderIntakeLog;
+import com.ecommerce.orderservice.repository.OrderIntakeCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Log de entrada de órdenes, activado con {@code orders.intake.journal.enabled}. Sin él cada orden
+ * se inserta con JPA en su propia transacción.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "orders.intake.journal.enabled", havingValue = "true")
+public class OrderIntakeConfig {
+
+    @Bean(destroyMethod = "close")
+    public OrderIntakeLog orderIntakeLog(
+            @Value("${orders.intake.journal.dir:data/order-intake}") Path directory,
+            @Value("${orders.intake.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${orders.intake.journal.max-batch:512}") int maxBatch,
+            @Value("${orders.intake.journal.queue-capacity:65536}") int queueCapacity) {
+        return new OrderIntakeLog(directory, Math.toIntExact(segmentSize.toBytes()), maxBatch, queueCapacity);
+    }
+
+    @Bean(destroyMethod = "close")
+    public OrderIntakeJournal orderIntakeJournal(OrderIntakeLog orderIntakeLog,
+                                                 OrderIntakeCheckpointRepository checkpointRepository,
+                                                 JdbcTemplate jdbcTemplate,
+                                                 PlatformTransactionManager transactionManager,
+                                                 EntityManagerFactory entityManagerFactory,
+                                                 MeterRegistry meterRegistry,
+                                                 @Value("${orders.intake.journal.apply-batch-size:1000}") int applyBatchSize,
+                                                 @Value("${orders.intake.journal.apply-interval:50ms}") Duration applyInterval) {
+        return new OrderIntakeJournal(orderIntakeLog, checkpointRepository, jdbcTemplate, transactionManager,
+                entityManagerFactory, applyBatchSize, applyInterval, meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.orderservice.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Infraestructura del perfil {@code reactive}: servidor Netty y WebClient con load balancer.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Tomcat sigue en el classpath por el modo servlet y Spring Boot lo preferiría; se fija Netty
+     * para que todo el camino de la petición sea de event loop.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Resuelve {@code http://inventory-service} con Spring Cloud LoadBalancer, igual que Feign.
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(ObjectProvider<WebClientCustomizer> customizers) {
+        WebClient.Builder builder = WebClient.builder();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.sharedlib.security.ReactiveGatewayAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Equivalente WebFlux de {@link SecurityConfig} para el perfil {@code reactive}.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@Profile("reactive")
+public class ReactiveSecurityConfig {
+
+    @Value("${security.gateway.shared-secret:}")
+    private String gatewaySharedSecret;
+
+    @Bean
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+        return http
+                // DESHABILITAR CSRF para APIs REST
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+
+                // Configurar CORS
+                .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource()))
+
+                // STATELESS: sin sesión ni formularios de login
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+
+                // Identidad ya verificada por el api-gateway: no se vuelve a validar el JWT
+                .addFilterAt(new ReactiveGatewayAuthenticationFilter(gatewaySharedSecret),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+
+                // Configurar autorización
+                .authorizeExchange(exchanges -> exchanges
+                        // Rutas públicas
+                        .pathMatchers("/actuator/**").permitAll()
+                        .pathMatchers("/api/health", "/health").permitAll()
+                        .pathMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+
+                        // Para desarrollo temporal - REMOVER EN PRODUCCIÓN
+                        .pathMatchers("/api/v1/order/**").permitAll()
+
+                        // Todas las demás requieren autenticación
+                        .anyExchange().authenticated()
+                )
+                .build();
+    }
+
+    @Bean
+    public CorsConfigurationSource reactiveCorsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(List.of("*"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
+        configuration.setAllowedHeaders(List.of("*"));
+        configuration.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
@@ -1,13 +1,17 @@
 package com.ecommerce.orderservice.config;
 
+import com.ecommerce.sharedlib.security.GatewayAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -17,8 +21,12 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@Profile("!reactive")
 public class SecurityConfig {
 
+    @Value("${security.gateway.shared-secret:}")
+    private String gatewaySharedSecret;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -33,6 +41,10 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
 
+                // Identidad ya verificada por el api-gateway: no se vuelve a validar el JWT
+                .addFilterBefore(new GatewayAuthenticationFilter(gatewaySharedSecret),
+                        UsernamePasswordAuthenticationFilter.class)
+
                 // Configurar autorización
                 .authorizeHttpRequests(authz -> authz
                         // Rutas públicas
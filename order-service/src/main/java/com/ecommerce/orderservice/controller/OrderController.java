@@ -1,24 +1,34 @@
 package com.ecommerce.orderservice.controller;
 
+import com.ecommerce.orderservice.dto.BatchOrderResultDTO;
 import com.ecommerce.orderservice.dto.CreateOrderDTO;
 import com.ecommerce.orderservice.dto.OrderDTO;
 import com.ecommerce.orderservice.dto.UpdateOrderDTO;
+import com.ecommerce.orderservice.idempotency.IdempotencyStore;
 import com.ecommerce.orderservice.service.OrderService;
+import com.ecommerce.sharedlib.dto.KeysetPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.security.Principal;
 import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/order")
 @RequiredArgsConstructor
+@Profile("!reactive")
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrder(@PathVariable("id") Long id){
@@ -26,11 +36,43 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<OrderDTO> guardarOrden(@RequestBody CreateOrderDTO request){
+    public ResponseEntity<OrderDTO> guardarOrden(@RequestBody CreateOrderDTO request,
+                                                 @RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                                 Principal principal){
         log.info("Guardando orden: {}", request);
-        OrderDTO orderDTO = orderService.saveOrder(request);
-        log.info("Orden guardada: {}", orderDTO);
-        return ResponseEntity.ok(orderDTO);
+        if (idempotencyKey == null) {
+            OrderDTO orderDTO = orderService.saveOrder(request);
+            log.info("Orden guardada: {}", orderDTO);
+            return ResponseEntity.ok(orderDTO);
+        }
+
+        // Las claves son por usuario: dos clientes pueden usar la misma sin pisarse
+        String scope = principal != null ? principal.getName() : "anonymous";
+        IdempotencyStore.Outcome<OrderDTO> outcome = idempotencyStore.execute(scope, idempotencyKey, request,
+                OrderDTO.class, () -> orderService.saveOrder(request));
+        if (outcome.replayed()) {
+            log.info("Orden repetida con la clave de idempotencia {}: {}", idempotencyKey, outcome.response());
+            return ResponseEntity.ok()
+                    .header(IdempotencyStore.REPLAYED_HEADER, "true")
+                    .body(outcome.response());
+        }
+        log.info("Orden guardada: {}", outcome.response());
+        return ResponseEntity.ok(outcome.response());
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<OrderDTO> guardarOrdenAsync(@RequestBody CreateOrderDTO request){
+        log.info("Registrando orden asíncrona: {}", request);
+        OrderDTO orderDTO = orderService.placeOrderAsync(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/order/" + orderDTO.getId()))
+                .body(orderDTO);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOrderResultDTO>> guardarOrdenes(@RequestBody List<CreateOrderDTO> requests){
+        log.info("Guardando lote de órdenes. Líneas: {}", requests.size());
+        return ResponseEntity.ok(orderService.saveOrders(requests));
     }
 
     @DeleteMapping("/{id}")
@@ -49,4 +91,17 @@ public class OrderController {
     public ResponseEntity<List<OrderDTO>> getAllOrders(){
         return ResponseEntity.ok(orderService.getAllOrders());
     }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<KeysetPage<OrderDTO>> getOrdersPage(@RequestParam(value = "after", required = false) Long after,
+                                                             @RequestParam("size") int size){
+        return ResponseEntity.ok(orderService.getOrdersPage(after, size));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrders(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(orderService::streamOrders);
+    }
 }
@@ -0,0 +1,78 @@
+package com.ecommerce.orderservice.controller;
+
+import com.ecommerce.orderservice.dto.BatchOrderResultDTO;
+import com.ecommerce.orderservice.dto.CreateOrderDTO;
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.UpdateOrderDTO;
+import com.ecommerce.orderservice.service.ReactiveOrderService;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Mismas rutas que {@link OrderController} sobre WebFlux (perfil {@code reactive}).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/order")
+@RequiredArgsConstructor
+@Profile("reactive")
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OrderDTO>> getOrder(@PathVariable("id") Long id){
+        return orderService.getOrder(id).map(ResponseEntity::ok);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<OrderDTO>> guardarOrden(@RequestBody CreateOrderDTO request){
+        log.info("Guardando orden: {}", request);
+        return orderService.saveOrder(request)
+                .doOnNext(orderDTO -> log.info("Orden guardada: {}", orderDTO))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<BatchOrderResultDTO>>> guardarOrdenes(@RequestBody List<CreateOrderDTO> requests){
+        log.info("Guardando lote de órdenes. Líneas: {}", requests.size());
+        return orderService.saveOrders(requests).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> eliminarOrden(@PathVariable("id") Long id){
+        return orderService.deleteOrder(id).then(Mono.just(ResponseEntity.ok().build()));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<OrderDTO>> actualizarOrden(@PathVariable("id") Long id,
+                                                          @Valid @RequestBody UpdateOrderDTO request){
+        return orderService.updateOrder(id, request).map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Flux<OrderDTO> getAllOrders(){
+        return orderService.getAllOrders();
+    }
+
+    @GetMapping(params = "size")
+    public Mono<ResponseEntity<KeysetPage<OrderDTO>>> getOrdersPage(@RequestParam(value = "after", required = false) Long after,
+                                                                   @RequestParam("size") int size){
+        return orderService.getOrdersPage(after, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderDTO> streamOrders(){
+        return orderService.getAllOrders();
+    }
+}
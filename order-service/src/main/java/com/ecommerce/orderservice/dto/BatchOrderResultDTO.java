@@ -0,0 +1,20 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una línea dentro de una creación de órdenes en lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResultDTO {
+    private int line;
+    private String sku;
+    private Integer quantity;
+    private boolean success;
+    private String message;
+    private OrderDTO order;
+}
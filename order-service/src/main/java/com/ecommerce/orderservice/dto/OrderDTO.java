@@ -1,5 +1,6 @@
 package com.ecommerce.orderservice.dto;
 
+import com.ecommerce.orderservice.models.OrderStatus;
 import lombok.Data;
 
 @Data
@@ -7,4 +8,6 @@ public class OrderDTO {
     private Long id;
     private String sku;
     private Integer quantity;
+    private OrderStatus status;
+    private String statusReason;
 }
@@ -0,0 +1,27 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Evento de cambio de producto publicado por inventory-service.
+ */
+@Data
+public class ProductEventDTO {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STOCK_CHANGED,
+        DELETED
+    }
+
+    private long sequence;
+    private Type type;
+    private String sku;
+    private Boolean active;
+    private Integer quantity;
+    private Long version;
+    private Instant occurredAt;
+}
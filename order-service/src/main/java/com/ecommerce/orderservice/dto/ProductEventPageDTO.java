@@ -0,0 +1,17 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Tramo del feed de eventos de producto de inventory-service.
+ */
+@Data
+public class ProductEventPageDTO {
+    private String streamId;
+    private List<ProductEventDTO> events;
+    private long cursor;
+    private boolean truncated;
+    private long lastSequence;
+}
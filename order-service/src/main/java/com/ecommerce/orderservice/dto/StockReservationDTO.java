@@ -0,0 +1,18 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea de reserva de stock. {@code reservationId} identifica la reserva en inventory-service:
+ * reenviarla no descuenta dos veces y con el mismo id se libera si la orden no llega a crearse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDTO {
+    private String sku;
+    private Integer quantity;
+    private String reservationId;
+}
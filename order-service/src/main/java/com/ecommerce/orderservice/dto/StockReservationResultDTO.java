@@ -0,0 +1,22 @@
+package com.ecommerce.orderservice.dto;
+
+import lombok.Data;
+
+@Data
+public class StockReservationResultDTO {
+
+    public enum Status {
+        RESERVED,
+        NOT_FOUND,
+        INACTIVE,
+        INSUFFICIENT_STOCK,
+        FAILED,
+        RELEASED
+    }
+
+    private String sku;
+    private Status status;
+    private Integer requested;
+    private Integer available;
+    private ProductDTO product;
+}
@@ -1,13 +1,18 @@
 package com.ecommerce.orderservice.exception;
 
+import com.ecommerce.orderservice.metrics.OrderMetrics;
 import com.ecommerce.sharedlib.dto.ApiResponse;
 import com.ecommerce.sharedlib.exception.BaseExceptionHandler;
+import com.ecommerce.sharedlib.exception.BusinessException;
 import feign.FeignException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Handler de excepciones específico para el servicio de órdenes.
@@ -15,8 +20,19 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  */
 @Slf4j
 @RestControllerAdvice
+@Profile("!reactive")
+@RequiredArgsConstructor
 public class OrderExceptionHandler extends BaseExceptionHandler {
 
+    private final OrderMetrics orderMetrics;
+
+    @Override
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusinessException(BusinessException ex, WebRequest request) {
+        orderMetrics.exception(ex);
+        return super.handleBusinessException(ex, request);
+    }
+
     @ExceptionHandler(FeignException.NotFound.class)
     public ResponseEntity<ApiResponse<String>> handleFeignNotFound(FeignException.NotFound ex) {
         log.warn("Producto no encontrado en inventory-service: {}", ex.getMessage());
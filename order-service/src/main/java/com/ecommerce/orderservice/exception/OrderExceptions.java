@@ -1,8 +1,11 @@
 package com.ecommerce.orderservice.exception;
 
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
 import com.ecommerce.sharedlib.exception.BusinessException;
 import org.springframework.http.HttpStatus;
 
+import java.util.Optional;
+
 /**
  * Excepciones específicas del dominio de órdenes
  */
@@ -31,6 +34,83 @@ public class OrderExceptions {
         public ProductNotAvailableException(String sku) {
             super("Producto no disponible: " + sku, HttpStatus.CONFLICT);
         }
+
+        public ProductNotAvailableException(String sku, Throwable cause) {
+            super("Producto no disponible: " + sku, HttpStatus.CONFLICT, cause);
+        }
+    }
+
+    public static class InvalidBatchSizeException extends BusinessException {
+        public InvalidBatchSizeException(int size, int maxSize) {
+            super(String.format("El lote debe tener entre 1 y %d líneas. Recibidas: %d",
+                    maxSize, size), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static class InventoryUnavailableException extends BusinessException {
+        public InventoryUnavailableException() {
+            super("Servicio de inventario no disponible", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        public InventoryUnavailableException(Throwable cause) {
+            super("Servicio de inventario no disponible", HttpStatus.SERVICE_UNAVAILABLE, cause);
+        }
+    }
+
+    public static class InvalidOrderException extends BusinessException {
+        public InvalidOrderException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static class InvalidIdempotencyKeyException extends BusinessException {
+        public InvalidIdempotencyKeyException(int maxLength) {
+            super(String.format("Idempotency-Key debe tener entre 1 y %d caracteres ASCII visibles", maxLength),
+                    HttpStatus.BAD_REQUEST);
+        }
     }
-}
 
+    public static class IdempotencyKeyReusedException extends BusinessException {
+        public IdempotencyKeyReusedException() {
+            super("La Idempotency-Key ya se usó con otra petición", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+    }
+
+    public static class IdempotentRequestInProgressException extends BusinessException {
+        public IdempotentRequestInProgressException() {
+            super("Ya se está procesando una petición con la misma Idempotency-Key", HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Traduce el resultado de una reserva de stock a la excepción de negocio correspondiente;
+     * vacío si la reserva se realizó.
+     */
+    public static Optional<BusinessException> fromReservation(StockReservationResultDTO reservation,
+                                                              String sku, int quantity) {
+        if (reservation == null || reservation.getStatus() == null
+                || reservation.getStatus() == StockReservationResultDTO.Status.NOT_FOUND) {
+            return Optional.of(new ProductNotFoundException(sku));
+        }
+
+        if (reservation.getStatus() == StockReservationResultDTO.Status.INACTIVE) {
+            return Optional.of(new ProductNotAvailableException(sku));
+        }
+
+        if (reservation.getStatus() == StockReservationResultDTO.Status.INSUFFICIENT_STOCK) {
+            return Optional.of(new InsufficientStockException(reservation.getAvailable(), quantity));
+        }
+
+        // El inventario no pudo registrar la línea y no descontó nada
+        if (reservation.getStatus() == StockReservationResultDTO.Status.FAILED) {
+            return Optional.of(new InventoryUnavailableException());
+        }
+
+        // La reserva se liberó antes de llegar al inventario y no se descontó nada
+        if (reservation.getStatus() == StockReservationResultDTO.Status.RELEASED) {
+            return Optional.of(new InventoryUnavailableException());
+        }
+
+        return Optional.empty();
+    }
+}
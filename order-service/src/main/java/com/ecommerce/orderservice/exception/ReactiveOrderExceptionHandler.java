@@ -0,0 +1,63 @@
+package com.ecommerce.orderservice.exception;
+
+import com.ecommerce.orderservice.metrics.OrderMetrics;
+import com.ecommerce.sharedlib.dto.ApiResponse;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import com.ecommerce.sharedlib.exception.ReactiveBaseExceptionHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Equivalente de {@link OrderExceptionHandler} para el perfil {@code reactive}: los errores de
+ * WebClient ocupan el lugar de los de Feign.
+ */
+@Slf4j
+@RestControllerAdvice
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOrderExceptionHandler extends ReactiveBaseExceptionHandler {
+
+    private final OrderMetrics orderMetrics;
+
+    @Override
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusinessException(BusinessException ex,
+                                                                       ServerWebExchange exchange) {
+        orderMetrics.exception(ex);
+        return super.handleBusinessException(ex, exchange);
+    }
+
+    @ExceptionHandler(WebClientResponseException.NotFound.class)
+    public ResponseEntity<ApiResponse<String>> handleWebClientNotFound(WebClientResponseException.NotFound ex) {
+        log.warn("Producto no encontrado en inventory-service: {}", ex.getMessage());
+
+        String message = "Producto no encontrado";
+        String path = ex.getRequest() != null ? ex.getRequest().getURI().getPath() : "";
+        if (path.contains("/api/inventory/")) {
+            // Extraer el SKU de la ruta: /api/inventory/{sku}[/reserve]
+            String sku = path.substring(path.indexOf("/api/inventory/") + "/api/inventory/".length()).split("/")[0];
+            message = "Producto no encontrado: " + sku;
+        }
+
+        ApiResponse<String> response = ApiResponse.error(message);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
+    @ExceptionHandler(WebClientException.class)
+    public ResponseEntity<ApiResponse<String>> handleWebClientException(WebClientException ex) {
+        log.error("Error comunicándose con inventory-service: {}", ex.getMessage());
+
+        ApiResponse<String> response = ApiResponse.error(
+                "Error al consultar el servicio de inventario"
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+}
@@ -0,0 +1,287 @@
+package com.ecommerce.orderservice.idempotency;
+
+import com.ecommerce.orderservice.client.InventoryResilience;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.orderservice.models.IdempotencyRecord;
+import com.ecommerce.orderservice.repository.IdempotencyRecordRepository;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación por {@code Idempotency-Key}. Las respuestas correctas se guardan durante
+ * {@code orders.idempotency.ttl} en la tabla {@code idempotency_keys}, con una caché Caffeine
+ * acotada delante. Un duplicado que llega mientras la primera petición se procesa espera su
+ * resultado: en esta instancia a través de su futuro, en otra consultando la fila cada
+ * {@code poll-interval}. Si no termina en {@code in-progress-timeout} recibe 409. Los errores no se
+ * guardan. Si se sabe que la operación no se aplicó (rechazo de negocio, inventory-service no
+ * alcanzado) se libera la clave y el reintento vuelve a ejecutarla; si pudo aplicarse (timeout, 5xx)
+ * la clave sigue reclamada hasta que vence y los reintentos reciben 409 mientras tanto.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * Respuesta y si se reprodujo desde el almacén en lugar de ejecutar la operación.
+     */
+    public record Outcome<T>(T response, boolean replayed) {
+    }
+
+    private record Completed(String requestHash, String response) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+    private final Duration pollInterval;
+    private final Cache<String, Completed> cache;
+    private final Map<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${orders.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${orders.idempotency.in-progress-timeout:30s}") Duration inProgressTimeout,
+                            @Value("${orders.idempotency.poll-interval:100ms}") Duration pollInterval,
+                            @Value("${orders.idempotency.cache.max-size:100000}") long maxSize) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+        this.pollInterval = pollInterval;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency");
+    }
+
+    /**
+     * Ejecuta {@code action} una sola vez por clave de {@code scope} (el usuario) mientras dure el TTL;
+     * las repeticiones con el mismo cuerpo reciben la respuesta guardada.
+     */
+    public <T> Outcome<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH || !key.chars().allMatch(c -> c > 0x20 && c < 0x7f)) {
+            throw new OrderExceptions.InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+        String id = scope + ":" + key;
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + inProgressTimeout.toNanos();
+
+        while (true) {
+            Completed completed = cache.getIfPresent(id);
+            if (completed != null) {
+                return replay(completed, requestHash, responseType);
+            }
+
+            CompletableFuture<Completed> mine = new CompletableFuture<>();
+            CompletableFuture<Completed> running = inFlight.putIfAbsent(id, mine);
+            if (running != null) {
+                // Duplicado concurrente en esta instancia: esperar a la primera petición
+                await(running, deadline);
+                continue;
+            }
+
+            try {
+                Outcome<T> outcome = lead(id, requestHash, responseType, action, mine, deadline);
+                inFlight.remove(id, mine);
+                return outcome;
+            } catch (RuntimeException e) {
+                inFlight.remove(id, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Borra las claves vencidas, incluidas las que quedaron IN_PROGRESS por una instancia caída.
+     */
+    @Scheduled(fixedDelayString = "${orders.idempotency.cleanup-delay-ms:60000}")
+    public void deleteExpired() {
+        int deleted = repository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Claves de idempotencia vencidas eliminadas: {}", deleted);
+        }
+    }
+
+    private <T> Outcome<T> lead(String id, String requestHash, Class<T> responseType, Supplier<T> action,
+                                CompletableFuture<Completed> mine, long deadline) {
+        IdempotencyRecord existing = claim(id, requestHash);
+        while (existing != null && existing.getStatus() == IdempotencyRecord.Status.IN_PROGRESS) {
+            // La procesa otra instancia: consultar la fila hasta que termine, se libere o venza
+            pause(deadline);
+            existing = repository.findById(id)
+                    .filter(record -> record.getExpiresAt().isAfter(Instant.now()))
+                    .orElseGet(() -> claim(id, requestHash));
+        }
+        if (existing != null) {
+            Completed completed = new Completed(existing.getRequestHash(), existing.getResponse());
+            cache.put(id, completed);
+            mine.complete(completed);
+            return replay(completed, requestHash, responseType);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            if (outcomeKnown(e)) {
+                release(id);
+            } else {
+                log.warn("Resultado desconocido para la clave de idempotencia {}; queda reclamada hasta que venza: {}",
+                        id, e.getMessage());
+            }
+            throw e;
+        }
+
+        Completed completed = new Completed(requestHash, serialize(response));
+        try {
+            repository.complete(id, IdempotencyRecord.Status.COMPLETED, completed.response(), Instant.now().plus(ttl));
+        } catch (DataAccessException e) {
+            // La operación ya se hizo: la respuesta queda al menos en la caché de esta instancia
+            log.warn("No se pudo guardar la respuesta de la clave de idempotencia {}: {}", id, e.getMessage());
+        }
+        cache.put(id, completed);
+        mine.complete(completed);
+        return new Outcome<>(response, false);
+    }
+
+    /**
+     * Inserta la fila IN_PROGRESS de la clave; si ya existe una vigente la devuelve, y si venció la
+     * reemplaza. {@code null} significa que esta petición procesa la clave.
+     */
+    private IdempotencyRecord claim(String id, String requestHash) {
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> entityManager.persist(new IdempotencyRecord(
+                        id, requestHash, IdempotencyRecord.Status.IN_PROGRESS, null,
+                        Instant.now().plus(inProgressTimeout))));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                IdempotencyRecord existing = repository.findById(id).orElse(null);
+                if (existing != null && existing.getExpiresAt().isAfter(Instant.now())) {
+                    return existing;
+                }
+                // Vencida o eliminada entretanto: se vuelve a intentar el reclamo
+                repository.deleteIfExpired(id, Instant.now());
+            }
+        }
+    }
+
+    /**
+     * Si la operación que falló seguro que no se aplicó: una excepción de negocio propia (validación,
+     * rechazo de la reserva) o un fallo que no llegó a inventory-service.
+     */
+    private static boolean outcomeKnown(RuntimeException failure) {
+        if (failure instanceof BusinessException && failure.getCause() == null) {
+            return true;
+        }
+        return !InventoryResilience.mayHaveApplied(failure);
+    }
+
+    private void release(String id) {
+        try {
+            repository.deleteById(id);
+        } catch (DataAccessException e) {
+            // La fila IN_PROGRESS vence sola al cumplirse in-progress-timeout
+            log.warn("No se pudo liberar la clave de idempotencia {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void await(CompletableFuture<Completed> running, long deadline) {
+        try {
+            running.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // La primera petición falló: se vuelve a reclamar la clave, que sigue ocupada si su resultado es desconocido
+        } catch (TimeoutException e) {
+            throw new OrderExceptions.IdempotentRequestInProgressException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderExceptions.IdempotentRequestInProgressException();
+        }
+    }
+
+    private void pause(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new OrderExceptions.IdempotentRequestInProgressException();
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, pollInterval.toNanos()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderExceptions.IdempotentRequestInProgressException();
+        }
+    }
+
+    private <T> Outcome<T> replay(Completed completed, String requestHash, Class<T> responseType) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw new OrderExceptions.IdempotencyKeyReusedException();
+        }
+        try {
+            return new Outcome<>(objectMapper.readValue(completed.response(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta guardada ilegible para la clave de idempotencia", e);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta idempotente", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular el hash de la petición", e);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.ecommerce.orderservice.intake;
+
+import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderIntakeCheckpoint;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderIntakeCheckpointRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Entrada duradera de órdenes confirmadas sin una transacción por orden: {@link #submit} asigna el
+ * id con la misma secuencia que JPA, escribe la orden en el {@link OrderIntakeLog} y vuelve cuando
+ * su lote está en disco. Cada {@code apply-interval} las órdenes durables se insertan en
+ * {@code orders} con un batch JDBC, en la misma transacción que el checkpoint del último LSN aplicado;
+ * al arrancar se reaplica lo que quedó en el log después de ese LSN.
+ * <p>
+ * Hasta que se aplica, la orden solo es visible a través de {@link #findPending}.
+ */
+@Slf4j
+public class OrderIntakeJournal implements AutoCloseable {
+
+    static final String INSERT_ORDER = "INSERT INTO orders (id, sku, quantity, status) VALUES (?, ?, ?, ?)";
+
+    private final OrderIntakeLog intakeLog;
+    private final OrderIntakeCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final BeforeExecutionGenerator idGenerator;
+    private final int applyBatchSize;
+    private final ScheduledExecutorService applier;
+
+    // Órdenes confirmadas al cliente y aún no insertadas
+    private final Map<Long, Order> pendingOrders = new ConcurrentHashMap<>();
+    // Registros durables pendientes de aplicar, en orden de LSN; los protege su propio monitor
+    private final Deque<OrderIntakeLog.Record> ready = new ArrayDeque<>();
+    private final ReentrantLock applyLock = new ReentrantLock();
+
+    public OrderIntakeJournal(OrderIntakeLog intakeLog,
+                              OrderIntakeCheckpointRepository checkpointRepository,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              EntityManagerFactory entityManagerFactory,
+                              int applyBatchSize,
+                              Duration applyInterval,
+                              MeterRegistry meterRegistry) {
+        this.intakeLog = intakeLog;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.idGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Order.class)
+                .getGenerator();
+        this.applyBatchSize = applyBatchSize;
+
+        recover();
+
+        this.applier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-intake-applier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        applier.scheduleWithFixedDelay(this::applyPending, applyInterval.toMillis(), applyInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder("orders.intake.unapplied", this, journal -> journal.unapplied())
+                .description("Órdenes confirmadas en el log de entrada aún no insertadas en la base de datos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Asigna el id a la orden confirmada y la registra en el log; vuelve cuando está en disco.
+     */
+    public Order submit(Order order) {
+        order.setId(nextId());
+        order.setStatus(OrderStatus.CONFIRMED);
+        // Antes del append: el aplicador puede insertarla y retirarla en cuanto sea durable
+        pendingOrders.put(order.getId(), copy(order));
+        try {
+            intakeLog.append(order.getId(), order.getSku(), order.getQuantity()).join();
+        } catch (CompletionException e) {
+            pendingOrders.remove(order.getId());
+            throw new IllegalStateException("No se pudo registrar la orden en el log de entrada", e.getCause());
+        }
+        return order;
+    }
+
+    /**
+     * Orden confirmada que aún no está en {@code orders}.
+     */
+    public Optional<Order> findPending(Long id) {
+        return Optional.ofNullable(pendingOrders.get(id)).map(OrderIntakeJournal::copy);
+    }
+
+    /**
+     * Inserta en lotes todas las órdenes durables; false si un lote falló y quedó para el siguiente intento.
+     */
+    boolean applyPending() {
+        applyLock.lock();
+        try {
+            while (true) {
+                List<OrderIntakeLog.Record> batch = nextBatch();
+                if (batch.isEmpty()) {
+                    return true;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(batch));
+                } catch (RuntimeException e) {
+                    log.warn("Error aplicando {} órdenes del log de entrada; se reintentará: {}",
+                            batch.size(), e.getMessage());
+                    return false;
+                }
+                synchronized (ready) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        ready.pollFirst();
+                    }
+                }
+                batch.forEach(record -> pendingOrders.remove(record.orderId()));
+                intakeLog.deleteUpTo(batch.get(batch.size() - 1).lsn());
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    /**
+     * Escribe lo encolado, inserta todo lo durable y cierra el log.
+     */
+    @Override
+    public void close() {
+        applier.shutdown();
+        try {
+            applier.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        intakeLog.close();
+        applyPending();
+    }
+
+    /**
+     * Detiene la escritura y la aplicación sin terminar lo pendiente, como si el proceso muriera.
+     * Solo para tests, igual que {@link #intakeLog()}.
+     */
+    void halt() {
+        applier.shutdownNow();
+        intakeLog.halt();
+    }
+
+    OrderIntakeLog intakeLog() {
+        return intakeLog;
+    }
+
+    private List<OrderIntakeLog.Record> nextBatch() {
+        synchronized (ready) {
+            List<OrderIntakeLog.Record> batch = new ArrayList<>(Math.min(ready.size(), applyBatchSize));
+            Iterator<OrderIntakeLog.Record> iterator = ready.iterator();
+            while (iterator.hasNext() && batch.size() < applyBatchSize) {
+                batch.add(iterator.next());
+            }
+            return batch;
+        }
+    }
+
+    private void apply(List<OrderIntakeLog.Record> batch) {
+        jdbcTemplate.batchUpdate(INSERT_ORDER, batch, batch.size(), (statement, record) -> {
+            statement.setLong(1, record.orderId());
+            statement.setString(2, record.sku());
+            statement.setInt(3, record.quantity());
+            statement.setString(4, OrderStatus.CONFIRMED.name());
+        });
+        checkpointRepository.save(new OrderIntakeCheckpoint(intakeLog.id(), batch.get(batch.size() - 1).lsn()));
+    }
+
+    private void onDurable(List<OrderIntakeLog.Record> records) {
+        synchronized (ready) {
+            ready.addAll(records);
+        }
+    }
+
+    private int unapplied() {
+        synchronized (ready) {
+            return ready.size();
+        }
+    }
+
+    /**
+     * Reaplica los registros posteriores al último checkpoint. Si la base de datos no conoce este
+     * log (p. ej. H2 en memoria recién creada) sus ids no le corresponden y se descarta.
+     */
+    private void recover() {
+        List<OrderIntakeLog.Record> records = intakeLog.readAll();
+        OrderIntakeCheckpoint checkpoint = checkpointRepository.findById(intakeLog.id()).orElse(null);
+        long appliedLsn = checkpoint != null ? checkpoint.getAppliedLsn() : 0;
+        long lastLsn = records.isEmpty() ? appliedLsn : Math.max(appliedLsn, records.get(records.size() - 1).lsn());
+
+        if (checkpoint == null) {
+            if (!records.isEmpty()) {
+                log.warn("La base de datos no tiene checkpoint del log de órdenes {}: se descartan {} registros",
+                        intakeLog.id(), records.size());
+            }
+            checkpointRepository.save(new OrderIntakeCheckpoint(intakeLog.id(), lastLsn));
+        } else {
+            List<OrderIntakeLog.Record> unapplied = records.stream()
+                    .filter(record -> record.lsn() > appliedLsn)
+                    .toList();
+            for (int from = 0; from < unapplied.size(); from += applyBatchSize) {
+                List<OrderIntakeLog.Record> batch = unapplied.subList(from, Math.min(from + applyBatchSize, unapplied.size()));
+                transactionTemplate.executeWithoutResult(status -> apply(batch));
+            }
+            if (!unapplied.isEmpty()) {
+                log.info("Log de órdenes recuperado: {} órdenes insertadas hasta el LSN {}", unapplied.size(), lastLsn);
+            }
+        }
+
+        intakeLog.start(lastLsn + 1, this::onDurable);
+    }
+
+    /**
+     * Id del generador de {@link Order}: la secuencia pooled reparte bloques en memoria y solo va
+     * a la base de datos una vez por bloque, igual que en los INSERT de JPA.
+     */
+    private long nextId() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) idGenerator.generate((SharedSessionContractImplementor) session, null, null, EventType.INSERT);
+        }
+    }
+
+    private static Order copy(Order order) {
+        return new Order(order.getId(), order.getSku(), order.getQuantity(), order.getStatus(), order.getStatusReason());
+    }
+}
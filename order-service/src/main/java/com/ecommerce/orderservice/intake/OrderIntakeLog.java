@@ -0,0 +1,368 @@
+package com.ecommerce.orderservice.intake;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de entrada de órdenes en segmentos {@code intake-<primer LSN>.log} de tamaño fijo, mapeados
+ * en memoria. Un único hilo escritor copia en el segmento las órdenes que llegan a la vez y hace un
+ * solo {@code force} por lote (group commit); después entrega el lote a {@code onDurable} y
+ * completa las esperas de los llamantes. Cuando un registro no cabe se pasa al segmento siguiente.
+ * <p>
+ * Registro: {@code [longitud int][lsn long][id long][cantidad int][sku UTF-8][crc32c int]}. Los
+ * segmentos se crean a ceros: una longitud 0 marca el final del segmento. La recuperación se
+ * detiene en el primer registro incompleto o con CRC erróneo (escritura cortada).
+ */
+@Slf4j
+public class OrderIntakeLog implements Closeable {
+
+    private static final String ID_FILE = "intake.id";
+    private static final String SEGMENT_PREFIX = "intake-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+    static final int MAX_SKU_BYTES = 256;
+
+    public record Record(long lsn, long orderId, String sku, int quantity) {
+    }
+
+    private record Append(long orderId, String sku, int quantity, CompletableFuture<Long> durable) {
+    }
+
+    private final Path directory;
+    private final String logId;
+    private final int segmentBytes;
+    private final int maxBatch;
+    private final BlockingQueue<Append> queue;
+    private final Thread writer;
+
+    private Consumer<List<Record>> onDurable = records -> {
+    };
+    private Path segmentPath;
+    private MappedByteBuffer segment;
+    private long nextLsn;
+    private volatile boolean running;
+    private volatile boolean halted;
+    private volatile IOException failure;
+
+    /**
+     * Abre (o crea) el directorio del log. No escribe nada hasta {@link #start}.
+     */
+    public OrderIntakeLog(Path directory, int segmentBytes, int maxBatch, int queueCapacity) {
+        if (segmentBytes < HEADER_BYTES + MAX_SKU_BYTES + Integer.BYTES) {
+            throw new IllegalArgumentException("Segmento demasiado pequeño para un registro: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.logId = readOrCreateId();
+        this.writer = new Thread(this::writeLoop, "order-intake-log");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Identificador del log; se guarda junto al checkpoint para no aplicar el log de otra base de datos.
+     */
+    public String id() {
+        return logId;
+    }
+
+    /**
+     * Registros completos de todos los segmentos, en orden de LSN.
+     */
+    public List<Record> readAll() {
+        List<Record> records = new ArrayList<>();
+        for (Path path : segments()) {
+            if (!readSegment(path, records)) {
+                break;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Borra los segmentos existentes y empieza a escribir uno nuevo a partir de {@code firstLsn}.
+     * Debe llamarse después de recuperar el contenido anterior.
+     */
+    public void start(long firstLsn, Consumer<List<Record>> onDurable) {
+        this.onDurable = onDurable;
+        this.nextLsn = firstLsn;
+        segments().forEach(OrderIntakeLog::deleteQuietly);
+        openSegment();
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Encola una orden; el futuro se completa con su LSN cuando está en disco.
+     */
+    public CompletableFuture<Long> append(long orderId, String sku, int quantity) {
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        if (sku.getBytes(StandardCharsets.UTF_8).length > MAX_SKU_BYTES) {
+            durable.completeExceptionally(new IllegalArgumentException("SKU demasiado largo para el log de órdenes: " + sku));
+        } else if (!running || failure != null) {
+            durable.completeExceptionally(new IllegalStateException("Log de entrada de órdenes no disponible", failure));
+        } else {
+            try {
+                Append append = new Append(orderId, sku, quantity, durable);
+                queue.put(append);
+                // close() pudo terminar el hilo escritor entre la comprobación y el put
+                if (!writer.isAlive() && queue.remove(append)) {
+                    durable.completeExceptionally(new IllegalStateException("Log de entrada de órdenes cerrado"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                durable.completeExceptionally(e);
+            }
+        }
+        return durable;
+    }
+
+    /**
+     * Borra los segmentos cerrados cuyos registros son todos anteriores o iguales a {@code lsn}.
+     * El segmento en escritura nunca se borra.
+     */
+    public void deleteUpTo(long lsn) {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsn(segments.get(i + 1)) - 1 <= lsn) {
+                deleteQuietly(segments.get(i));
+            }
+        }
+    }
+
+    /**
+     * Deja de aceptar órdenes, escribe las pendientes y fuerza el segmento a disco.
+     */
+    @Override
+    public void close() {
+        running = false;
+        awaitWriter();
+        if (segment != null && !halted) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Detiene el escritor sin escribir lo encolado, como si el proceso muriera. Solo para tests.
+     */
+    void halt() {
+        halted = true;
+        running = false;
+        awaitWriter();
+    }
+
+    /**
+     * Segmento en escritura y posición del siguiente registro. Solo para tests.
+     */
+    Path currentSegment() {
+        return segmentPath;
+    }
+
+    int currentPosition() {
+        return segment.position();
+    }
+
+    private void awaitWriter() {
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<Append> batch = new ArrayList<>(maxBatch);
+        while ((running || !queue.isEmpty()) && !halted) {
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        // Lo que quede en cola no llegará a disco
+        Append pending;
+        while ((pending = queue.poll()) != null) {
+            pending.durable().completeExceptionally(new IllegalStateException("Log de entrada de órdenes cerrado"));
+        }
+    }
+
+    private void writeBatch(List<Append> batch) {
+        if (failure != null) {
+            batch.forEach(append -> append.durable().completeExceptionally(failure));
+            return;
+        }
+
+        List<Record> records = new ArrayList<>(batch.size());
+        try {
+            int start = segment.position();
+            for (Append append : batch) {
+                Record record = new Record(nextLsn + records.size(), append.orderId(), append.sku(), append.quantity());
+                if (segment.remaining() < encodedSize(record)) {
+                    // El segmento lleno se fuerza entero antes de pasar al siguiente
+                    segment.force(start, segment.position() - start);
+                    openSegment(record.lsn());
+                    start = 0;
+                }
+                encode(record, segment);
+                records.add(record);
+            }
+            segment.force(start, segment.position() - start);
+        } catch (IOException | UncheckedIOException e) {
+            failure = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+            log.error("Log de entrada de órdenes inutilizable", failure);
+            batch.forEach(append -> append.durable().completeExceptionally(failure));
+            return;
+        }
+
+        nextLsn += records.size();
+        onDurable.accept(records);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).durable().complete(records.get(i).lsn());
+        }
+    }
+
+    private void openSegment() {
+        try {
+            openSegment(nextLsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment(long firstLsn) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segmentPath = path;
+    }
+
+    private static int encodedSize(Record record) {
+        return HEADER_BYTES + record.sku().getBytes(StandardCharsets.UTF_8).length + Integer.BYTES;
+    }
+
+    private static void encode(Record record, MappedByteBuffer buffer) {
+        byte[] sku = record.sku().getBytes(StandardCharsets.UTF_8);
+        int start = buffer.position();
+        buffer.putInt(HEADER_BYTES + sku.length);
+        buffer.putLong(record.lsn());
+        buffer.putLong(record.orderId());
+        buffer.putInt(record.quantity());
+        buffer.put(sku);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(start).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Añade a {@code records} los registros válidos del segmento; false si encontró uno cortado.
+     */
+    private static boolean readSegment(Path path, List<Record> records) {
+        ByteBuffer data;
+        try {
+            data = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        while (data.remaining() >= Integer.BYTES) {
+            int start = data.position();
+            int length = data.getInt(start);
+            if (length == 0) {
+                // Resto del segmento sin escribir
+                return true;
+            }
+            if (length < HEADER_BYTES || length > HEADER_BYTES + MAX_SKU_BYTES
+                    || data.remaining() < length + Integer.BYTES || !validCrc(data, start, length)) {
+                log.warn("Registro incompleto en {} (posición {}); se ignora el resto del log de órdenes", path, start);
+                return false;
+            }
+            long lsn = data.getLong(start + Integer.BYTES);
+            long orderId = data.getLong(start + Integer.BYTES + Long.BYTES);
+            int quantity = data.getInt(start + Integer.BYTES + 2 * Long.BYTES);
+            String sku = new String(data.array(), start + HEADER_BYTES, length - HEADER_BYTES, StandardCharsets.UTF_8);
+            records.add(new Record(lsn, orderId, sku, quantity));
+            data.position(start + length + Integer.BYTES);
+        }
+        // Menos bytes de los que ocupa una longitud: final de un segmento lleno
+        return true;
+    }
+
+    private static boolean validCrc(ByteBuffer data, int start, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate().position(start).limit(start + length));
+        return (int) crc.getValue() == data.getInt(start + length);
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private String readOrCreateId() {
+        try {
+            Files.createDirectories(directory);
+            Path idFile = directory.resolve(ID_FILE);
+            if (Files.exists(idFile)) {
+                return Files.readString(idFile).trim();
+            }
+            String id = UUID.randomUUID().toString();
+            Files.writeString(idFile, id);
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el segmento {} del log de órdenes", path, e);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.ecommerce.orderservice.dto.CreateOrderDTO;
 import com.ecommerce.orderservice.dto.OrderDTO;
 import com.ecommerce.orderservice.dto.UpdateOrderDTO;
 import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.ReactiveOrder;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValueMappingStrategy;
 
@@ -16,6 +18,9 @@ import java.util.List;
 )
 public interface OrderMapper {
 
+    // El estado lo fija el servicio según el resultado de la reserva
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "statusReason", ignore = true)
     Order createOrderDTO(CreateOrderDTO order);
 
     OrderDTO orderDTO(Order order);
@@ -24,6 +29,22 @@ public interface OrderMapper {
 
     List<OrderDTO> orderDTOList(List<Order> orders);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "statusReason", ignore = true)
     void updateOrderFromDTO(UpdateOrderDTO updateOrderDTO, @MappingTarget Order order);
 
+    // Variante R2DBC: un id informado haría que Spring Data intentase un UPDATE
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "statusReason", ignore = true)
+    ReactiveOrder reactiveOrder(CreateOrderDTO order);
+
+    OrderDTO orderDTO(ReactiveOrder order);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "statusReason", ignore = true)
+    void updateOrderFromDTO(UpdateOrderDTO updateOrderDTO, @MappingTarget ReactiveOrder order);
+
 }
@@ -0,0 +1,108 @@
+package com.ecommerce.orderservice.metrics;
+
+import com.ecommerce.sharedlib.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Métricas de creación de órdenes:
+ * <ul>
+ *     <li>{@code order.placement{operation, outcome}}: duración total de cada operación</li>
+ *     <li>{@code order.placement.stage{operation, stage}}: duración de cada etapa dentro de la operación</li>
+ *     <li>{@code order.exceptions{type, status}}: excepciones de negocio por tipo</li>
+ * </ul>
+ * Percentiles, histogramas y buckets SLO se configuran en {@code management.metrics.distribution}.
+ * Las variantes con {@link Mono} (perfil reactive) miden desde la suscripción hasta que termina.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderMetrics {
+
+    public static final String OPERATION_SINGLE = "single";
+    public static final String OPERATION_BATCH = "batch";
+    public static final String OPERATION_ASYNC = "async";
+
+    public static final String STAGE_VALIDATION = "validation";
+    public static final String STAGE_INVENTORY_RESERVE = "inventory_reserve";
+    public static final String STAGE_PERSIST = "persist";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Cronometra la operación completa y la etiqueta con su resultado: {@code success},
+     * {@code rejected} (excepción de negocio) o {@code error}.
+     */
+    public <T> T placement(String operation, Supplier<T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } catch (BusinessException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(placementTimer(operation, outcome));
+        }
+    }
+
+    public <T> Mono<T> placement(String operation, Mono<T> body) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return body
+                    .doOnSuccess(result -> sample.stop(placementTimer(operation, "success")))
+                    .doOnError(e -> sample.stop(placementTimer(operation,
+                            e instanceof BusinessException ? "rejected" : "error")));
+        });
+    }
+
+    public <T> T stage(String operation, String stage, Supplier<T> step) {
+        return stageTimer(operation, stage).record(step);
+    }
+
+    public <T> Mono<T> stage(String operation, String stage, Mono<T> step) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return step.doFinally(signal -> sample.stop(stageTimer(operation, stage)));
+        });
+    }
+
+    public void stage(String operation, String stage, Runnable step) {
+        stage(operation, stage, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    public void exception(BusinessException exception) {
+        Counter.builder("order.exceptions")
+                .description("Excepciones de negocio de order-service por tipo")
+                .tag("type", exception.getClass().getSimpleName())
+                .tag("status", String.valueOf(exception.getHttpStatus().value()))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer placementTimer(String operation, String outcome) {
+        return Timer.builder("order.placement")
+                .description("Duración de la creación de órdenes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Timer stageTimer(String operation, String stage) {
+        return Timer.builder("order.placement.stage")
+                .description("Duración de cada etapa de la creación de órdenes")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
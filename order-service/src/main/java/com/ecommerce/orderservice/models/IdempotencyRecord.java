@@ -0,0 +1,45 @@
+package com.ecommerce.orderservice.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Respuesta guardada para una {@code Idempotency-Key}. Mientras la primera petición se procesa la
+ * fila queda IN_PROGRESS (reclamada por esa instancia) y {@code expiresAt} es el plazo del reclamo;
+ * al terminar pasa a COMPLETED con la respuesta y vence al cumplirse el TTL.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    // Clave del cliente precedida por el usuario que la envía
+    @Id
+    @Column(length = 320)
+    private String idempotencyKey;
+
+    // SHA-256 del cuerpo: la misma clave con otro cuerpo es un error del cliente
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Lob
+    private String response;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -11,11 +11,20 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class Order {
+    // Secuencia pooled: Hibernate reserva bloques de ids en memoria y puede agrupar los INSERT en batch JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String sku;
 
     private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private OrderStatus status;
+
+    // Motivo del rechazo cuando la reserva asíncrona de stock falla
+    private String statusReason;
 }
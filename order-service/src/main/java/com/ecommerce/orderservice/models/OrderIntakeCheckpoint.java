@@ -0,0 +1,24 @@
+package com.ecommerce.orderservice.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Último LSN del log de entrada de órdenes ya insertado en {@code orders}. Se actualiza en la misma
+ * transacción que las órdenes, así que al recuperar solo se reaplican los registros posteriores.
+ */
+@Entity
+@Table(name = "order_intake_checkpoints")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderIntakeCheckpoint {
+    @Id
+    @Column(length = 36)
+    private String logId;
+
+    @Column(nullable = false)
+    private long appliedLsn;
+}
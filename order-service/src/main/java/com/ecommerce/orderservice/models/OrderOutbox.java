@@ -0,0 +1,47 @@
+package com.ecommerce.orderservice.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Reserva de stock pendiente de una orden asíncrona. Se escribe en la misma transacción
+ * que la orden PENDING y el dispatcher la elimina al confirmar o rechazar la orden.
+ * {@code reservationId} se mantiene entre reintentos, así inventory-service no descuenta dos veces.
+ * Mientras un dispatcher la procesa, {@code claimToken} identifica su reclamo y
+ * {@code nextAttemptAt} marca el fin del plazo: ninguna otra instancia la toma antes.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = @Index(name = "idx_order_outbox_next_attempt", columnList = "nextAttemptAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, length = 36)
+    private String reservationId;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 36)
+    private String claimToken;
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.orderservice.models;
+
+/**
+ * Estado de una orden. Las órdenes asíncronas nacen PENDING hasta que el dispatcher reserva el stock.
+ */
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    REJECTED
+}
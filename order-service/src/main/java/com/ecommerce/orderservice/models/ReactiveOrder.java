@@ -0,0 +1,28 @@
+package com.ecommerce.orderservice.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Orden persistida con R2DBC en el perfil {@code reactive}. Misma tabla y columnas que {@link Order};
+ * es una clase aparte para que Spring Data asigne cada entidad a un único módulo (JPA o R2DBC).
+ */
+@Table("orders")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReactiveOrder {
+    @Id
+    private Long id;
+
+    private String sku;
+
+    private Integer quantity;
+
+    private OrderStatus status;
+
+    private String statusReason;
+}
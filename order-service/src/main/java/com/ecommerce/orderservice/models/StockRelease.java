@@ -0,0 +1,40 @@
+package com.ecommerce.orderservice.models;
+
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Reserva de stock que hay que liberar en inventory-service porque su orden no llegó a crearse
+ * y la liberación no se pudo confirmar en el momento. {@link com.ecommerce.orderservice.service.StockReleaser}
+ * la reintenta hasta que inventory-service responde; liberar es idempotente por {@code reservationId}.
+ */
+@Entity
+@Table(name = "stock_release_outbox", indexes = @Index(name = "idx_stock_release_next_attempt", columnList = "nextAttemptAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockRelease {
+    @Id
+    @Column(length = 36)
+    private String reservationId;
+
+    @Column(nullable = false)
+    private String sku;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    public StockReservationDTO toReservation() {
+        return new StockReservationDTO(sku, quantity, reservationId);
+    }
+}
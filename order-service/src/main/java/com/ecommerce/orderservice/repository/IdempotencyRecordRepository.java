@@ -0,0 +1,35 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Guarda la respuesta de una clave reclamada y fija su vencimiento.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.response = :response, r.expiresAt = :expiresAt " +
+            "WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("status") IdempotencyRecord.Status status,
+                 @Param("response") String response, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("key") String key, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
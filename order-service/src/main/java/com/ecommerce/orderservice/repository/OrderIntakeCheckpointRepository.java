@@ -0,0 +1,9 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.models.OrderIntakeCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderIntakeCheckpointRepository extends JpaRepository<OrderIntakeCheckpoint, String> {
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.models.OrderOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    /**
+     * Entradas cuyo siguiente intento ya venció, en orden de llegada.
+     */
+    List<OrderOutbox> findByNextAttemptAtLessThanEqualOrderByIdAsc(Instant now, Limit limit);
+
+    /**
+     * Reclama las entradas que sigan vencidas hasta {@code leaseUntil}. La condición se vuelve a
+     * evaluar fila a fila al actualizar, así que de dos dispatchers concurrentes solo uno se queda
+     * con cada entrada.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderOutbox o SET o.claimToken = :token, o.nextAttemptAt = :leaseUntil " +
+            "WHERE o.id IN :ids AND o.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    List<OrderOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+}
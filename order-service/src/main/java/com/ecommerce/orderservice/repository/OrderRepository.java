@@ -1,9 +1,27 @@
 package com.ecommerce.orderservice.repository;
 
 import com.ecommerce.orderservice.models.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Página por keyset: órdenes con id mayor que el cursor, en orden ascendente.
+     */
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Recorre todas las órdenes con un cursor JDBC; debe consumirse dentro de una transacción.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Order> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,16 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.models.ReactiveOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveOrderRepository extends R2dbcRepository<ReactiveOrder, Long> {
+
+    /**
+     * Página por keyset: órdenes con id mayor que el cursor, en orden ascendente.
+     */
+    Flux<ReactiveOrder> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
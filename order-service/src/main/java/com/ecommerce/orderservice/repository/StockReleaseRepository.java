@@ -0,0 +1,18 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.models.StockRelease;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockReleaseRepository extends JpaRepository<StockRelease, String> {
+
+    /**
+     * Liberaciones cuyo siguiente intento ya venció, las más antiguas primero.
+     */
+    List<StockRelease> findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(Instant now, Limit limit);
+}
@@ -0,0 +1,218 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.cache.ProductStockView;
+import com.ecommerce.orderservice.client.InventoryGateway;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.orderservice.metrics.OrderMetrics;
+import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderOutbox;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Vacía el outbox de órdenes asíncronas: reserva el stock de cada lote con una sola llamada
+ * a inventory-service y pasa las órdenes a CONFIRMED o REJECTED.
+ * La llamada remota se hace fuera de transacción; solo el reclamo y el cierre del lote son transaccionales.
+ * Cada lote se reclama antes de la llamada durante {@code lease}, que debe superar el tiempo máximo de
+ * la reserva con sus reintentos: con varias instancias, cada entrada la procesa solo la que la reclamó.
+ * Cada entrada conserva su id de reserva entre intentos, así que reintentar tras un timeout o un 5xx
+ * no descuenta dos veces; si se agotan los intentos, la reserva se libera antes de rechazar la orden.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "orders.async.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+@Profile("!reactive")
+public class OrderOutboxDispatcher {
+
+    static final String INVENTORY_UNAVAILABLE = "Servicio de inventario no disponible";
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryGateway inventoryGateway;
+    private final ProductStockView productStockView;
+    private final OrderMetrics orderMetrics;
+    private final StockReleaser stockReleaser;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.async.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    @Value("${orders.async.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${orders.async.dispatcher.retry-backoff:2s}")
+    private Duration retryBackoff;
+
+    @Value("${orders.async.dispatcher.lease:30s}")
+    private Duration lease;
+
+    @Scheduled(fixedDelayString = "${orders.async.dispatcher.fixed-delay-ms:500}")
+    public void dispatch() {
+        List<OrderOutbox> batch;
+        do {
+            batch = transactionTemplate.execute(status -> claimBatch());
+        } while (!batch.isEmpty() && dispatchBatch(batch) && batch.size() == batchSize);
+    }
+
+    /**
+     * Reclama hasta {@code batch-size} entradas vencidas; solo devuelve las que reclamó esta llamada.
+     * Si la transacción que cierra el lote falla, las entradas siguen reclamadas hasta que vence el plazo.
+     */
+    private List<OrderOutbox> claimBatch() {
+        Instant now = Instant.now();
+        List<Long> due = orderOutboxRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(now, Limit.of(batchSize))
+                .stream()
+                .map(OrderOutbox::getId)
+                .toList();
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        if (orderOutboxRepository.claim(due, token, now, now.plus(lease)) == 0) {
+            return List.of();
+        }
+        return orderOutboxRepository.findByClaimTokenOrderByIdAsc(token);
+    }
+
+    /**
+     * Procesa un lote; devuelve false si inventory-service no respondió y el lote se reprogramó.
+     */
+    private boolean dispatchBatch(List<OrderOutbox> batch) {
+        List<StockReservationDTO> reservations = batch.stream()
+                .map(OrderOutboxDispatcher::reservation)
+                .toList();
+
+        List<StockReservationResultDTO> results;
+        try {
+            results = inventoryGateway.reserveStock(reservations);
+        } catch (RuntimeException e) {
+            // Con el mismo id de reserva, el siguiente intento no descuenta dos veces aunque este llegara
+            log.warn("No se pudo reservar el lote de {} órdenes pendientes: {}", batch.size(), e.getMessage());
+            stockReleaser.release(transactionTemplate.execute(status -> scheduleRetry(batch)));
+            return false;
+        }
+
+        // Las reservas sin orden se liberan fuera de la transacción del lote
+        stockReleaser.release(transactionTemplate.execute(status -> complete(batch, results)));
+        return true;
+    }
+
+    /**
+     * Cierra el lote; devuelve las reservas que hay que liberar: las de órdenes que ya no existen
+     * y las de órdenes rechazadas tras agotar los intentos.
+     */
+    private List<StockReservationDTO> complete(List<OrderOutbox> batch, List<StockReservationResultDTO> results) {
+        Map<Long, Order> orders = loadOrders(batch);
+        List<StockReservationDTO> toRelease = new ArrayList<>();
+        List<OrderOutbox> done = new ArrayList<>();
+        List<OrderOutbox> failed = new ArrayList<>();
+        int confirmed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            OrderOutbox entry = batch.get(i);
+            StockReservationResultDTO reservation = i < results.size() ? results.get(i) : null;
+            if (reservation != null && reservation.getStatus() == StockReservationResultDTO.Status.FAILED) {
+                // El inventario no descontó nada para esta línea: se reintenta como si no hubiera respondido
+                failed.add(entry);
+                continue;
+            }
+            done.add(entry);
+            productStockView.update(reservation);
+
+            Order order = orders.get(entry.getOrderId());
+            if (order == null) {
+                // La orden se eliminó mientras estaba pendiente; la reserva ya no tiene dueño y se libera
+                log.warn("Orden pendiente {} eliminada antes de reservar stock (SKU: {})",
+                        entry.getOrderId(), entry.getSku());
+                if (reservation != null && reservation.getStatus() == StockReservationResultDTO.Status.RESERVED) {
+                    toRelease.add(reservation(entry));
+                }
+                continue;
+            }
+
+            Optional<BusinessException> rejection = OrderExceptions.fromReservation(
+                    reservation, entry.getSku(), entry.getQuantity());
+            if (rejection.isPresent()) {
+                orderMetrics.exception(rejection.get());
+                order.setStatus(OrderStatus.REJECTED);
+                order.setStatusReason(rejection.get().getMessage());
+            } else {
+                order.setStatus(OrderStatus.CONFIRMED);
+                confirmed++;
+            }
+        }
+        orderOutboxRepository.deleteAllInBatch(done);
+        if (!failed.isEmpty()) {
+            toRelease.addAll(scheduleRetry(failed));
+        }
+
+        log.info("Lote de órdenes pendientes procesado. Órdenes: {}, confirmadas: {}, rechazadas: {}, reintentadas: {}",
+                batch.size(), confirmed, done.size() - confirmed, failed.size());
+        return toRelease;
+    }
+
+    /**
+     * Reprograma el lote o, si agotó los intentos, rechaza sus órdenes. Devuelve las reservas de las
+     * rechazadas: algún intento pudo aplicarse sin respuesta, así que se liberan por su id.
+     */
+    private List<StockReservationDTO> scheduleRetry(List<OrderOutbox> batch) {
+        List<OrderOutbox> exhausted = new ArrayList<>();
+        List<OrderOutbox> retried = new ArrayList<>();
+        Instant now = Instant.now();
+        for (OrderOutbox entry : batch) {
+            entry.setAttempts(entry.getAttempts() + 1);
+            if (entry.getAttempts() >= maxAttempts) {
+                exhausted.add(entry);
+            } else {
+                // Espera lineal según el número de intentos
+                entry.setNextAttemptAt(now.plus(retryBackoff.multipliedBy(entry.getAttempts())));
+                retried.add(entry);
+            }
+        }
+        orderOutboxRepository.saveAll(retried);
+
+        if (exhausted.isEmpty()) {
+            return List.of();
+        }
+        loadOrders(exhausted).values().forEach(order -> {
+            order.setStatus(OrderStatus.REJECTED);
+            order.setStatusReason(INVENTORY_UNAVAILABLE);
+        });
+        orderOutboxRepository.deleteAllInBatch(exhausted);
+        log.warn("{} órdenes rechazadas tras {} intentos de reserva", exhausted.size(), maxAttempts);
+        return exhausted.stream().map(OrderOutboxDispatcher::reservation).toList();
+    }
+
+    private static StockReservationDTO reservation(OrderOutbox entry) {
+        return new StockReservationDTO(entry.getSku(), entry.getQuantity(), entry.getReservationId());
+    }
+
+    private Map<Long, Order> loadOrders(List<OrderOutbox> entries) {
+        List<Long> ids = entries.stream().map(OrderOutbox::getOrderId).toList();
+        return orderRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+    }
+}
@@ -1,41 +1,123 @@
 package com.ecommerce.orderservice.service;
 
-import com.ecommerce.orderservice.client.InventoryClient;
+import com.ecommerce.orderservice.cache.ProductStockView;
+import com.ecommerce.orderservice.client.InventoryGateway;
+import com.ecommerce.orderservice.client.InventoryResilience;
+import com.ecommerce.orderservice.dto.BatchOrderResultDTO;
 import com.ecommerce.orderservice.dto.CreateOrderDTO;
 import com.ecommerce.orderservice.dto.OrderDTO;
-import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
 import com.ecommerce.orderservice.dto.UpdateOrderDTO;
 import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.orderservice.intake.OrderIntakeJournal;
 import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.metrics.OrderMetrics;
 import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderOutbox;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
 import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
+    private final OrderOutboxRepository orderOutboxRepository;
     private final OrderMapper orderMapper;
-    private final InventoryClient inventoryClient;
+    private final InventoryGateway inventoryGateway;
+    private final ProductStockView productStockView;
+    private final OrderMetrics orderMetrics;
+    private final StockReleaser stockReleaser;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Optional<OrderIntakeJournal> orderIntakeJournal;
 
+    @Value("${orders.batch.max-size:500}")
+    private int maxBatchSize;
 
-    @Transactional
+    @Value("${orders.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${orders.stream.flush-every:500}")
+    private int streamFlushEvery;
+
+    /**
+     * Sin transacción alrededor de la llamada a inventory-service: solo el INSERT final usa una
+     * conexión del pool. Con el log de entrada activo la orden se confirma al estar en disco y se
+     * inserta después en lote; si no, se inserta con JPA en su propia transacción. Si la orden no
+     * llega a guardarse se libera su reserva de stock.
+     */
     public OrderDTO saveOrder(CreateOrderDTO request) {
-        // 1. Obtener y validar producto
-        ProductDTO product = inventoryClient.getProductBySku(request.getSku());
-        validateProduct(product, request);
+        return orderMetrics.placement(OrderMetrics.OPERATION_SINGLE, () -> placeOrder(request));
+    }
 
-        // 2. Actualizar stock
-        product.setQuantity(product.getQuantity() - request.getQuantity());
-        inventoryClient.updateProduct(request.getSku(), product);
+    private OrderDTO placeOrder(CreateOrderDTO request) {
+        String operation = OrderMetrics.OPERATION_SINGLE;
 
-        // 3. Crear orden
-        Order orderSave = orderRepository.save(orderMapper.createOrderDTO(request));
+        String error = validateLine(request);
+        if (error != null) {
+            throw new OrderExceptions.InvalidOrderException(error);
+        }
+
+        // 1. Rechazar sin llamada remota los productos que se saben inactivos o sin stock suficiente
+        Optional<BusinessException> localRejection = productStockView.rejection(request.getSku(), request.getQuantity());
+        if (localRejection.isPresent()) {
+            throw localRejection.get();
+        }
+
+        // 2. Reservar stock de forma atómica en inventory-service (una sola llamada)
+        StockReservationDTO line = new StockReservationDTO(request.getSku(), request.getQuantity(),
+                UUID.randomUUID().toString());
+        StockReservationResultDTO reservation = reserve(operation, List.of(line),
+                () -> inventoryGateway.reserveStock(line.getSku(), line.getQuantity(), line.getReservationId()));
+        Optional<BusinessException> rejection = orderMetrics.stage(operation, OrderMetrics.STAGE_VALIDATION, () -> {
+            productStockView.update(reservation);
+            return OrderExceptions.fromReservation(reservation, request.getSku(), request.getQuantity());
+        });
+        if (rejection.isPresent()) {
+            throw rejection.get();
+        }
+
+        // 3. Crear orden (en su propia transacción o en el siguiente lote del log)
+        Order order = orderMapper.createOrderDTO(request);
+        order.setStatus(OrderStatus.CONFIRMED);
+        Order orderSave;
+        try {
+            orderSave = orderMetrics.stage(operation, OrderMetrics.STAGE_PERSIST, () -> orderIntakeJournal
+                    .map(journal -> journal.submit(order))
+                    .orElseGet(() -> transactionTemplate.execute(status -> orderRepository.save(order))));
+        } catch (RuntimeException e) {
+            stockReleaser.release(List.of(line));
+            throw e;
+        }
 
         log.info("Orden creada exitosamente. ID: {}, SKU: {}, Cantidad: {}",
                 orderSave.getId(), request.getSku(), request.getQuantity());
@@ -43,9 +125,148 @@ public class OrderService {
         return orderMapper.orderDTO(orderSave);
     }
 
+    /**
+     * Crea varias órdenes con una única reserva de stock en lote y una única
+     * persistencia. Las líneas rechazadas no impiden que se creen las demás.
+     * Como en {@link #saveOrder}, la transacción solo cubre la persistencia.
+     */
+    public List<BatchOrderResultDTO> saveOrders(List<CreateOrderDTO> requests) {
+        return orderMetrics.placement(OrderMetrics.OPERATION_BATCH, () -> placeOrders(requests));
+    }
+
+    private List<BatchOrderResultDTO> placeOrders(List<CreateOrderDTO> requests) {
+        String operation = OrderMetrics.OPERATION_BATCH;
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new OrderExceptions.InvalidBatchSizeException(requests == null ? 0 : requests.size(), maxBatchSize);
+        }
+
+        BatchOrderResultDTO[] results = new BatchOrderResultDTO[requests.size()];
+
+        // 1. Validar líneas localmente; solo las válidas viajan a inventory-service
+        List<Integer> validLines = new ArrayList<>();
+        List<StockReservationDTO> reservations = new ArrayList<>();
+        orderMetrics.stage(operation, OrderMetrics.STAGE_VALIDATION, () -> {
+            for (int i = 0; i < requests.size(); i++) {
+                CreateOrderDTO request = requests.get(i);
+                String error = validateLine(request);
+                // Mismas excepciones que rechazarían una orden individual, contadas igual
+                Optional<BusinessException> localRejection = error != null
+                        ? Optional.of(new OrderExceptions.InvalidOrderException(error))
+                        : productStockView.rejection(request.getSku(), request.getQuantity());
+                if (localRejection.isPresent()) {
+                    orderMetrics.exception(localRejection.get());
+                    results[i] = rejected(i, request, localRejection.get().getMessage());
+                } else {
+                    validLines.add(i);
+                    reservations.add(new StockReservationDTO(request.getSku(), request.getQuantity(),
+                            UUID.randomUUID().toString()));
+                }
+            }
+        });
+
+        // 2. Reservar stock de todas las líneas válidas en una sola llamada
+        List<Integer> reservedLines = new ArrayList<>();
+        List<StockReservationDTO> reserved = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        if (!reservations.isEmpty()) {
+            List<StockReservationResultDTO> reservationResults = reserve(operation, reservations,
+                    () -> inventoryGateway.reserveStock(reservations));
+            for (int j = 0; j < validLines.size(); j++) {
+                int line = validLines.get(j);
+                CreateOrderDTO request = requests.get(line);
+                StockReservationResultDTO reservation = j < reservationResults.size() ? reservationResults.get(j) : null;
+                productStockView.update(reservation);
+
+                Optional<BusinessException> rejection = OrderExceptions.fromReservation(
+                        reservation, request.getSku(), request.getQuantity());
+                if (rejection.isPresent()) {
+                    orderMetrics.exception(rejection.get());
+                    results[line] = rejected(line, request, rejection.get().getMessage());
+                } else {
+                    reservedLines.add(line);
+                    reserved.add(reservations.get(j));
+                    Order order = orderMapper.createOrderDTO(request);
+                    order.setStatus(OrderStatus.CONFIRMED);
+                    orders.add(order);
+                }
+            }
+        }
+
+        // 3. Persistir todas las órdenes reservadas de una vez; si falla, se libera lo reservado
+        List<Order> saved;
+        try {
+            saved = orderMetrics.stage(operation, OrderMetrics.STAGE_PERSIST,
+                    () -> transactionTemplate.execute(status -> orderRepository.saveAll(orders)));
+        } catch (RuntimeException e) {
+            stockReleaser.release(reserved);
+            throw e;
+        }
+        for (int j = 0; j < saved.size(); j++) {
+            int line = reservedLines.get(j);
+            CreateOrderDTO request = requests.get(line);
+            results[line] = new BatchOrderResultDTO(line, request.getSku(), request.getQuantity(),
+                    true, "Orden creada", orderMapper.orderDTO(saved.get(j)));
+        }
+
+        log.info("Lote de órdenes procesado. Líneas: {}, creadas: {}, rechazadas: {}",
+                requests.size(), saved.size(), requests.size() - saved.size());
+
+        return List.of(results);
+    }
+
+    /**
+     * Llama a inventory-service para reservar. Si la llamada falla sin saber si se aplicó (timeout,
+     * 5xx) se liberan sus reservas por id: las que llegaron se devuelven y las que no ya no se aplicarán.
+     */
+    private <T> T reserve(String operation, List<StockReservationDTO> reservations, Supplier<T> call) {
+        try {
+            return orderMetrics.stage(operation, OrderMetrics.STAGE_INVENTORY_RESERVE, call);
+        } catch (RuntimeException e) {
+            if (InventoryResilience.mayHaveApplied(e)) {
+                stockReleaser.release(reservations);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Registra la orden como PENDING junto con su entrada en el outbox, sin llamar a inventory-service.
+     * {@link OrderOutboxDispatcher} reserva el stock en segundo plano y la confirma o la rechaza.
+     */
+    @Transactional
+    public OrderDTO placeOrderAsync(CreateOrderDTO request) {
+        return orderMetrics.placement(OrderMetrics.OPERATION_ASYNC, () -> registerPendingOrder(request));
+    }
+
+    private OrderDTO registerPendingOrder(CreateOrderDTO request) {
+        String error = validateLine(request);
+        if (error != null) {
+            throw new OrderExceptions.InvalidOrderException(error);
+        }
+
+        Optional<BusinessException> localRejection = productStockView.rejection(request.getSku(), request.getQuantity());
+        if (localRejection.isPresent()) {
+            throw localRejection.get();
+        }
+
+        Order order = orderMapper.createOrderDTO(request);
+        order.setStatus(OrderStatus.PENDING);
+        Order orderSave = orderMetrics.stage(OrderMetrics.OPERATION_ASYNC, OrderMetrics.STAGE_PERSIST, () -> {
+            Order pending = orderRepository.save(order);
+            orderOutboxRepository.save(new OrderOutbox(null, pending.getId(), request.getSku(),
+                    request.getQuantity(), UUID.randomUUID().toString(), 0, Instant.now(), null));
+            return pending;
+        });
+
+        log.info("Orden registrada como pendiente. ID: {}, SKU: {}, Cantidad: {}",
+                orderSave.getId(), request.getSku(), request.getQuantity());
+
+        return orderMapper.orderDTO(orderSave);
+    }
 
     public OrderDTO getOrder(Long id){
         Order order = orderRepository.findById(id)
+                .or(() -> orderIntakeJournal.flatMap(journal -> journal.findPending(id)))
                 .orElseThrow(() -> new OrderExceptions.OrderNotFoundException(id));
         return orderMapper.orderDTO(order);
 
@@ -79,19 +300,61 @@ public class OrderService {
         return orderMapper.orderDTOList(orderRepository.findAll());
     }
 
-    private void validateProduct(ProductDTO product, CreateOrderDTO request) {
-        if (product == null) {
-            throw new OrderExceptions.ProductNotFoundException(request.getSku());
+    /**
+     * Página de órdenes por keyset sobre el id: el coste no depende de la posición en la tabla.
+     */
+    public KeysetPage<OrderDTO> getOrdersPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Se pide un elemento extra solo para saber si hay más páginas
+        List<Order> orders = orderRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : 0L, Limit.of(pageSize + 1));
+
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+        String nextCursor = hasMore ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        return KeysetPage.of(orderMapper.orderDTOList(page), nextCursor);
+    }
+
+    /**
+     * Escribe todas las órdenes como NDJSON a medida que se leen de la base de datos.
+     * Cada entidad se desasocia tras escribirla, así la memoria no crece con el tamaño de la tabla.
+     */
+    @Transactional(readOnly = true)
+    public void streamOrders(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(OrderDTO.class);
+        try (Stream<Order> orders = orderRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Order> iterator = orders.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                out.write(writer.writeValueAsBytes(orderMapper.orderDTO(order)));
+                out.write('\n');
+                entityManager.detach(order);
+                if (++written % streamFlushEvery == 0) {
+                    out.flush();
+                }
+            }
         }
+        out.flush();
+    }
 
-        if (!product.isActive()) {
-            throw new OrderExceptions.ProductNotAvailableException(request.getSku());
+    static String validateLine(CreateOrderDTO request) {
+        if (request == null || request.getSku() == null || request.getSku().isBlank()) {
+            return "SKU es obligatorio";
         }
 
-        if (product.getQuantity() < request.getQuantity()) {
-            throw new OrderExceptions.InsufficientStockException(
-                    product.getQuantity(), request.getQuantity());
+        if (request.getQuantity() == null || request.getQuantity() < 1) {
+            return "La cantidad debe ser mayor a 0";
         }
+
+        return null;
+    }
+
+    static BatchOrderResultDTO rejected(int line, CreateOrderDTO request, String message) {
+        return new BatchOrderResultDTO(line,
+                request != null ? request.getSku() : null,
+                request != null ? request.getQuantity() : null,
+                false, message, null);
     }
 
 }
@@ -0,0 +1,108 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.cache.ProductStockView;
+import com.ecommerce.orderservice.client.InventoryClient;
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.ProductEventPageDTO;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantiene {@link ProductStockView} al día leyendo por polling el feed de eventos de producto
+ * de inventory-service. Al arrancar, al reiniciarse inventory-service o si el log ya descartó
+ * eventos pendientes, reconstruye la vista desde el catálogo.
+ * Las llamadas no pasan por el circuit breaker de las reservas: un fallo aquí solo deja
+ * la vista sin usar hasta que el feed vuelva a responder.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "inventory.events.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductEventConsumer {
+
+    private final InventoryClient inventoryClient;
+    private final ProductStockView productStockView;
+    private final AtomicLong lag = new AtomicLong();
+
+    @Value("${inventory.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.events.snapshot-page-size:1000}")
+    private int snapshotPageSize;
+
+    private String streamId;
+    private long cursor;
+    private boolean failing;
+
+    public ProductEventConsumer(InventoryClient inventoryClient, ProductStockView productStockView,
+                                MeterRegistry meterRegistry) {
+        this.inventoryClient = inventoryClient;
+        this.productStockView = productStockView;
+        Gauge.builder("inventory.events.lag", lag, AtomicLong::get)
+                .description("Eventos de producto publicados y aún no aplicados en la vista local")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.events.poll-delay-ms:500}")
+    public void poll() {
+        try {
+            if (streamId == null) {
+                rebuild();
+            }
+            ProductEventPageDTO page;
+            do {
+                page = inventoryClient.getProductEvents(streamId, cursor, batchSize);
+                if (page.isTruncated()) {
+                    log.warn("Se perdieron eventos de producto después de {}; se reconstruye la vista", cursor);
+                    rebuild();
+                    return;
+                }
+                page.getEvents().forEach(productStockView::apply);
+                cursor = page.getCursor();
+                lag.set(page.getLastSequence() - cursor);
+            } while (page.getEvents().size() == batchSize);
+
+            productStockView.markSynced();
+            if (failing) {
+                log.info("Feed de eventos de inventory-service recuperado");
+                failing = false;
+            }
+        } catch (RuntimeException e) {
+            if (!failing) {
+                log.warn("No se pudo leer el feed de eventos de inventory-service: {}", e.getMessage());
+                failing = true;
+            }
+        }
+    }
+
+    /**
+     * Fija primero la posición actual del feed y después carga el catálogo: los eventos
+     * posteriores a esa posición se aplican encima y la vista conserva la versión mayor.
+     */
+    private void rebuild() {
+        productStockView.reset();
+        streamId = null;
+        ProductEventPageDTO head = inventoryClient.getProductEvents(null, 0, 0);
+
+        int loaded = 0;
+        String after = null;
+        KeysetPage<ProductDTO> products;
+        do {
+            products = inventoryClient.getProductsPage(after, snapshotPageSize);
+            products.getItems().forEach(productStockView::apply);
+            loaded += products.getItems().size();
+            after = products.getNextCursor();
+        } while (products.isHasMore());
+
+        streamId = head.getStreamId();
+        cursor = head.getLastSequence();
+        log.info("Vista de stock reconstruida con {} productos desde la secuencia {}", loaded, cursor);
+    }
+}
@@ -0,0 +1,266 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.cache.ProductStockView;
+import com.ecommerce.orderservice.client.InventoryResilience;
+import com.ecommerce.orderservice.client.ReactiveInventoryClient;
+import com.ecommerce.orderservice.dto.BatchOrderResultDTO;
+import com.ecommerce.orderservice.dto.CreateOrderDTO;
+import com.ecommerce.orderservice.dto.OrderDTO;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.dto.UpdateOrderDTO;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.metrics.OrderMetrics;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.models.ReactiveOrder;
+import com.ecommerce.orderservice.repository.ReactiveOrderRepository;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import com.ecommerce.sharedlib.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Variante no bloqueante de {@link OrderService} para el perfil {@code reactive} (WebFlux + R2DBC).
+ * La reserva remota nunca se hace dentro de una transacción: no se retiene ninguna conexión de
+ * base de datos mientras se espera a inventory-service. Si una orden reservada no llega a guardarse
+ * se libera su reserva; este perfil no tiene outbox, así que una liberación fallida solo se registra.
+ * Registra las mismas métricas que {@link OrderService} ({@link OrderMetrics}).
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOrderService {
+    private final ReactiveOrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ReactiveInventoryClient inventoryClient;
+    private final ProductStockView productStockView;
+    private final OrderMetrics orderMetrics;
+    private final TransactionalOperator transactionalOperator;
+
+    @Value("${orders.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${orders.page.max-size:1000}")
+    private int maxPageSize;
+
+    public Mono<OrderDTO> saveOrder(CreateOrderDTO request) {
+        return orderMetrics.placement(OrderMetrics.OPERATION_SINGLE, Mono.defer(() -> placeOrder(request)));
+    }
+
+    private Mono<OrderDTO> placeOrder(CreateOrderDTO request) {
+        String operation = OrderMetrics.OPERATION_SINGLE;
+
+        String error = OrderService.validateLine(request);
+        if (error != null) {
+            return Mono.error(new OrderExceptions.InvalidOrderException(error));
+        }
+
+        // 1. Rechazar sin llamada remota los productos que se saben inactivos o sin stock suficiente
+        Optional<BusinessException> localRejection = productStockView.rejection(request.getSku(), request.getQuantity());
+        if (localRejection.isPresent()) {
+            return Mono.error(localRejection.get());
+        }
+
+        // 2. Reservar stock y 3. crear la orden, sin bloquear ningún hilo
+        StockReservationDTO line = new StockReservationDTO(request.getSku(), request.getQuantity(),
+                UUID.randomUUID().toString());
+        return orderMetrics.stage(operation, OrderMetrics.STAGE_INVENTORY_RESERVE,
+                        inventoryClient.reserveStock(line.getSku(), line.getQuantity(), line.getReservationId()))
+                .onErrorResume(e -> releaseIfApplied(List.of(line), e))
+                .flatMap(reservation -> {
+                    Optional<BusinessException> rejection = orderMetrics.stage(operation, OrderMetrics.STAGE_VALIDATION, () -> {
+                        productStockView.update(reservation);
+                        return OrderExceptions.fromReservation(reservation, request.getSku(), request.getQuantity());
+                    });
+                    if (rejection.isPresent()) {
+                        return Mono.error(rejection.get());
+                    }
+
+                    ReactiveOrder order = orderMapper.reactiveOrder(request);
+                    order.setStatus(OrderStatus.CONFIRMED);
+                    return orderMetrics.stage(operation, OrderMetrics.STAGE_PERSIST, orderRepository.save(order))
+                            .onErrorResume(e -> release(List.of(line)).then(Mono.error(e)));
+                })
+                .doOnNext(orderSave -> log.info("Orden creada exitosamente. ID: {}, SKU: {}, Cantidad: {}",
+                        orderSave.getId(), request.getSku(), request.getQuantity()))
+                .map(orderMapper::orderDTO);
+    }
+
+    /**
+     * Igual que {@link OrderService#saveOrders}: una reserva en lote y una única transacción,
+     * que solo cubre la persistencia de las órdenes reservadas.
+     */
+    public Mono<List<BatchOrderResultDTO>> saveOrders(List<CreateOrderDTO> requests) {
+        return orderMetrics.placement(OrderMetrics.OPERATION_BATCH, Mono.defer(() -> placeOrders(requests)));
+    }
+
+    private Mono<List<BatchOrderResultDTO>> placeOrders(List<CreateOrderDTO> requests) {
+        String operation = OrderMetrics.OPERATION_BATCH;
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            return Mono.error(new OrderExceptions.InvalidBatchSizeException(
+                    requests == null ? 0 : requests.size(), maxBatchSize));
+        }
+
+        BatchOrderResultDTO[] results = new BatchOrderResultDTO[requests.size()];
+
+        // 1. Validar líneas localmente; solo las válidas viajan a inventory-service
+        List<Integer> validLines = new ArrayList<>();
+        List<StockReservationDTO> reservations = new ArrayList<>();
+        orderMetrics.stage(operation, OrderMetrics.STAGE_VALIDATION, () -> {
+            for (int i = 0; i < requests.size(); i++) {
+                CreateOrderDTO request = requests.get(i);
+                String error = OrderService.validateLine(request);
+                // Mismas excepciones que rechazarían una orden individual, contadas igual
+                Optional<BusinessException> localRejection = error != null
+                        ? Optional.of(new OrderExceptions.InvalidOrderException(error))
+                        : productStockView.rejection(request.getSku(), request.getQuantity());
+                if (localRejection.isPresent()) {
+                    orderMetrics.exception(localRejection.get());
+                    results[i] = OrderService.rejected(i, request, localRejection.get().getMessage());
+                } else {
+                    validLines.add(i);
+                    reservations.add(new StockReservationDTO(request.getSku(), request.getQuantity(),
+                            UUID.randomUUID().toString()));
+                }
+            }
+        });
+
+        // 2. Reservar stock de todas las líneas válidas en una sola llamada
+        Mono<List<StockReservationResultDTO>> reserved = reservations.isEmpty()
+                ? Mono.just(List.of())
+                : orderMetrics.stage(operation, OrderMetrics.STAGE_INVENTORY_RESERVE,
+                                inventoryClient.reserveStock(reservations))
+                        .onErrorResume(e -> releaseIfApplied(reservations, e));
+
+        return reserved.flatMap(reservationResults -> {
+            List<Integer> reservedLines = new ArrayList<>();
+            List<StockReservationDTO> reservedStock = new ArrayList<>();
+            List<ReactiveOrder> orders = new ArrayList<>();
+            for (int j = 0; j < validLines.size(); j++) {
+                int line = validLines.get(j);
+                CreateOrderDTO request = requests.get(line);
+                StockReservationResultDTO reservation = j < reservationResults.size() ? reservationResults.get(j) : null;
+                productStockView.update(reservation);
+
+                Optional<BusinessException> rejection = OrderExceptions.fromReservation(
+                        reservation, request.getSku(), request.getQuantity());
+                if (rejection.isPresent()) {
+                    orderMetrics.exception(rejection.get());
+                    results[line] = OrderService.rejected(line, request, rejection.get().getMessage());
+                } else {
+                    reservedLines.add(line);
+                    reservedStock.add(reservations.get(j));
+                    ReactiveOrder order = orderMapper.reactiveOrder(request);
+                    order.setStatus(OrderStatus.CONFIRMED);
+                    orders.add(order);
+                }
+            }
+
+            // 3. Persistir todas las órdenes reservadas de una vez; si falla, se libera lo reservado
+            return orderMetrics.stage(operation, OrderMetrics.STAGE_PERSIST,
+                            transactionalOperator.transactional(orderRepository.saveAll(orders).collectList()))
+                    .onErrorResume(e -> release(reservedStock).then(Mono.error(e)))
+                    .map(saved -> {
+                        for (int j = 0; j < saved.size(); j++) {
+                            int line = reservedLines.get(j);
+                            CreateOrderDTO request = requests.get(line);
+                            results[line] = new BatchOrderResultDTO(line, request.getSku(), request.getQuantity(),
+                                    true, "Orden creada", orderMapper.orderDTO(saved.get(j)));
+                        }
+
+                        log.info("Lote de órdenes procesado. Líneas: {}, creadas: {}, rechazadas: {}",
+                                requests.size(), saved.size(), requests.size() - saved.size());
+
+                        return List.of(results);
+                    });
+        });
+    }
+
+    /**
+     * Como en {@link OrderService}: si la reserva falló sin saber si se aplicó, se libera por id.
+     */
+    private <T> Mono<T> releaseIfApplied(List<StockReservationDTO> reservations, Throwable failure) {
+        Mono<Void> release = InventoryResilience.mayHaveApplied(failure) ? release(reservations) : Mono.empty();
+        return release.then(Mono.error(failure));
+    }
+
+    private Mono<Void> release(List<StockReservationDTO> reservations) {
+        if (reservations.isEmpty()) {
+            return Mono.empty();
+        }
+        return inventoryClient.releaseStock(reservations)
+                .doOnNext(released -> log.info("Liberadas {} reservas de stock de órdenes no creadas", released.size()))
+                .onErrorResume(e -> {
+                    log.error("Reservas de stock sin liberar: {}",
+                            reservations.stream().map(StockReservationDTO::getReservationId).toList(), e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public Mono<OrderDTO> getOrder(Long id) {
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new OrderExceptions.OrderNotFoundException(id)))
+                .map(orderMapper::orderDTO);
+    }
+
+    public Mono<Void> deleteOrder(Long id) {
+        return orderRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? orderRepository.deleteById(id)
+                        : Mono.error(new OrderExceptions.OrderNotFoundException(id)));
+    }
+
+    public Mono<OrderDTO> updateOrder(Long id, UpdateOrderDTO request) {
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new OrderExceptions.OrderNotFoundException(id)))
+                .flatMap(existingOrder -> {
+                    // Usar el mapper para actualizar solo los campos permitidos
+                    orderMapper.updateOrderFromDTO(request, existingOrder);
+                    return orderRepository.save(existingOrder);
+                })
+                .doOnNext(updatedOrder -> log.info("Orden actualizada exitosamente. ID: {}, SKU: {}, Cantidad: {}",
+                        updatedOrder.getId(), updatedOrder.getSku(), updatedOrder.getQuantity()))
+                .map(orderMapper::orderDTO);
+    }
+
+    /**
+     * Todas las órdenes por id ascendente; el controlador las emite como array JSON o como NDJSON
+     * a medida que llegan de la base de datos, con contrapresión.
+     */
+    public Flux<OrderDTO> getAllOrders() {
+        return orderRepository.findAll(Sort.by("id"))
+                .map(orderMapper::orderDTO);
+    }
+
+    /**
+     * Página de órdenes por keyset sobre el id: el coste no depende de la posición en la tabla.
+     */
+    public Mono<KeysetPage<OrderDTO>> getOrdersPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Se pide un elemento extra solo para saber si hay más páginas
+        return orderRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(pageSize + 1))
+                .collectList()
+                .map(orders -> {
+                    boolean hasMore = orders.size() > pageSize;
+                    List<ReactiveOrder> page = hasMore ? orders.subList(0, pageSize) : orders;
+                    String nextCursor = hasMore ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+                    return KeysetPage.of(page.stream().map(orderMapper::orderDTO).toList(), nextCursor);
+                });
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.client.InventoryGateway;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.models.StockRelease;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Devuelve a inventory-service el stock reservado para órdenes que no llegaron a crearse.
+ * Libera en el momento y, si inventory-service no responde, guarda la liberación en
+ * {@code stock_release_outbox} y la reintenta en segundo plano hasta que se confirme.
+ * Liberar es idempotente por id de reserva, así que varias instancias pueden reintentar la misma.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class StockReleaser {
+
+    private final StockReleaseRepository stockReleaseRepository;
+    private final InventoryGateway inventoryGateway;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.stock-release.batch-size:100}")
+    private int batchSize;
+
+    @Value("${orders.stock-release.retry-backoff:5s}")
+    private Duration retryBackoff;
+
+    @Value("${orders.stock-release.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    public void release(List<StockReservationDTO> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        try {
+            inventoryGateway.releaseStock(reservations);
+            log.info("Liberadas {} reservas de stock de órdenes no creadas", reservations.size());
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron liberar {} reservas de stock; se reintentarán: {}",
+                    reservations.size(), e.getMessage());
+            defer(reservations);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stock-release.fixed-delay-ms:5000}")
+    public void retryPending() {
+        List<StockRelease> due = stockReleaseRepository.findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                Instant.now(), Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            inventoryGateway.releaseStock(due.stream().map(StockRelease::toReservation).toList());
+        } catch (RuntimeException e) {
+            log.warn("Siguen sin liberarse {} reservas de stock: {}", due.size(), e.getMessage());
+            Instant now = Instant.now();
+            due.forEach(release -> {
+                release.setAttempts(release.getAttempts() + 1);
+                release.setNextAttemptAt(now.plus(backoff(release.getAttempts())));
+            });
+            transactionTemplate.executeWithoutResult(status -> stockReleaseRepository.saveAll(due));
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> stockReleaseRepository.deleteAllInBatch(due));
+        log.info("Liberadas {} reservas de stock pendientes", due.size());
+    }
+
+    private void defer(List<StockReservationDTO> reservations) {
+        Instant next = Instant.now().plus(retryBackoff);
+        List<StockRelease> pending = reservations.stream()
+                .map(reservation -> new StockRelease(reservation.getReservationId(), reservation.getSku(),
+                        reservation.getQuantity(), 0, next))
+                .toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> stockReleaseRepository.saveAll(pending));
+        } catch (RuntimeException e) {
+            // Sin base de datos tampoco se puede reintentar: el stock queda retenido hasta liberarlo a mano
+            log.error("Reservas de stock sin liberar: {}",
+                    reservations.stream().map(StockReservationDTO::getReservationId).toList(), e);
+        }
+    }
+
+    /**
+     * Espera lineal según el número de intentos, con tope en {@code max-backoff}.
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = retryBackoff.multipliedBy(attempts);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
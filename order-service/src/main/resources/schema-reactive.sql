@@ -0,0 +1,8 @@
+-- Esquema de la tabla de órdenes para el perfil reactive (R2DBC no genera DDL)
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sku VARCHAR(255),
+    quantity INT,
+    status VARCHAR(16),
+    status_reason VARCHAR(255)
+);
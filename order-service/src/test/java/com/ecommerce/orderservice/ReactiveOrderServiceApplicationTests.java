@@ -0,0 +1,77 @@
+package com.ecommerce.orderservice;
+
+import com.ecommerce.orderservice.dto.CreateOrderDTO;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.orderservice.metrics.OrderMetrics;
+import com.ecommerce.orderservice.service.ReactiveOrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Arranque con el perfil reactive (WebFlux + R2DBC) y métricas de creación de órdenes en ese perfil.
+ * Las órdenes de estos tests se rechazan antes de llamar a inventory-service.
+ */
+@SpringBootTest(properties = "eureka.client.enabled=false")
+@ActiveProfiles("reactive")
+class ReactiveOrderServiceApplicationTests {
+
+    @Autowired
+    private ReactiveOrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void contextLoads() {
+    }
+
+    @Test
+    void rejectedOrderIsTimedAsRejected() {
+        long before = placements(OrderMetrics.OPERATION_SINGLE, "rejected");
+
+        assertThatThrownBy(() -> orderService.saveOrder(order("pro1", 0)).block())
+                .isInstanceOf(OrderExceptions.InvalidOrderException.class);
+
+        assertThat(placements(OrderMetrics.OPERATION_SINGLE, "rejected")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void batchLinesRejectedLocallyAreCounted() {
+        double before = invalidOrders();
+        long validations = meterRegistry.timer("order.placement.stage",
+                "operation", OrderMetrics.OPERATION_BATCH, "stage", OrderMetrics.STAGE_VALIDATION).count();
+
+        assertThat(orderService.saveOrders(List.of(order("pro1", 0), order(" ", 1))).block())
+                .allSatisfy(result -> assertThat(result.isSuccess()).isFalse());
+
+        assertThat(invalidOrders()).isEqualTo(before + 2);
+        assertThat(placements(OrderMetrics.OPERATION_BATCH, "success")).isPositive();
+        assertThat(meterRegistry.timer("order.placement.stage",
+                "operation", OrderMetrics.OPERATION_BATCH, "stage", OrderMetrics.STAGE_VALIDATION).count())
+                .isEqualTo(validations + 1);
+    }
+
+    private long placements(String operation, String outcome) {
+        return meterRegistry.timer("order.placement", "operation", operation, "outcome", outcome).count();
+    }
+
+    private double invalidOrders() {
+        return meterRegistry.counter("order.exceptions",
+                "type", OrderExceptions.InvalidOrderException.class.getSimpleName(), "status", "400").count();
+    }
+
+    private static CreateOrderDTO order(String sku, int quantity) {
+        CreateOrderDTO order = new CreateOrderDTO();
+        order.setSku(sku);
+        order.setQuantity(quantity);
+        return order;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.orderservice.benchmark;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Copia de {@code Order} con la estrategia IDENTITY anterior, usada solo como línea base del benchmark.
+ */
+@Entity
+@Table(name = "orders_identity")
+@Data
+@NoArgsConstructor
+public class IdentityOrder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String sku;
+
+    private Integer quantity;
+}
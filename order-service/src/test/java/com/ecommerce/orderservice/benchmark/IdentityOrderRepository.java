@@ -0,0 +1,6 @@
+package com.ecommerce.orderservice.benchmark;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IdentityOrderRepository extends JpaRepository<IdentityOrder, Long> {
+}
@@ -0,0 +1,194 @@
+package com.ecommerce.orderservice.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput de creación de órdenes (POST /api/v1/order) según la concurrencia, con un
+ * inventory-service simulado que responde tras una latencia fija.
+ * Se ejecuta con {@code mvn test -Pbenchmark -pl order-service -am}; parámetros por propiedades de sistema:
+ * <ul>
+ *     <li>{@code loadtest.latency-ms}: latencia inyectada en inventory-service (50)</li>
+ *     <li>{@code loadtest.concurrency}: niveles de concurrencia separados por comas (8,32,128,256)</li>
+ *     <li>{@code loadtest.duration-s}: duración de cada nivel en segundos (5)</li>
+ *     <li>{@code loadtest.tomcat-threads}: máximo de hilos de Tomcat (200)</li>
+ *     <li>{@code loadtest.db-pool}: tamaño del pool de Hikari (10)</li>
+ * </ul>
+ * {@code saveOrder} solo toma una conexión JDBC para el INSERT, después de la llamada a
+ * inventory-service, así que {@code db-pool} ya no limita el throughput a {@code db-pool / latencia}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "orders.async.dispatcher.enabled=false",
+        "logging.level.com.ecommerce=WARN"
+})
+class OrderCreationLoadTest {
+
+    private static final int LATENCY_MS = Integer.getInteger("loadtest.latency-ms", 50);
+    private static final int DURATION_S = Integer.getInteger("loadtest.duration-s", 5);
+    private static final int TOMCAT_THREADS = Integer.getInteger("loadtest.tomcat-threads", 200);
+    private static final int DB_POOL = Integer.getInteger("loadtest.db-pool", 10);
+    private static final int[] CONCURRENCY = Arrays.stream(
+                    System.getProperty("loadtest.concurrency", "8,32,128,256").split(","))
+            .map(String::trim)
+            .mapToInt(Integer::parseInt)
+            .toArray();
+
+    private static final HttpServer INVENTORY = startInventoryStub();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.inventory-service[0].uri",
+                () -> "http://localhost:" + INVENTORY.getAddress().getPort());
+        registry.add("server.tomcat.threads.max", () -> TOMCAT_THREADS);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> DB_POOL);
+    }
+
+    @AfterAll
+    static void stopInventory() {
+        INVENTORY.stop(0);
+    }
+
+    @Test
+    void throughputByConcurrency() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/order"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"sku\":\"load-1\",\"quantity\":1}"))
+                .build();
+
+        // Calentamiento: JIT, pool de conexiones y caches
+        run(client, request, 8, 2);
+
+        log.warn("Hilos de Tomcat: {}, latencia inventario: {} ms, pool JDBC: {}",
+                TOMCAT_THREADS, LATENCY_MS, DB_POOL);
+        log.warn(String.format("%12s %12s %10s %10s %10s %8s", "concurrencia", "req/s", "p50 ms", "p99 ms", "max ms", "errores"));
+        for (int concurrency : CONCURRENCY) {
+            Result result = run(client, request, concurrency, DURATION_S);
+            log.warn(String.format("%12d %12.1f %10.1f %10.1f %10.1f %8d", concurrency, result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors()));
+            assertThat(result.latenciesNanos().length).isPositive();
+        }
+    }
+
+    private Result run(HttpClient client, HttpRequest request, int concurrency, int seconds) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<List<Long>> latencies = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofSeconds(seconds).toNanos();
+
+        for (int i = 0; i < concurrency; i++) {
+            List<Long> samples = new ArrayList<>();
+            latencies.add(samples);
+            workers.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                samples.add(System.nanoTime() - begin);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+
+        long[] all = latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+        return new Result(all, errors.get(), all.length / (elapsed / 1e9));
+    }
+
+    /**
+     * inventory-service simulado: responde RESERVED a cualquier reserva tras la latencia configurada.
+     */
+    private static HttpServer startInventoryStub() {
+        try {
+            // Sin TCP_NODELAY el servidor del JDK suma ~40 ms por respuesta (Nagle + ACK retardado)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/inventory/", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                try {
+                    Thread.sleep(LATENCY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"sku\":\"load-1\",\"status\":\"RESERVED\",\"requested\":1,\"available\":1000000,"
+                        + "\"product\":{\"sku\":\"load-1\",\"name\":\"Load\",\"active\":true,\"price\":1.0,"
+                        + "\"category\":\"load\",\"quantity\":1000000,\"version\":1}}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo iniciar el inventory-service simulado", e);
+        }
+    }
+
+    private record Result(long[] latenciesNanos, long errors, double throughput) {
+
+        double percentile(double p) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.orderservice.benchmark;
+
+import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput de inserción de órdenes en H2 embebido: IDENTITY (sin batching JDBC)
+ * frente a la secuencia pooled de {@link Order}. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderInsertBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IdentityOrderRepository identityOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertThroughput() {
+        double identity = measure("IDENTITY", () -> identityOrderRepository.saveAll(identityOrders()));
+        double sequence = measure("SEQUENCE pooled", () -> orderRepository.saveAll(orders()));
+
+        log.info("Mejora de throughput SEQUENCE/IDENTITY: {}x", String.format("%.2f", sequence / identity));
+
+        long expected = (long) ROWS * (WARMUP_ROUNDS + ROUNDS);
+        assertThat(identityOrderRepository.count()).isEqualTo(expected);
+        assertThat(orderRepository.count()).isEqualTo(expected);
+    }
+
+    private double measure(String label, Runnable insert) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            tx.executeWithoutResult(status -> insert.run());
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            tx.executeWithoutResult(status -> insert.run());
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double rowsPerSecond = ROWS * ROUNDS / seconds;
+
+        log.info("{}: {} filas/s, {} sentencias preparadas para {} filas",
+                label, String.format("%.0f", rowsPerSecond), statistics.getPrepareStatementCount(), ROWS * ROUNDS);
+        return rowsPerSecond;
+    }
+
+    private List<IdentityOrder> identityOrders() {
+        List<IdentityOrder> orders = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            IdentityOrder order = new IdentityOrder();
+            order.setSku("sku-" + (i % 100));
+            order.setQuantity(1 + i % 5);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private List<Order> orders() {
+        List<Order> orders = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            orders.add(new Order(null, "sku-" + (i % 100), 1 + i % 5, OrderStatus.CONFIRMED, null));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.orderservice.controller;
+
+import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.handler;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Qué handler de {@link OrderController} atiende cada listado según Accept y {@code size}, y
+ * recorrido completo de las páginas por keyset.
+ */
+@SpringBootTest(properties = {"eureka.client.enabled=false", "spring.jpa.show-sql=false"})
+@AutoConfigureMockMvc
+class OrderControllerTest {
+
+    private static final String ORDERS = "/api/v1/order";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void createOrders() {
+        IntStream.rangeClosed(1, 5).forEach(quantity -> created.add(orderRepository.save(
+                new Order(null, "pro1", quantity, OrderStatus.CONFIRMED, null)).getId()));
+    }
+
+    @Test
+    void anyJsonOrMissingAcceptGetsTheJsonArray() throws Exception {
+        for (String accept : new String[]{MediaType.ALL_VALUE, MediaType.APPLICATION_JSON_VALUE, null}) {
+            list(ORDERS, accept)
+                    .andExpect(status().isOk())
+                    .andExpect(handler().methodName("getAllOrders"))
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$").isArray());
+        }
+    }
+
+    @Test
+    void ndjsonGetsTheStreamWithOneOrderPerLine() throws Exception {
+        MvcResult started = list(ORDERS, MediaType.APPLICATION_NDJSON_VALUE)
+                .andExpect(handler().methodName("streamOrders"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            ids.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertThat(ids).hasSize((int) orderRepository.count()).containsAll(created).isSorted();
+    }
+
+    @Test
+    void sizeSelectsTheKeysetPageWhichIsOnlyJson() throws Exception {
+        for (String accept : new String[]{MediaType.ALL_VALUE, MediaType.APPLICATION_JSON_VALUE, null}) {
+            list(ORDERS + "?size=2", accept)
+                    .andExpect(status().isOk())
+                    .andExpect(handler().methodName("getOrdersPage"))
+                    .andExpect(jsonPath("$.items.length()").value(2));
+        }
+        // El parámetro size gana al produces del stream; la página no se sirve como NDJSON
+        list(ORDERS + "?size=2", MediaType.APPLICATION_NDJSON_VALUE)
+                .andExpect(status().isNotAcceptable())
+                .andExpect(handler().methodName("getOrdersPage"));
+    }
+
+    @Test
+    void keysetCursorWalksEveryOrderOnceInIdOrder() throws Exception {
+        List<Long> walked = new ArrayList<>();
+        String after = String.valueOf(created.get(0) - 1);
+        do {
+            JsonNode page = objectMapper.readTree(list(ORDERS + "?size=2&after=" + after, null)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(order -> walked.add(order.get("id").asLong()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertThat(page.get("hasMore").asBoolean()).isEqualTo(after != null);
+        } while (after != null);
+
+        // Las órdenes de otros tests tienen ids menores: el recorrido empieza en las creadas aquí
+        assertThat(walked).isEqualTo(created);
+    }
+
+    @AfterEach
+    void deleteOrders() {
+        orderRepository.deleteAllById(created);
+    }
+
+    private ResultActions list(String uri, String accept) throws Exception {
+        return mockMvc.perform(accept != null ? get(uri).header(HttpHeaders.ACCEPT, accept) : get(uri));
+    }
+}
@@ -0,0 +1,207 @@
+package com.ecommerce.orderservice.idempotency;
+
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.orderservice.models.IdempotencyRecord;
+import com.ecommerce.orderservice.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Casos de {@link IdempotencyStore} sobre H2. Dos almacenes sobre la misma base de datos hacen de
+ * dos instancias de order-service.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTest {
+
+    private static final String SCOPE = "ana";
+    private static final String KEY = "key-1";
+    private static final Map<String, Object> REQUEST = Map.of("sku", "pro1", "quantity", 1);
+
+    record Response(String value) {
+    }
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstRequestAndReplayIt() throws InterruptedException {
+        IdempotencyStore store = store(Duration.ofSeconds(10));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Response> action = () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return new Response("order-1");
+        };
+
+        CompletableFuture<IdempotencyStore.Outcome<Response>> first =
+                CompletableFuture.supplyAsync(() -> store.execute(SCOPE, KEY, REQUEST, Response.class, action));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<IdempotencyStore.Outcome<Response>>> duplicates = IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> store.execute(SCOPE, KEY, REQUEST, Response.class, action)))
+                .toList();
+        release.countDown();
+
+        assertThat(first.join()).isEqualTo(new IdempotencyStore.Outcome<>(new Response("order-1"), false));
+        assertThat(duplicates).allSatisfy(duplicate -> assertThat(duplicate.join())
+                .isEqualTo(new IdempotencyStore.Outcome<>(new Response("order-1"), true)));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsRejected() {
+        IdempotencyStore store = store(Duration.ofSeconds(10));
+        store.execute(SCOPE, KEY, REQUEST, Response.class, () -> new Response("order-1"));
+
+        Map<String, Object> other = Map.of("sku", "pro1", "quantity", 2);
+        assertThatThrownBy(() -> store.execute(SCOPE, KEY, other, Response.class, () -> new Response("order-2")))
+                .isInstanceOf(OrderExceptions.IdempotencyKeyReusedException.class);
+        // Tampoco desde la base de datos, en otra instancia
+        assertThatThrownBy(() -> store(Duration.ofSeconds(10))
+                .execute(SCOPE, KEY, other, Response.class, () -> new Response("order-2")))
+                .isInstanceOf(OrderExceptions.IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void actionThatSurelyFailedReleasesTheKey() {
+        IdempotencyStore store = store(Duration.ofSeconds(10));
+        // Rechazo de negocio y conexión rechazada: inventory-service no aplicó nada
+        assertThatThrownBy(() -> store.execute(SCOPE, KEY, REQUEST, Response.class, () -> {
+            throw new OrderExceptions.InsufficientStockException(0, 1);
+        })).isInstanceOf(OrderExceptions.InsufficientStockException.class);
+        assertThat(repository.findById(id())).isEmpty();
+        assertThatThrownBy(() -> store.execute(SCOPE, KEY, REQUEST, Response.class, () -> {
+            throw new IllegalStateException(new ConnectException("Connection refused"));
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(repository.findById(id())).isEmpty();
+
+        assertThat(store.execute(SCOPE, KEY, REQUEST, Response.class, () -> new Response("order-1")))
+                .isEqualTo(new IdempotencyStore.Outcome<>(new Response("order-1"), false));
+    }
+
+    @Test
+    void actionThatMayHaveBeenAppliedKeepsTheKeyClaimed() {
+        IdempotencyStore store = store(Duration.ofSeconds(10));
+        AtomicInteger executions = new AtomicInteger();
+        assertThatThrownBy(() -> store.execute(SCOPE, KEY, REQUEST, Response.class, () -> {
+            executions.incrementAndGet();
+            throw new OrderExceptions.InventoryUnavailableException(new TimeoutException());
+        })).isInstanceOf(OrderExceptions.InventoryUnavailableException.class);
+        assertThat(repository.findById(id())).hasValueSatisfying(record ->
+                assertThat(record.getStatus()).isEqualTo(IdempotencyRecord.Status.IN_PROGRESS));
+
+        // El reintento no vuelve a ejecutar la operación mientras la clave no venza
+        assertThatThrownBy(() -> store(Duration.ofMillis(300)).execute(SCOPE, KEY, REQUEST, Response.class, () -> {
+            executions.incrementAndGet();
+            return new Response("order-2");
+        })).isInstanceOf(OrderExceptions.IdempotentRequestInProgressException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void expiredInProgressClaimIsTakenOver() {
+        // Reclamo de una instancia que murió sin terminar
+        repository.save(new IdempotencyRecord(id(), "hash-of-crashed-request", IdempotencyRecord.Status.IN_PROGRESS,
+                null, Instant.now().minusSeconds(1)));
+
+        IdempotencyStore store = store(Duration.ofSeconds(10));
+        assertThat(store.execute(SCOPE, KEY, REQUEST, Response.class, () -> new Response("order-1")))
+                .isEqualTo(new IdempotencyStore.Outcome<>(new Response("order-1"), false));
+        assertThat(repository.findById(id())).hasValueSatisfying(record ->
+                assertThat(record.getStatus()).isEqualTo(IdempotencyRecord.Status.COMPLETED));
+    }
+
+    @Test
+    void duplicateOnAnotherInstancePollsUntilTheFirstCompletes() throws InterruptedException {
+        IdempotencyStore first = store(Duration.ofSeconds(10));
+        IdempotencyStore second = store(Duration.ofSeconds(10));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<IdempotencyStore.Outcome<Response>> leader = CompletableFuture.supplyAsync(
+                () -> first.execute(SCOPE, KEY, REQUEST, Response.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return new Response("order-1");
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<IdempotencyStore.Outcome<Response>> duplicate = CompletableFuture.supplyAsync(
+                () -> second.execute(SCOPE, KEY, REQUEST, Response.class, () -> new Response("order-2")));
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(leader.join().replayed()).isFalse();
+        assertThat(duplicate.join()).isEqualTo(new IdempotencyStore.Outcome<>(new Response("order-1"), true));
+    }
+
+    @Test
+    void duplicateOnAnotherInstanceGivesUpAfterInProgressTimeout() {
+        repository.save(new IdempotencyRecord(id(), "hash-of-running-request", IdempotencyRecord.Status.IN_PROGRESS,
+                null, Instant.now().plusSeconds(30)));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> store(Duration.ofMillis(300))
+                .execute(SCOPE, KEY, REQUEST, Response.class, () -> new Response("order-1")))
+                .isInstanceOf(OrderExceptions.IdempotentRequestInProgressException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    private IdempotencyStore store(Duration inProgressTimeout) {
+        return new IdempotencyStore(repository, entityManager, transactionManager, objectMapper,
+                new SimpleMeterRegistry(), Duration.ofHours(1), inProgressTimeout, Duration.ofMillis(20), 100);
+    }
+
+    private static String id() {
+        return SCOPE + ":" + KEY;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.orderservice.intake;
+
+import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderIntakeCheckpointRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recuperación del log de entrada de órdenes tras una caída: cada escenario detiene el journal
+ * sin cerrarlo ({@link OrderIntakeJournal#halt}) y abre otro sobre el mismo directorio.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIntakeJournalTest {
+
+    // Sin aplicación periódica: cada test decide cuándo se inserta
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderIntakeCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void acknowledgedOrdersSurviveCrashWithTornBatch() throws IOException {
+        OrderIntakeJournal journal = open();
+        // Envíos concurrentes para que el escritor los agrupe en lotes
+        List<Order> acknowledged = IntStream.range(0, 40)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> journal.submit(order("sku-" + i, i + 1))))
+                .toList()
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+        assertThat(journal.findPending(acknowledged.get(0).getId())).isPresent();
+
+        // Muere con el siguiente lote a medio escribir y nada aplicado
+        String logId = journal.intakeLog().id();
+        journal.halt();
+        writeTornRecord(journal.intakeLog());
+
+        OrderIntakeJournal recovered = open();
+        try {
+            assertThat(orderRepository.findAllById(acknowledged.stream().map(Order::getId).toList()))
+                    .hasSize(acknowledged.size())
+                    .allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED));
+            assertThat(orderRepository.count()).isEqualTo(acknowledged.size());
+            assertThat(checkpointRepository.findById(logId).orElseThrow().getAppliedLsn())
+                    .isEqualTo(acknowledged.size());
+
+            // Las órdenes nuevas siguen a partir del último LSN recuperado
+            recovered.submit(order("sku-after", 1));
+            assertThat(recovered.applyPending()).isTrue();
+            assertThat(orderRepository.count()).isEqualTo(acknowledged.size() + 1);
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void batchFailingMidwayIsAppliedExactlyOnceAfterRestart() {
+        OrderIntakeJournal journal = open();
+        List<Order> acknowledged = IntStream.range(0, 5)
+                .mapToObj(i -> journal.submit(order("sku-" + i, 1)))
+                .toList();
+
+        // Una fila con el id de la tercera orden hace fallar el batch a mitad del INSERT
+        long conflicting = acknowledged.get(2).getId();
+        jdbcTemplate.update(OrderIntakeJournal.INSERT_ORDER, conflicting, "other", 1, OrderStatus.CONFIRMED.name());
+        assertThat(journal.applyPending()).isFalse();
+        assertThat(orderRepository.count()).isEqualTo(1);
+
+        jdbcTemplate.update("DELETE FROM orders WHERE id = ?", conflicting);
+        journal.halt();
+
+        OrderIntakeJournal recovered = open();
+        recovered.close();
+        assertThat(orderRepository.count()).isEqualTo(acknowledged.size());
+
+        // Una segunda recuperación no vuelve a insertar nada
+        open().close();
+        assertThat(orderRepository.count()).isEqualTo(acknowledged.size());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    private OrderIntakeJournal open() {
+        return new OrderIntakeJournal(intakeLog(), checkpointRepository, jdbcTemplate, transactionManager,
+                entityManagerFactory, 16, NEVER, new SimpleMeterRegistry());
+    }
+
+    private OrderIntakeLog intakeLog() {
+        // Segmentos pequeños para que los lotes crucen de un segmento al siguiente
+        return new OrderIntakeLog(directory, 512, 8, 1024);
+    }
+
+    /**
+     * Cabecera de un registro sin el resto de sus bytes, justo después del último registro completo.
+     */
+    private static void writeTornRecord(OrderIntakeLog current) throws IOException {
+        try (FileChannel channel = FileChannel.open(current.currentSegment(), StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(16).putInt(40).putLong(Long.MAX_VALUE).putInt(7).flip();
+            channel.write(torn, current.currentPosition());
+        }
+    }
+
+    private static Order order(String sku, int quantity) {
+        Order order = new Order();
+        order.setSku(sku);
+        order.setQuantity(quantity);
+        return order;
+    }
+}
@@ -0,0 +1,188 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.metrics.OrderMetrics;
+import com.ecommerce.orderservice.models.Order;
+import com.ecommerce.orderservice.models.OrderOutbox;
+import com.ecommerce.orderservice.models.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reintentos del dispatcher del outbox contra un inventario simulado que, como inventory-service,
+ * aplica cada id de reserva una sola vez. Un timeout puede llegar con la reserva ya aplicada; una
+ * conexión rechazada no llega nunca.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderOutboxDispatcherTest {
+
+    private static final int STOCK = 10;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private StockReleaseRepository stockReleaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final StubInventory inventory = new StubInventory();
+    private final AtomicInteger stock = new AtomicInteger(STOCK);
+    private final Map<String, Integer> applied = new ConcurrentHashMap<>();
+    private final Set<String> released = ConcurrentHashMap.newKeySet();
+    private final List<String> sentIds = new CopyOnWriteArrayList<>();
+    private OrderOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void createDispatcher() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        dispatcher = new OrderOutboxDispatcher(orderOutboxRepository, orderRepository, inventory.gateway,
+                inventory.productStockView, new OrderMetrics(inventory.meterRegistry),
+                inventory.releaser(stockReleaseRepository, transactionTemplate), transactionTemplate);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(dispatcher, "lease", Duration.ofSeconds(30));
+
+        inventory.answer("releaseStock", args -> {
+            for (StockReservationDTO release : reservations(args)) {
+                // Una liberación que llega antes que su reserva impide aplicarla después
+                if (released.add(release.getReservationId()) && applied.containsKey(release.getReservationId())) {
+                    stock.addAndGet(release.getQuantity());
+                }
+            }
+            return List.of();
+        });
+    }
+
+    @Test
+    void reservationThatTimesOutIsRetriedWithTheSameIdAndAppliedOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+        inventory.answer("reserveStock", args -> {
+            List<StockReservationDTO> reservations = reservations(args);
+            reservations.forEach(this::apply);
+            if (attempts.incrementAndGet() == 1) {
+                // Aplicada, pero la respuesta llega después del time limiter
+                StubInventory.sleep(StubInventory.TIMEOUT.multipliedBy(3));
+            }
+            return StubInventory.reserved(reservations);
+        });
+        Order order = pendingOrder(3);
+
+        dispatcher.dispatch();
+        assertThat(status(order)).isEqualTo(OrderStatus.PENDING);
+        dispatcher.dispatch();
+
+        assertThat(status(order)).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(sentIds).hasSize(2).containsOnly(sentIds.get(0));
+        assertThat(stock).hasValue(STOCK - 3);
+        assertThat(released).isEmpty();
+    }
+
+    @Test
+    void reservationThatKeepsTimingOutIsReleasedWhenTheOrderIsRejected() {
+        inventory.answer("reserveStock", args -> {
+            List<StockReservationDTO> reservations = reservations(args);
+            reservations.forEach(this::apply);
+            StubInventory.sleep(StubInventory.TIMEOUT.multipliedBy(3));
+            return StubInventory.reserved(reservations);
+        });
+        Order order = pendingOrder(3);
+
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch();
+        }
+
+        assertThat(status(order)).isEqualTo(OrderStatus.REJECTED);
+        assertThat(orderOutboxRepository.count()).isZero();
+        // Tres intentos con el mismo id: se descontó una vez y se devolvió al rechazar la orden
+        assertThat(sentIds).hasSize(3).containsOnly(sentIds.get(0));
+        assertThat(released).containsExactly(sentIds.get(0));
+        assertThat(stock).hasValue(STOCK);
+    }
+
+    @Test
+    void refusedConnectionNeverDecrementsAndIsRetriedUntilInventoryAnswers() {
+        AtomicInteger calls = new AtomicInteger();
+        inventory.answer("reserveStock", args -> {
+            List<StockReservationDTO> reservations = reservations(args);
+            // El gateway reintenta la conexión rechazada tres veces por cada intento del dispatcher
+            if (calls.incrementAndGet() <= 3) {
+                throw new IllegalStateException(new ConnectException("Connection refused"));
+            }
+            reservations.forEach(this::apply);
+            return StubInventory.reserved(reservations);
+        });
+        Order order = pendingOrder(3);
+
+        dispatcher.dispatch();
+        assertThat(status(order)).isEqualTo(OrderStatus.PENDING);
+        assertThat(stock).hasValue(STOCK);
+        dispatcher.dispatch();
+
+        assertThat(status(order)).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(calls).hasValue(4);
+        assertThat(stock).hasValue(STOCK - 3);
+        assertThat(released).isEmpty();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderOutboxRepository.deleteAll();
+        orderRepository.deleteAll();
+        stockReleaseRepository.deleteAll();
+    }
+
+    private Order pendingOrder(int quantity) {
+        Order order = orderRepository.save(new Order(null, "pro1", quantity, OrderStatus.PENDING, null));
+        orderOutboxRepository.save(new OrderOutbox(null, order.getId(), "pro1", quantity,
+                UUID.randomUUID().toString(), 0, Instant.now(), null));
+        return order;
+    }
+
+    private void apply(StockReservationDTO reservation) {
+        sentIds.add(reservation.getReservationId());
+        if (!released.contains(reservation.getReservationId())
+                && applied.putIfAbsent(reservation.getReservationId(), reservation.getQuantity()) == null) {
+            stock.addAndGet(-reservation.getQuantity());
+        }
+    }
+
+    private OrderStatus status(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getStatus();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<StockReservationDTO> reservations(Object[] args) {
+        return (List<StockReservationDTO>) args[0];
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.CreateOrderDTO;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.orderservice.mapper.OrderMapper;
+import com.ecommerce.orderservice.metrics.OrderMetrics;
+import com.ecommerce.orderservice.repository.OrderOutboxRepository;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fallos de la reserva en {@link OrderService#saveOrder}: solo se reintentan los fallos de conexión,
+ * y los que pudieron aplicarse en inventory-service (timeout, 5xx) se liberan por id de reserva.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Autowired
+    private StockReleaseRepository stockReleaseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final StubInventory inventory = new StubInventory();
+    private OrderService orderService;
+
+    @BeforeEach
+    void createService() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        orderService = new OrderService(orderRepository, orderOutboxRepository, Mappers.getMapper(OrderMapper.class),
+                inventory.gateway, inventory.productStockView, new OrderMetrics(inventory.meterRegistry),
+                inventory.releaser(stockReleaseRepository, transactionTemplate),
+                entityManager, new ObjectMapper(), transactionTemplate, Optional.empty());
+    }
+
+    @Test
+    void reservationThatTimesOutIsReleasedByItsId() {
+        AtomicReference<StockReservationDTO> sent = new AtomicReference<>();
+        inventory.answer("reserveStock", args -> {
+            sent.set((StockReservationDTO) args[1]);
+            // Inventory aplica la reserva, pero la respuesta llega tarde
+            StubInventory.sleep(StubInventory.TIMEOUT.multipliedBy(3));
+            return StubInventory.result(sent.get(), StockReservationResultDTO.Status.RESERVED);
+        });
+
+        assertThatThrownBy(() -> orderService.saveOrder(order()))
+                .isInstanceOf(OrderExceptions.InventoryUnavailableException.class);
+
+        assertThat(inventory.calls("reserveStock")).isEqualTo(1);
+        assertThat(inventory.released).singleElement().satisfies(release -> {
+            assertThat(release.getReservationId()).isNotBlank().isEqualTo(sent.get().getReservationId());
+            assertThat(release.getQuantity()).isEqualTo(2);
+        });
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    void refusedConnectionIsRetriedAndNothingIsReleased() {
+        inventory.answer("reserveStock", args -> {
+            throw new IllegalStateException(new ConnectException("Connection refused"));
+        });
+
+        assertThatThrownBy(() -> orderService.saveOrder(order())).isInstanceOf(IllegalStateException.class);
+
+        assertThat(inventory.calls("reserveStock")).isEqualTo(3);
+        assertThat(inventory.released).isEmpty();
+    }
+
+    @Test
+    void serviceUnavailableIsNotRetriedAndIsReleased() {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/inventory/pro1/reserve", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        inventory.answer("reserveStock", args -> {
+            throw new FeignException.ServiceUnavailable("503", request, null, Map.of());
+        });
+
+        assertThatThrownBy(() -> orderService.saveOrder(order())).isInstanceOf(FeignException.ServiceUnavailable.class);
+
+        assertThat(inventory.calls("reserveStock")).isEqualTo(1);
+        assertThat(inventory.released).hasSize(1);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        stockReleaseRepository.deleteAll();
+    }
+
+    private static CreateOrderDTO order() {
+        CreateOrderDTO order = new CreateOrderDTO();
+        order.setSku("pro1");
+        order.setQuantity(2);
+        return order;
+    }
+}
@@ -0,0 +1,219 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.cache.ProductMetadataCache;
+import com.ecommerce.orderservice.cache.ProductStockView;
+import com.ecommerce.orderservice.dto.ProductDTO;
+import com.ecommerce.orderservice.dto.ProductEventDTO;
+import com.ecommerce.orderservice.dto.ProductEventPageDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.exception.OrderExceptions;
+import com.ecommerce.sharedlib.dto.KeysetPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recuperación de {@link ProductEventConsumer} contra un feed simulado con la misma semántica que
+ * el log en memoria de inventory-service: {@code truncated} si el stream pedido no es el actual
+ * o si el log ya descartó eventos posteriores al cursor.
+ */
+class ProductEventConsumerTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    private final StubInventory inventory = new StubInventory();
+    private final Feed feed = new Feed();
+    private ProductEventConsumer consumer;
+
+    @BeforeEach
+    void createConsumer() {
+        inventory.answer("getProductEvents", args -> feed.read((String) args[0], (long) args[1], (int) args[2]));
+        inventory.answer("getProductsPage", args -> feed.catalogPage((String) args[0], (int) args[1]));
+        consumer = consumer(inventory.productStockView);
+    }
+
+    @Test
+    void newStreamIdAfterAnInventoryRestartRebuildsTheViewFromTheCatalog() {
+        feed.product("pro1", 5);
+        feed.product("pro2", 5);
+        consumer.poll();
+        assertThat(inventory.productStockView.rejection("pro1", 10))
+                .containsInstanceOf(OrderExceptions.InsufficientStockException.class);
+
+        // inventory-service reinicia: log nuevo con otro streamId y el catálogo ya repuesto
+        feed.restart();
+        feed.product("pro1", 50);
+        consumer.poll();
+
+        // El feed avisa del cambio de stream: la vista se vacía y no decide hasta leer el feed nuevo
+        assertThat(inventory.productStockView.isFresh()).isFalse();
+        assertThat(inventory.productStockView.rejection("pro1", 10)).isEmpty();
+
+        consumer.poll();
+        assertThat(inventory.productStockView.isFresh()).isTrue();
+        assertThat(inventory.productStockView.rejection("pro1", 10)).isEmpty();
+        assertThat(inventory.productStockView.rejection("pro1", 60))
+                .containsInstanceOf(OrderExceptions.InsufficientStockException.class);
+        assertThat(feed.reads).contains(feed.streamId);
+        // Catálogo leído página a página: dos productos al arrancar y uno tras el reinicio
+        assertThat(inventory.calls("getProductsPage")).isEqualTo(3);
+    }
+
+    @Test
+    void truncatedFeedRebuildsAndResumesFromTheNewHead() {
+        feed.product("pro1", 5);
+        consumer.poll();
+        consumer.poll();
+        assertThat(inventory.calls("getProductsPage")).isEqualTo(1);
+
+        // Más eventos de los que retiene el log mientras el consumidor no leía
+        for (int quantity = 1; quantity <= Feed.CAPACITY + 5; quantity++) {
+            feed.stockChanged("pro1", quantity);
+        }
+        consumer.poll();
+        assertThat(inventory.calls("getProductsPage")).isEqualTo(2);
+        assertThat(inventory.productStockView.isFresh()).isFalse();
+
+        feed.stockChanged("pro1", 3);
+        consumer.poll();
+        assertThat(inventory.productStockView.isFresh()).isTrue();
+        assertThat(inventory.productStockView.rejection("pro1", 4))
+                .containsInstanceOf(OrderExceptions.InsufficientStockException.class);
+        // Tras reconstruir se sigue desde la cabeza del log, sin volver a pedir lo descartado
+        assertThat(feed.cursors.get(feed.cursors.size() - 1)).isEqualTo(Feed.CAPACITY + 5L);
+        assertThat(inventory.calls("getProductsPage")).isEqualTo(2);
+    }
+
+    @Test
+    void staleViewLeavesTheDecisionToTheReservationUnlessTheProductIsKnownInactive() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProductStockView view = new ProductStockView(meterRegistry,
+                new ProductMetadataCache(meterRegistry, 100, Duration.ofSeconds(30), Duration.ofSeconds(30)),
+                100, Duration.ofMillis(50));
+        ProductEventConsumer staleConsumer = consumer(view);
+        feed.product("pro1", 0);
+        feed.product("pro2", 0);
+        staleConsumer.poll();
+        assertThat(view.rejection("pro1", 1)).containsInstanceOf(OrderExceptions.InsufficientStockException.class);
+
+        // El feed deja de responder y la vista caduca
+        inventory.answer("getProductEvents", args -> {
+            throw new IllegalStateException("inventory-service no responde");
+        });
+        StubInventory.sleep(Duration.ofMillis(100));
+        staleConsumer.poll();
+
+        // Sin vista al día la reserva remota decide, salvo para lo que la última reserva dijo inactivo
+        assertThat(view.isFresh()).isFalse();
+        assertThat(view.rejection("pro1", 1)).isEmpty();
+        view.update(inactive("pro2"));
+        assertThat(view.rejection("pro2", 1)).containsInstanceOf(OrderExceptions.ProductNotAvailableException.class);
+    }
+
+    private ProductEventConsumer consumer(ProductStockView view) {
+        ProductEventConsumer consumer = new ProductEventConsumer(inventory.client, view, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(consumer, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(consumer, "snapshotPageSize", 1);
+        return consumer;
+    }
+
+    private static StockReservationResultDTO inactive(String sku) {
+        ProductDTO product = new ProductDTO();
+        product.setSku(sku);
+        product.setActive(false);
+        product.setVersion(1L);
+        StockReservationResultDTO result = new StockReservationResultDTO();
+        result.setSku(sku);
+        result.setStatus(StockReservationResultDTO.Status.INACTIVE);
+        result.setProduct(product);
+        return result;
+    }
+
+    /**
+     * Catálogo y log de eventos acotado de un inventory-service simulado.
+     */
+    private static final class Feed {
+
+        static final int CAPACITY = 20;
+
+        final List<String> reads = new CopyOnWriteArrayList<>();
+        final List<Long> cursors = new CopyOnWriteArrayList<>();
+        private final TreeMap<String, ProductDTO> catalog = new TreeMap<>();
+        private final List<ProductEventDTO> events = new ArrayList<>();
+        private String streamId = UUID.randomUUID().toString();
+        private long lastSequence;
+
+        synchronized void product(String sku, int quantity) {
+            ProductDTO product = new ProductDTO();
+            product.setSku(sku);
+            product.setActive(true);
+            product.setQuantity(quantity);
+            product.setVersion(lastSequence);
+            catalog.put(sku, product);
+        }
+
+        synchronized void stockChanged(String sku, int quantity) {
+            ProductDTO product = catalog.get(sku);
+            product.setQuantity(quantity);
+            product.setVersion(product.getVersion() + 1);
+            ProductEventDTO event = new ProductEventDTO();
+            event.setSequence(++lastSequence);
+            event.setType(ProductEventDTO.Type.STOCK_CHANGED);
+            event.setSku(sku);
+            event.setActive(true);
+            event.setQuantity(quantity);
+            event.setVersion(product.getVersion());
+            events.add(event);
+            if (events.size() > CAPACITY) {
+                events.remove(0);
+            }
+        }
+
+        synchronized void restart() {
+            streamId = UUID.randomUUID().toString();
+            lastSequence = 0;
+            events.clear();
+            catalog.clear();
+        }
+
+        synchronized ProductEventPageDTO read(String expectedStreamId, long after, int limit) {
+            if (expectedStreamId != null) {
+                reads.add(expectedStreamId);
+                cursors.add(after);
+            }
+            long oldest = Math.max(1, lastSequence - CAPACITY + 1);
+            boolean truncated = expectedStreamId != null && !expectedStreamId.equals(streamId)
+                    || after > lastSequence || after + 1 < oldest;
+            List<ProductEventDTO> page = events.stream()
+                    .filter(event -> event.getSequence() > (truncated ? oldest - 1 : after))
+                    .limit(limit)
+                    .toList();
+            ProductEventPageDTO result = new ProductEventPageDTO();
+            result.setStreamId(streamId);
+            result.setEvents(page);
+            result.setCursor(page.isEmpty() ? after : page.get(page.size() - 1).getSequence());
+            result.setTruncated(truncated);
+            result.setLastSequence(lastSequence);
+            return result;
+        }
+
+        synchronized KeysetPage<ProductDTO> catalogPage(String after, int size) {
+            List<ProductDTO> items = (after == null ? catalog : catalog.tailMap(after, false)).values().stream()
+                    .limit(size)
+                    .toList();
+            boolean hasMore = !items.isEmpty()
+                    && catalog.higherKey(items.get(items.size() - 1).getSku()) != null;
+            return KeysetPage.of(items, hasMore ? items.get(items.size() - 1).getSku() : null);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.models.StockRelease;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Liberación de reservas de órdenes no creadas: si inventory-service no responde, la liberación
+ * se guarda en el outbox y se reintenta hasta que la confirma.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReleaserTest {
+
+    @Autowired
+    private StockReleaseRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final StubInventory inventory = new StubInventory();
+    private StockReleaser releaser;
+
+    @BeforeEach
+    void createReleaser() {
+        // Sin espera: cada llamada a retryPending encuentra vencidas las liberaciones pendientes
+        releaser = inventory.releaser(repository, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void releaseIsSentRightAwayWhenInventoryAnswers() {
+        releaser.release(List.of(new StockReservationDTO("pro1", 2, "r-1")));
+
+        assertThat(inventory.released).extracting(StockReservationDTO::getReservationId).containsExactly("r-1");
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    void failedReleaseIsKeptAndRetriedUntilInventoryConfirmsIt() {
+        inventory.answer("releaseStock", args -> {
+            throw new IllegalStateException("inventario caído");
+        });
+        releaser.release(List.of(new StockReservationDTO("pro1", 2, "r-1"), new StockReservationDTO("pro2", 1, "r-2")));
+        assertThat(repository.findAll()).extracting(StockRelease::getReservationId).containsExactlyInAnyOrder("r-1", "r-2");
+
+        releaser.retryPending();
+        assertThat(repository.findAll()).extracting(StockRelease::getAttempts).containsOnly(1);
+
+        inventory.answer("releaseStock", args -> List.of());
+        releaser.retryPending();
+        assertThat(inventory.calls("releaseStock")).isEqualTo(3);
+        assertThat(repository.count()).isZero();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+}
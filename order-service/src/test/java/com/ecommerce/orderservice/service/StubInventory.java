@@ -0,0 +1,129 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.cache.ProductMetadataCache;
+import com.ecommerce.orderservice.cache.ProductStockView;
+import com.ecommerce.orderservice.client.ConnectionFailurePredicate;
+import com.ecommerce.orderservice.client.InventoryClient;
+import com.ecommerce.orderservice.client.InventoryGateway;
+import com.ecommerce.orderservice.client.InventoryResilience;
+import com.ecommerce.orderservice.dto.StockReservationDTO;
+import com.ecommerce.orderservice.dto.StockReservationResultDTO;
+import com.ecommerce.orderservice.repository.StockReleaseRepository;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * {@link InventoryGateway} real sobre un {@link InventoryClient} simulado: cada test decide qué
+ * responde cada método del cliente. Mismo predicado de reintento que en producción, con esperas
+ * y time limiter cortos. Las liberaciones se aceptan y se anotan salvo que el test diga otra cosa.
+ */
+final class StubInventory {
+
+    static final Duration TIMEOUT = Duration.ofMillis(200);
+
+    final List<StockReservationDTO> released = new CopyOnWriteArrayList<>();
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final ProductStockView productStockView = new ProductStockView(meterRegistry,
+            new ProductMetadataCache(meterRegistry, 100, Duration.ofSeconds(30), Duration.ofSeconds(2)),
+            100, Duration.ofSeconds(5));
+    final InventoryClient client;
+    final InventoryGateway gateway;
+
+    private final Map<String, Function<Object[], Object>> answers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    StubInventory() {
+        answer("releaseStock", args -> {
+            @SuppressWarnings("unchecked")
+            List<StockReservationDTO> releases = (List<StockReservationDTO>) args[0];
+            released.addAll(releases);
+            return List.of();
+        });
+        client = (InventoryClient) Proxy.newProxyInstance(InventoryClient.class.getClassLoader(),
+                new Class<?>[]{InventoryClient.class}, (proxy, method, args) -> {
+                    calls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return answer.apply(args);
+                });
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(10))
+                .retryOnException(new ConnectionFailurePredicate())
+                .build());
+        InventoryResilience resilience = new InventoryResilience(CircuitBreakerRegistry.ofDefaults(),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(TIMEOUT).build()),
+                retryRegistry, productStockView, meterRegistry);
+        // Hilos de sobra para que una llamada colgada no retrase las siguientes
+        ThreadPoolBulkheadRegistry bulkheadRegistry = ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(8)
+                .maxThreadPoolSize(8)
+                .build());
+        gateway = new InventoryGateway(client, resilience, bulkheadRegistry);
+    }
+
+    /**
+     * {@link StockReleaser} sobre este inventario, sin espera entre reintentos.
+     */
+    StockReleaser releaser(StockReleaseRepository repository, TransactionTemplate transactionTemplate) {
+        StockReleaser releaser = new StockReleaser(repository, gateway, transactionTemplate);
+        ReflectionTestUtils.setField(releaser, "batchSize", 100);
+        ReflectionTestUtils.setField(releaser, "retryBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(releaser, "maxBackoff", Duration.ZERO);
+        return releaser;
+    }
+
+    void answer(String method, Function<Object[], Object> answer) {
+        answers.put(method, answer);
+    }
+
+    int calls(String method) {
+        AtomicInteger count = calls.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Responde a una reserva en lote como si hubiera reservado todas las líneas.
+     */
+    static List<StockReservationResultDTO> reserved(List<StockReservationDTO> reservations) {
+        return reservations.stream()
+                .map(reservation -> result(reservation, StockReservationResultDTO.Status.RESERVED))
+                .toList();
+    }
+
+    static StockReservationResultDTO result(StockReservationDTO reservation, StockReservationResultDTO.Status status) {
+        StockReservationResultDTO result = new StockReservationResultDTO();
+        result.setSku(reservation.getSku());
+        result.setStatus(status);
+        result.setRequested(reservation.getQuantity());
+        result.setAvailable(100);
+        return result;
+    }
+
+    static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,6 +6,11 @@ public class SecurityContrants {
     public static final String ROLE_USER = "USER";
     public static final String ROLE_ADMIN = "ADMIN";
 
+    // Identidad verificada por el api-gateway y propagada a los servicios internos
+    public static final String USER_HEADER = "X-Auth-User";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+    public static final String GATEWAY_SECRET_HEADER = "X-Gateway-Secret";
+
     // Endpoints públicos
     public static final String[] PUBLIC_URLS = {
             "/api/auth/**",
@@ -0,0 +1,31 @@
+package com.ecommerce.sharedlib.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página obtenida por keyset (cursor) en lugar de offset. {@code nextCursor} es la
+ * clave del último elemento y se envía como {@code after} para pedir la siguiente
+ * página; es null cuando no hay más resultados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public static <T> KeysetPage<T> of(List<T> items, String nextCursor) {
+        return KeysetPage.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(nextCursor != null)
+                .build();
+    }
+}
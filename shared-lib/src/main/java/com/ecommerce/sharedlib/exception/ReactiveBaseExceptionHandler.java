@@ -0,0 +1,85 @@
+package com.ecommerce.sharedlib.exception;
+
+import com.ecommerce.sharedlib.dto.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Equivalente WebFlux de {@link BaseExceptionHandler}: mismas respuestas para los servicios reactivos.
+ */
+@Slf4j
+public abstract class ReactiveBaseExceptionHandler {
+
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusinessException(BusinessException ex,
+                                                                       ServerWebExchange exchange) {
+        log.warn("Business exception: {}", ex.getMessage());
+
+        ApiResponse<String> response = ApiResponse.error(ex.getMessage(), describe(exchange));
+        return ResponseEntity.status(ex.getHttpStatus()).body(response);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(
+            WebExchangeBindException ex) {
+
+        log.warn("Validation error: {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+
+        ApiResponse<Map<String, String>> response = ApiResponse.<Map<String, String>>builder()
+                .success(false)
+                .message("Validation failed")
+                .data(errors)
+                .timestamp(java.time.LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ApiResponse<String>> handleRuntimeException(
+            RuntimeException ex, ServerWebExchange exchange) {
+
+        log.error("Runtime exception: ", ex);
+
+        ApiResponse<String> response = ApiResponse.error(
+                "Error interno del servidor: " + ex.getMessage(),
+                describe(exchange)
+        );
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse<String>> handleGlobalException(
+            Exception ex, ServerWebExchange exchange) {
+
+        log.error("Unexpected error: ", ex);
+
+        ApiResponse<String> response = ApiResponse.error(
+                "Error interno del servidor",
+                describe(exchange)
+        );
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+
+    /**
+     * Mismo formato que {@code WebRequest.getDescription(false)} en los servicios servlet.
+     */
+    protected static String describe(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.sharedlib.security;
+
+import com.ecommerce.sharedlib.constants.SecurityContrants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro para los servicios internos: confía en la identidad que el api-gateway ya verificó
+ * (cabeceras {@code X-Auth-User} / {@code X-Auth-Roles}) en lugar de volver a validar el JWT.
+ * Solo se aceptan las cabeceras que incluyan el secreto compartido; sin secreto configurado se ignoran.
+ */
+public class GatewayAuthenticationFilter extends OncePerRequestFilter {
+
+    private final GatewayIdentity gatewayIdentity;
+
+    public GatewayAuthenticationFilter(String sharedSecret) {
+        this.gatewayIdentity = new GatewayIdentity(sharedSecret);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        gatewayIdentity.authenticate(
+                request.getHeader(SecurityContrants.USER_HEADER),
+                request.getHeader(SecurityContrants.ROLES_HEADER),
+                request.getHeader(SecurityContrants.GATEWAY_SECRET_HEADER)
+        ).ifPresent(authentication -> {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+        });
+        chain.doFilter(request, response);
+    }
+}
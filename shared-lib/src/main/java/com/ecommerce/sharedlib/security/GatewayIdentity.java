@@ -0,0 +1,53 @@
+package com.ecommerce.sharedlib.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Construye la autenticación a partir de las cabeceras de identidad del api-gateway.
+ * Compartido por los filtros servlet y reactivo. Sin secreto compartido no hay forma de saber
+ * que las cabeceras vienen del gateway, así que se ignoran y las peticiones quedan anónimas.
+ */
+@Slf4j
+final class GatewayIdentity {
+
+    private final byte[] sharedSecret;
+
+    GatewayIdentity(String sharedSecret) {
+        this.sharedSecret = sharedSecret == null || sharedSecret.isBlank()
+                ? null
+                : sharedSecret.getBytes(StandardCharsets.UTF_8);
+        if (this.sharedSecret == null) {
+            log.warn("security.gateway.shared-secret no está configurado: se ignoran las cabeceras de identidad del gateway");
+        }
+    }
+
+    Optional<UsernamePasswordAuthenticationToken> authenticate(String user, String roles, String secret) {
+        if (user == null || user.isBlank() || !isFromGateway(secret)) {
+            return Optional.empty();
+        }
+        return Optional.of(UsernamePasswordAuthenticationToken.authenticated(user, null, parseRoles(roles)));
+    }
+
+    private boolean isFromGateway(String secret) {
+        return sharedSecret != null && secret != null && MessageDigest.isEqual(sharedSecret, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<SimpleGrantedAuthority> parseRoles(String roles) {
+        if (roles == null || roles.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .toList();
+    }
+}
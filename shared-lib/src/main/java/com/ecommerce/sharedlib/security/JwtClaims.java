@@ -0,0 +1,16 @@
+package com.ecommerce.sharedlib.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Datos ya verificados de un token JWT.
+ */
+@Value
+public class JwtClaims {
+    String subject;
+    List<String> roles;
+    Instant expiresAt;
+}
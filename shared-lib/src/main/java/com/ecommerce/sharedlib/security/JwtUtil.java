@@ -1,58 +1,105 @@
 package com.ecommerce.sharedlib.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Generación y validación de tokens JWT. La clave y el parser se construyen una sola vez;
+ * los claims ya verificados se guardan en una caché acotada, indexada por el hash del token
+ * y que nunca conserva una entrada más allá de la expiración del propio token.
+ */
 @Slf4j
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
-    private String secret;
+    private static final String ROLES_CLAIM = "roles";
 
-    @Value("${jwt.expiration:86400000}") // 24 horas
-    private Long expiration;
+    private final Long expiration;
+    private final Clock clock;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, JwtClaims> claimsCache;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret:mySecretKey123456789012345678901234567890}") String secret,
+                   @Value("${jwt.expiration:86400000}") Long expiration, // 24 horas
+                   @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize) {
+        this(secret, expiration, claimsCacheMaxSize, Clock.systemUTC());
+    }
+
+    /**
+     * El mismo reloj firma, verifica la expiración y caduca la caché; los tests lo avanzan a mano.
+     */
+    JwtUtil(String secret, Long expiration, long claimsCacheMaxSize, Clock clock) {
+        this.expiration = expiration;
+        this.clock = clock;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new UntilTokenExpiry(clock))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
     }
 
     public String generateToken(String username, List<String> roles) {
         return Jwts.builder()
                 .subject(username)
-                .claim("roles", roles)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .claim(ROLES_CLAIM, roles)
+                .issuedAt(Date.from(clock.instant()))
+                .expiration(new Date(clock.millis() + expiration))
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifica el token (firma y expiración) y devuelve sus claims, o vacío si no es válido.
+     * Un token ya verificado no se vuelve a parsear mientras siga vigente.
+     */
+    public Optional<JwtClaims> validateAndExtract(String token) {
+        try {
+            return Optional.of(verify(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     public String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
+        return verify(token).getSubject();
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> getRolesFromToken(String token) {
-        return getClaimsFromToken(token).get("roles", List.class);
+        return verify(token).getRoles();
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            getClaimsFromToken(token);
-            return !isTokenExpired(token);
-        } catch (JwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
+        return validateAndExtract(token).isPresent();
     }
 
     public String extractToken(String bearerToken) {
@@ -62,16 +109,69 @@ public class JwtUtil {
         return bearerToken;
     }
 
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private JwtClaims verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+
+        String key = hash(token);
+        JwtClaims cached = claimsCache.getIfPresent(key);
+        if (cached != null && cached.getExpiresAt().isAfter(clock.instant())) {
+            return cached;
+        }
+
+        // parseSignedClaims valida firma y expiración en una sola pasada
+        JwtClaims claims = toJwtClaims(parser.parseSignedClaims(token).getPayload());
+        if (claims.getExpiresAt() != null) {
+            claimsCache.put(key, claims);
+        }
+        return claims;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JwtClaims toJwtClaims(Claims claims) {
+        List<String> roles = claims.get(ROLES_CLAIM, List.class);
+        Date expiresAt = claims.getExpiration();
+        return new JwtClaims(
+                claims.getSubject(),
+                roles != null ? List.copyOf(roles) : List.of(),
+                expiresAt != null ? expiresAt.toInstant() : null);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = getClaimsFromToken(token).getExpiration();
-        return expiration.before(new Date());
+    /**
+     * Expira cada entrada en el instante de expiración de su token.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, JwtClaims> {
+
+        private final Clock clock;
+
+        private UntilTokenExpiry(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            long remainingMillis = claims.getExpiresAt().toEpochMilli() - clock.millis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package com.ecommerce.sharedlib.security;
+
+import com.ecommerce.sharedlib.constants.SecurityContrants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión WebFlux de {@link GatewayAuthenticationFilter} para los servicios internos reactivos.
+ */
+public class ReactiveGatewayAuthenticationFilter implements WebFilter {
+
+    private final GatewayIdentity gatewayIdentity;
+
+    public ReactiveGatewayAuthenticationFilter(String sharedSecret) {
+        this.gatewayIdentity = new GatewayIdentity(sharedSecret);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return gatewayIdentity.authenticate(
+                        headers.getFirst(SecurityContrants.USER_HEADER),
+                        headers.getFirst(SecurityContrants.ROLES_HEADER),
+                        headers.getFirst(SecurityContrants.GATEWAY_SECRET_HEADER))
+                .map(authentication -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)))
+                .orElseGet(() -> chain.filter(exchange));
+    }
+}
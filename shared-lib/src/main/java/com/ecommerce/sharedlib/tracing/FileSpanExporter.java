@@ -0,0 +1,136 @@
+package com.ecommerce.sharedlib.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escribe cada span terminado como una línea JSON en un fichero local (un span por línea),
+ * pensado para entornos de desarrollo sin colector OTLP. Lo alimenta el BatchSpanProcessor
+ * de Spring Boot, así que la escritura nunca ocurre en el hilo de la petición.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final Path path;
+    private final BufferedWriter writer;
+
+    public FileSpanExporter(Path path) {
+        this.path = path;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el fichero de spans " + path, e);
+        }
+        log.info("Exportando spans a {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                writer.write(toJson(span));
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Error escribiendo spans en {}: {}", path, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    static String toJson(SpanData span) {
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"traceId\":\"").append(span.getTraceId())
+                .append("\",\"spanId\":\"").append(span.getSpanId()).append('"');
+        if (span.getParentSpanContext().isValid()) {
+            json.append(",\"parentSpanId\":\"").append(span.getParentSpanId()).append('"');
+        }
+        json.append(",\"service\":");
+        appendString(json, span.getResource().getAttribute(SERVICE_NAME));
+        json.append(",\"name\":");
+        appendString(json, span.getName());
+        json.append(",\"kind\":\"").append(span.getKind())
+                .append("\",\"startEpochMicros\":").append(TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos()))
+                .append(",\"durationMicros\":")
+                .append(TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()))
+                .append(",\"status\":\"").append(span.getStatus().getStatusCode())
+                .append("\",\"attributes\":{");
+        boolean[] first = {true};
+        span.getAttributes().forEach((key, value) -> {
+            if (!first[0]) {
+                json.append(',');
+            }
+            first[0] = false;
+            appendString(json, key.getKey());
+            json.append(':');
+            appendString(json, String.valueOf(value));
+        });
+        return json.append("}}").toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.sharedlib.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Exportador que guarda los spans terminados en memoria para que los tests puedan
+ * inspeccionar las trazas ({@code tracing.exporter=memory}). No tiene límite: no usar en producción.
+ */
+public class InMemorySpanCollector implements SpanExporter {
+
+    private final ConcurrentLinkedQueue<SpanData> spans = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> batch) {
+        spans.addAll(batch);
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        spans.clear();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public List<SpanData> getFinishedSpans() {
+        return List.copyOf(spans);
+    }
+
+    public List<SpanData> getFinishedSpans(String traceId) {
+        return spans.stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .toList();
+    }
+
+    public void reset() {
+        spans.clear();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.sharedlib.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Abre una observación {@code repository.call} (span + timer) por cada método de un repositorio
+ * Spring Data. Con repositorios reactivos la observación cubre la suscripción, no el ensamblado,
+ * y toma como padre la observación del contexto de Reactor.
+ */
+public class RepositoryObservationInterceptor implements MethodInterceptor {
+
+    public static final String OBSERVATION_NAME = "repository.call";
+
+    private static final boolean REACTOR_PRESENT = ClassUtils.isPresent(
+            "reactor.core.publisher.Mono", RepositoryObservationInterceptor.class.getClassLoader());
+
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+    private final String repository;
+    private volatile ObservationRegistry registry;
+
+    public RepositoryObservationInterceptor(ObjectProvider<ObservationRegistry> registryProvider,
+                                            Class<?> repositoryInterface) {
+        this.registryProvider = registryProvider;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ObservationRegistry observationRegistry = registry();
+        if (observationRegistry.isNoop()) {
+            return invocation.proceed();
+        }
+
+        String method = invocation.getMethod().getName();
+        if (REACTOR_PRESENT && Reactive.isPublisher(invocation.getMethod().getReturnType())) {
+            return Reactive.observe(invocation.proceed(), () -> observation(observationRegistry, method));
+        }
+
+        Observation observation = observation(observationRegistry, method).start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private Observation observation(ObservationRegistry observationRegistry, String method) {
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method);
+    }
+
+    // El registro se resuelve en la primera llamada: el post-procesador se crea antes que él
+    private ObservationRegistry registry() {
+        ObservationRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+            registry = current;
+        }
+        return current;
+    }
+
+    /**
+     * Aislado en una clase aparte para no cargar Reactor en servicios que no lo tienen.
+     */
+    private static final class Reactive {
+
+        static boolean isPublisher(Class<?> type) {
+            return Mono.class.isAssignableFrom(type) || Flux.class.isAssignableFrom(type);
+        }
+
+        static Object observe(Object result, Supplier<Observation> factory) {
+            if (result instanceof Mono<?> mono) {
+                return Mono.deferContextual(context -> {
+                    Observation observation = start(factory, context.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+                    return mono.doOnError(observation::error).doFinally(signal -> observation.stop());
+                });
+            }
+            if (result instanceof Flux<?> flux) {
+                return Flux.deferContextual(context -> {
+                    Observation observation = start(factory, context.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+                    return flux.doOnError(observation::error).doFinally(signal -> observation.stop());
+                });
+            }
+            return result;
+        }
+
+        private static Observation start(Supplier<Observation> factory, Observation parent) {
+            return factory.get().parentObservation(parent).start();
+        }
+    }
+}
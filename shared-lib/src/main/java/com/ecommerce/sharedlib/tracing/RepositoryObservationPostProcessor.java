@@ -0,0 +1,29 @@
+package com.ecommerce.sharedlib.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Añade {@link RepositoryObservationInterceptor} al proxy de cada repositorio Spring Data
+ * (JPA o R2DBC) antes de que la factoría lo construya.
+ */
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+
+    public RepositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(
+                            new RepositoryObservationInterceptor(registryProvider, information.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+}
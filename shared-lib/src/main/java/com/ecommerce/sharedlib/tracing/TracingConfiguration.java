@@ -0,0 +1,56 @@
+package com.ecommerce.sharedlib.tracing;
+
+import io.micrometer.observation.ObservationPredicate;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Exportadores de spans comunes a los servicios, elegidos con {@code tracing.exporter}:
+ * {@code file} (JSON por línea en {@code tracing.file.path}), {@code memory} (tests) o {@code none}.
+ * Spring Boot registra cualquier {@code SpanExporter} del contexto en su BatchSpanProcessor;
+ * el muestreo se configura con {@code management.tracing.sampling.probability}.
+ * Las observaciones cuyo nombre empieza por un prefijo de {@code tracing.ignored-observations}
+ * no generan span (por defecto los filtros de Spring Security, varios spans por petición).
+ */
+@Configuration(proxyBeanMethods = false)
+public class TracingConfiguration {
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "file")
+    public FileSpanExporter fileSpanExporter(
+            @Value("${tracing.file.path:logs/${spring.application.name:app}-spans.jsonl}") String path) {
+        // El SdkTracerProvider cierra el exportador al apagarse, después de vaciar el último lote
+        return new FileSpanExporter(Path.of(path));
+    }
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "memory")
+    public InMemorySpanCollector inMemorySpanCollector() {
+        return new InMemorySpanCollector();
+    }
+
+    @Bean
+    public ObservationPredicate ignoredObservationsPredicate(
+            @Value("${tracing.ignored-observations:spring.security.}") List<String> prefixes) {
+        return (name, context) -> prefixes.stream().noneMatch(name::startsWith);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport")
+    static class RepositoryObservationConfiguration {
+
+        @Bean
+        static RepositoryObservationPostProcessor repositoryObservationPostProcessor(
+                ObjectProvider<ObservationRegistry> registryProvider) {
+            return new RepositoryObservationPostProcessor(registryProvider);
+        }
+    }
+}
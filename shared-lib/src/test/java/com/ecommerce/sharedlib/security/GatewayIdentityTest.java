@@ -0,0 +1,37 @@
+package com.ecommerce.sharedlib.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayIdentityTest {
+
+    private static final String SECRET = "gateway-secret";
+
+    @Test
+    void acceptsHeadersCarryingTheSharedSecret() {
+        GatewayIdentity identity = new GatewayIdentity(SECRET);
+
+        assertThat(identity.authenticate("ana", "USER,ADMIN", SECRET))
+                .hasValueSatisfying(authentication -> {
+                    assertThat(authentication.getName()).isEqualTo("ana");
+                    assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                            .containsExactly("ROLE_USER", "ROLE_ADMIN");
+                });
+    }
+
+    @Test
+    void rejectsMissingOrWrongSecret() {
+        GatewayIdentity identity = new GatewayIdentity(SECRET);
+
+        assertThat(identity.authenticate("ana", "ADMIN", null)).isEmpty();
+        assertThat(identity.authenticate("ana", "ADMIN", "other")).isEmpty();
+    }
+
+    @Test
+    void ignoresHeadersWhenNoSecretIsConfigured() {
+        assertThat(new GatewayIdentity("").authenticate("ana", "ADMIN", null)).isEmpty();
+        assertThat(new GatewayIdentity(null).authenticate("ana", "ADMIN", "anything")).isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.sharedlib.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000L, 100);
+
+    @Test
+    void validateAndExtractReturnsClaimsOfValidToken() {
+        String token = jwtUtil.generateToken("ana", List.of("USER", "ADMIN"));
+
+        Optional<JwtClaims> claims = jwtUtil.validateAndExtract(token);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getSubject()).isEqualTo("ana");
+        assertThat(claims.get().getRoles()).containsExactly("USER", "ADMIN");
+        assertThat(jwtUtil.getUsernameFromToken(token)).isEqualTo("ana");
+        assertThat(jwtUtil.getRolesFromToken(token)).containsExactly("USER", "ADMIN");
+        assertThat(jwtUtil.isTokenValid(token)).isTrue();
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() {
+        JwtUtil other = new JwtUtil("otherSecretKey12345678901234567890123456789", 60_000L, 100);
+        String token = other.generateToken("ana", List.of("USER"));
+
+        assertThat(jwtUtil.validateAndExtract(token)).isEmpty();
+        assertThatThrownBy(() -> jwtUtil.getUsernameFromToken(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokenEvenAfterCaching() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        JwtUtil shortLived = new JwtUtil(SECRET, 1_000L, 100, clock);
+        String token = shortLived.generateToken("ana", List.of("USER"));
+        assertThat(shortLived.isTokenValid(token)).isTrue();
+
+        clock.advance(Duration.ofMillis(1_100));
+
+        assertThat(shortLived.isTokenValid(token)).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedAndEmptyTokens() {
+        String token = jwtUtil.generateToken("ana", List.of("USER"));
+        assertThat(jwtUtil.isTokenValid(token)).isTrue();
+
+        assertThat(jwtUtil.isTokenValid(token.substring(0, token.length() - 2) + "xx")).isFalse();
+        assertThat(jwtUtil.isTokenValid("")).isFalse();
+        assertThat(jwtUtil.isTokenValid(null)).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}